@@ -0,0 +1,197 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.elasticsearch.benchmark.index.codec;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.SortedNumericDocValuesField;
+import org.apache.lucene.document.SortedSetDocValuesField;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.DocValues;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.SortedNumericDocValues;
+import org.apache.lucene.index.SortedSetDocValues;
+import org.apache.lucene.search.DocIdSetIterator;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.SortField;
+import org.apache.lucene.search.SortedNumericSortField;
+import org.apache.lucene.search.SortedSetSortField;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.apache.lucene.util.BytesRef;
+import org.apache.lucene.util.NumericUtils;
+import org.elasticsearch.core.internal.io.IOUtils;
+import org.elasticsearch.index.codec.CodecService;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the disk footprint and the cost of iterating the doc values of a metrics-like index, with the codecs that
+ * can be configured through {@code index.codec} and with or without an index sort on the host and the timestamp.
+ * The benchmarks measure how fast a sum and a terms aggregation could consume the doc values, and report the size
+ * of the index as secondary results through {@link IndexSize}.
+ */
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class MetricsDocValuesBenchmark {
+
+    private static final int NUM_DOCS = 1_000_000;
+    private static final int NUM_HOSTS = 100;
+
+    @Param({ CodecService.DEFAULT_CODEC, CodecService.BEST_COMPRESSION_CODEC })
+    public String codec;
+
+    @Param({ "false", "true" })
+    public boolean indexSort;
+
+    private Path path;
+    private Directory directory;
+    private DirectoryReader reader;
+
+    @Setup
+    public void setup() throws IOException {
+        path = Files.createTempDirectory("metrics");
+        directory = FSDirectory.open(path);
+        IndexWriterConfig config = new IndexWriterConfig();
+        config.setCodec(new CodecService(null, LogManager.getLogger(MetricsDocValuesBenchmark.class)).codec(codec));
+        if (indexSort) {
+            config.setIndexSort(
+                new Sort(new SortedSetSortField("host", false), new SortedNumericSortField("@timestamp", SortField.Type.LONG))
+            );
+        }
+        Random random = new Random(0);
+        long[] counters = new long[NUM_HOSTS];
+        long timestamp = 1_600_000_000_000L;
+        try (IndexWriter writer = new IndexWriter(directory, config)) {
+            for (int i = 0; i < NUM_DOCS; i++) {
+                int host = random.nextInt(NUM_HOSTS);
+                timestamp += random.nextInt(10);
+                counters[host] += random.nextInt(1000);
+                double gauge = Math.round(random.nextDouble() * 10000) / 100d;
+                Document doc = new Document();
+                doc.add(new SortedNumericDocValuesField("@timestamp", timestamp));
+                doc.add(new SortedSetDocValuesField("host", new BytesRef("host-" + host)));
+                doc.add(new SortedNumericDocValuesField("counter", counters[host]));
+                doc.add(new SortedNumericDocValuesField("gauge", NumericUtils.doubleToSortableLong(gauge)));
+                String source = "{\"@timestamp\":"
+                    + timestamp
+                    + ",\"host\":\"host-"
+                    + host
+                    + "\",\"counter\":"
+                    + counters[host]
+                    + ",\"gauge\":"
+                    + gauge
+                    + "}";
+                doc.add(new StoredField("_source", new BytesRef(source.getBytes(StandardCharsets.UTF_8))));
+                writer.addDocument(doc);
+            }
+            writer.forceMerge(1);
+        }
+        reader = DirectoryReader.open(directory);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        IOUtils.close(reader, directory);
+        IOUtils.rm(path);
+    }
+
+    @Benchmark
+    public long sumCounter(IndexSize indexSize) throws IOException {
+        long sum = 0;
+        for (LeafReaderContext context : reader.leaves()) {
+            SortedNumericDocValues values = DocValues.getSortedNumeric(context.reader(), "counter");
+            for (int doc = values.nextDoc(); doc != DocIdSetIterator.NO_MORE_DOCS; doc = values.nextDoc()) {
+                for (int i = 0; i < values.docValueCount(); i++) {
+                    sum += values.nextValue();
+                }
+            }
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long[] countPerHost(IndexSize indexSize) throws IOException {
+        // the index is force merged to a single segment so segment ordinals are the global ordinals
+        long[] counts = new long[NUM_HOSTS];
+        for (LeafReaderContext context : reader.leaves()) {
+            SortedSetDocValues values = DocValues.getSortedSet(context.reader(), "host");
+            for (int doc = values.nextDoc(); doc != DocIdSetIterator.NO_MORE_DOCS; doc = values.nextDoc()) {
+                for (long ord = values.nextOrd(); ord != SortedSetDocValues.NO_MORE_ORDS; ord = values.nextOrd()) {
+                    counts[(int) ord]++;
+                }
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * Reports the disk footprint of the index next to the timings, split between doc values and stored fields.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class IndexSize {
+
+        public long docValuesBytes;
+        public long storedFieldsBytes;
+        public long totalBytes;
+
+        @Setup(Level.Iteration)
+        public void setup(MetricsDocValuesBenchmark benchmark) throws IOException {
+            docValuesBytes = 0;
+            storedFieldsBytes = 0;
+            totalBytes = 0;
+            for (String file : benchmark.directory.listAll()) {
+                long length = benchmark.directory.fileLength(file);
+                if (file.endsWith(".dvd") || file.endsWith(".dvm")) {
+                    docValuesBytes += length;
+                } else if (file.endsWith(".fdt") || file.endsWith(".fdx") || file.endsWith(".fdm")) {
+                    storedFieldsBytes += length;
+                }
+                totalBytes += length;
+            }
+        }
+    }
+}
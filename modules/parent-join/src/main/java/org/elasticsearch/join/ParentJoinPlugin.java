@@ -19,6 +19,8 @@
 
 package org.elasticsearch.join;
 
+import org.elasticsearch.common.settings.Setting;
+import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.index.mapper.Mapper;
 import org.elasticsearch.join.aggregations.ChildrenAggregationBuilder;
 import org.elasticsearch.join.aggregations.InternalChildren;
@@ -27,6 +29,7 @@ import org.elasticsearch.join.aggregations.ParentAggregationBuilder;
 import org.elasticsearch.join.mapper.ParentJoinFieldMapper;
 import org.elasticsearch.join.query.HasChildQueryBuilder;
 import org.elasticsearch.join.query.HasParentQueryBuilder;
+import org.elasticsearch.join.query.JoinQueryCache;
 import org.elasticsearch.join.query.ParentIdQueryBuilder;
 import org.elasticsearch.plugins.MapperPlugin;
 import org.elasticsearch.plugins.Plugin;
@@ -39,7 +42,10 @@ import java.util.Map;
 
 public class ParentJoinPlugin extends Plugin implements SearchPlugin, MapperPlugin {
 
-    public ParentJoinPlugin() {
+    private final JoinQueryCache joinQueryCache;
+
+    public ParentJoinPlugin(Settings settings) {
+        this.joinQueryCache = new JoinQueryCache(JoinQueryCache.CACHE_SIZE.get(settings).getBytes());
     }
 
     @Override
@@ -61,8 +67,13 @@ public class ParentJoinPlugin extends Plugin implements SearchPlugin, MapperPlug
         );
     }
 
+    @Override
+    public List<Setting<?>> getSettings() {
+        return Collections.singletonList(JoinQueryCache.CACHE_SIZE);
+    }
+
     @Override
     public Map<String, Mapper.TypeParser> getMappers() {
-        return Collections.singletonMap(ParentJoinFieldMapper.CONTENT_TYPE, ParentJoinFieldMapper.PARSER);
+        return Collections.singletonMap(ParentJoinFieldMapper.CONTENT_TYPE, ParentJoinFieldMapper.parser(joinQueryCache));
     }
 }
@@ -27,6 +27,7 @@ import org.apache.lucene.search.Query;
 import org.apache.lucene.search.TermQuery;
 import org.elasticsearch.index.mapper.MappedFieldType;
 import org.elasticsearch.index.query.QueryShardContext;
+import org.elasticsearch.join.query.JoinQueryCache;
 import org.elasticsearch.search.aggregations.support.AggregationContext;
 
 import java.util.HashMap;
@@ -79,12 +80,21 @@ public final class Joiner {
     private final Map<String, String> childrenToParents = new HashMap<>();
 
     private final String joinField;
+    private final JoinQueryCache joinQueryCache;
 
     /**
      * Constructs a Joiner based on a join field and a set of relations
      */
     Joiner(String joinField, List<Relations> relations) {
+        this(joinField, relations, null);
+    }
+
+    /**
+     * Constructs a Joiner based on a join field, a set of relations and the cache to use for join queries
+     */
+    Joiner(String joinField, List<Relations> relations, JoinQueryCache joinQueryCache) {
         this.joinField = joinField;
+        this.joinQueryCache = joinQueryCache;
         for (Relations r : relations) {
             for (String child : r.children) {
                 parentsToChildren.put(r.parent, r.children);
@@ -103,6 +113,13 @@ public final class Joiner {
         return joinField;
     }
 
+    /**
+     * @return the cache of the join queries on this join field, or {@code null} if they should not be cached
+     */
+    public JoinQueryCache getJoinQueryCache() {
+        return joinQueryCache;
+    }
+
     /**
      * @return a filter for documents of a specific join type
      */
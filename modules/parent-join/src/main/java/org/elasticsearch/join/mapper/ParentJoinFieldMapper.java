@@ -40,6 +40,7 @@ import org.elasticsearch.index.mapper.StringFieldType;
 import org.elasticsearch.index.mapper.TextSearchInfo;
 import org.elasticsearch.index.mapper.ValueFetcher;
 import org.elasticsearch.index.query.QueryShardContext;
+import org.elasticsearch.join.query.JoinQueryCache;
 import org.elasticsearch.search.aggregations.support.CoreValuesSourceType;
 import org.elasticsearch.search.lookup.SearchLookup;
 
@@ -105,8 +106,15 @@ public final class ParentJoinFieldMapper extends FieldMapper {
 
         final Parameter<Map<String, String>> meta = Parameter.metaParam();
 
+        private final JoinQueryCache joinQueryCache;
+
         public Builder(String name) {
+            this(name, null);
+        }
+
+        public Builder(String name, JoinQueryCache joinQueryCache) {
             super(name);
+            this.joinQueryCache = joinQueryCache;
         }
 
         public Builder addRelation(String parent, Set<String> children) {
@@ -127,16 +135,18 @@ public final class ParentJoinFieldMapper extends FieldMapper {
                 .map(relation -> new ParentIdFieldMapper(name + "#" + relation.parent, eagerGlobalOrdinals.get()))
                 .forEach(mapper -> parentIdFields.put(mapper.name(), mapper));
             MetaJoinFieldMapper unique = new MetaJoinFieldMapper(name);
-            Joiner joiner = new Joiner(name(), relations.get());
+            Joiner joiner = new Joiner(name(), relations.get(), joinQueryCache);
             return new ParentJoinFieldMapper(name, new JoinFieldType(buildFullName(contentPath), joiner, meta.get()),
                 unique, Collections.unmodifiableMap(parentIdFields), eagerGlobalOrdinals.get(), relations.get());
         }
     }
 
-    public static TypeParser PARSER = new TypeParser((n, c) -> {
-        checkIndexCompatibility(c.getIndexSettings(), n);
-        return new Builder(n);
-    });
+    public static TypeParser parser(JoinQueryCache joinQueryCache) {
+        return new TypeParser((n, c) -> {
+            checkIndexCompatibility(c.getIndexSettings(), n);
+            return new Builder(n, joinQueryCache);
+        });
+    }
 
     public static final class JoinFieldType extends StringFieldType {
 
@@ -306,7 +316,7 @@ public final class ParentJoinFieldMapper extends FieldMapper {
 
     @Override
     public FieldMapper.Builder getMergeBuilder() {
-        return new Builder(simpleName()).init(this);
+        return new Builder(simpleName(), fieldType().joiner.getJoinQueryCache()).init(this);
     }
 
 }
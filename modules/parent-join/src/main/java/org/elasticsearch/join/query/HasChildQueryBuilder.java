@@ -19,6 +19,7 @@
 package org.elasticsearch.join.query;
 
 import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.DocValues;
 import org.apache.lucene.index.IndexReader;
 import org.apache.lucene.index.OrdinalMap;
 import org.apache.lucene.search.IndexSearcher;
@@ -27,6 +28,7 @@ import org.apache.lucene.search.Query;
 import org.apache.lucene.search.join.JoinUtil;
 import org.apache.lucene.search.join.ScoreMode;
 import org.apache.lucene.search.similarities.Similarity;
+import org.apache.lucene.util.LongBitSet;
 import org.elasticsearch.ElasticsearchException;
 import org.elasticsearch.common.ParseField;
 import org.elasticsearch.common.ParsingException;
@@ -333,8 +335,10 @@ public class HasChildQueryBuilder extends AbstractQueryBuilder<HasChildQueryBuil
         Query filteredQuery = Queries.filtered(query.toQuery(context), childFilter);
         MappedFieldType ft = context.getFieldType(parentJoinField);
         final SortedSetOrdinalsIndexFieldData fieldData = context.getForField(ft);
+        // the collected join ordinals can only be cached if the inner query doesn't depend on the current time or on scripts
+        JoinQueryCache joinQueryCache = context.isCacheable() ? joiner.getJoinQueryCache() : null;
         return new LateParsingQuery(parentFilter, filteredQuery, minChildren, maxChildren,
-            parentJoinField, scoreMode, fieldData, context.getSearchSimilarity());
+            parentJoinField, scoreMode, fieldData, context.getSearchSimilarity(), joinQueryCache);
     }
 
     /**
@@ -357,10 +361,12 @@ public class HasChildQueryBuilder extends AbstractQueryBuilder<HasChildQueryBuil
         private final ScoreMode scoreMode;
         private final SortedSetOrdinalsIndexFieldData fieldDataJoin;
         private final Similarity similarity;
+        private final JoinQueryCache joinQueryCache;
 
         LateParsingQuery(Query toQuery, Query innerQuery, int minChildren, int maxChildren,
                          String joinField, ScoreMode scoreMode,
-                         SortedSetOrdinalsIndexFieldData fieldData, Similarity similarity) {
+                         SortedSetOrdinalsIndexFieldData fieldData, Similarity similarity,
+                         JoinQueryCache joinQueryCache) {
             this.toQuery = toQuery;
             this.innerQuery = innerQuery;
             this.minChildren = minChildren;
@@ -369,6 +375,7 @@ public class HasChildQueryBuilder extends AbstractQueryBuilder<HasChildQueryBuil
             this.scoreMode = scoreMode;
             this.fieldDataJoin = fieldData;
             this.similarity = similarity;
+            this.joinQueryCache = joinQueryCache;
         }
 
         @Override
@@ -383,6 +390,12 @@ public class HasChildQueryBuilder extends AbstractQueryBuilder<HasChildQueryBuil
                 indexSearcher.setSimilarity(similarity);
                 IndexOrdinalsFieldData indexParentChildFieldData = fieldDataJoin.loadGlobal((DirectoryReader) reader);
                 OrdinalMap ordinalMap = indexParentChildFieldData.getOrdinalMap();
+                if (joinQueryCache != null && scoreMode == ScoreMode.None && minChildren <= 1 && maxChildren == Integer.MAX_VALUE) {
+                    Query cachedJoinQuery = cachedJoinQuery(reader, indexSearcher, ordinalMap);
+                    if (cachedJoinQuery != null) {
+                        return cachedJoinQuery;
+                    }
+                }
                 return JoinUtil.createJoinQuery(joinField, innerQuery, toQuery, indexSearcher, scoreMode,
                     ordinalMap, minChildren, maxChildren);
             } else {
@@ -398,6 +411,27 @@ public class HasChildQueryBuilder extends AbstractQueryBuilder<HasChildQueryBuil
             }
         }
 
+        /**
+         * Builds the join from the ordinals cached for this reader, or returns {@code null} if they can't be cached.
+         */
+        private Query cachedJoinQuery(IndexReader reader, IndexSearcher indexSearcher, OrdinalMap ordinalMap) throws IOException {
+            final long valueCount;
+            if (ordinalMap != null) {
+                valueCount = ordinalMap.getValueCount();
+            } else if (reader.leaves().size() == 1) {
+                // a single segment, its ordinals are the global ordinals
+                valueCount = DocValues.getSorted(reader.leaves().get(0).reader(), joinField).getValueCount();
+            } else {
+                return null;
+            }
+            LongBitSet ordinals = joinQueryCache.getOrCompute(reader, this,
+                () -> JoinOrdinalsQuery.collectOrdinals(indexSearcher, innerQuery, joinField, ordinalMap, valueCount));
+            if (ordinals == null) {
+                return null;
+            }
+            return new JoinOrdinalsQuery(joinField, toQuery, innerQuery, ordinalMap, ordinals, reader.getReaderCacheHelper().getKey());
+        }
+
         @Override
         public boolean equals(Object o) {
             if (sameClassAs(o) == false) return false;
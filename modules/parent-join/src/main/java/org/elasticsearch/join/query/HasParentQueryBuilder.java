@@ -187,9 +187,10 @@ public class HasParentQueryBuilder extends AbstractQueryBuilder<HasParentQueryBu
         Query childFilter = joiner.childrenFilter(parentType);
         MappedFieldType fieldType = context.getFieldType(joiner.childJoinField(parentType));
         final SortedSetOrdinalsIndexFieldData fieldData = context.getForField(fieldType);
+        JoinQueryCache joinQueryCache = context.isCacheable() ? joiner.getJoinQueryCache() : null;
         return new HasChildQueryBuilder.LateParsingQuery(childFilter, innerQuery,
             HasChildQueryBuilder.DEFAULT_MIN_CHILDREN, HasChildQueryBuilder.DEFAULT_MAX_CHILDREN,
-            fieldType.name(), score ? ScoreMode.Max : ScoreMode.None, fieldData, context.getSearchSimilarity());
+            fieldType.name(), score ? ScoreMode.Max : ScoreMode.None, fieldData, context.getSearchSimilarity(), joinQueryCache);
     }
 
     @Override
@@ -0,0 +1,161 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.elasticsearch.join.query;
+
+import org.apache.lucene.index.DocValues;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.OrdinalMap;
+import org.apache.lucene.index.SortedDocValues;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.ConstantScoreScorer;
+import org.apache.lucene.search.ConstantScoreWeight;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.QueryVisitor;
+import org.apache.lucene.search.ScoreMode;
+import org.apache.lucene.search.Scorer;
+import org.apache.lucene.search.SimpleCollector;
+import org.apache.lucene.search.TwoPhaseIterator;
+import org.apache.lucene.search.Weight;
+import org.apache.lucene.util.LongBitSet;
+import org.apache.lucene.util.LongValues;
+
+import java.io.IOException;
+import java.util.Objects;
+
+/**
+ * A filter on the documents matching {@code toQuery} whose join field holds one of the provided global ordinals.
+ * This is the equivalent of the query that {@link org.apache.lucene.search.join.JoinUtil} builds for joins that
+ * don't score, except that the ordinals are collected separately so that they can be cached, see
+ * {@link JoinQueryCache}.
+ */
+final class JoinOrdinalsQuery extends Query {
+
+    private final String joinField;
+    private final Query toQuery;
+    private final Query fromQuery;
+    private final OrdinalMap ordinalMap;
+    private final LongBitSet ordinals;
+    // the ordinals are only valid for the reader they were collected with
+    private final IndexReader.CacheKey readerKey;
+
+    JoinOrdinalsQuery(String joinField, Query toQuery, Query fromQuery, OrdinalMap ordinalMap, LongBitSet ordinals,
+                      IndexReader.CacheKey readerKey) {
+        this.joinField = joinField;
+        this.toQuery = toQuery;
+        this.fromQuery = fromQuery;
+        this.ordinalMap = ordinalMap;
+        this.ordinals = ordinals;
+        this.readerKey = readerKey;
+    }
+
+    /**
+     * Collects the global ordinals of the join field of the documents matching {@code fromQuery}. The ordinal map
+     * may be {@code null} if the reader has a single segment, in which case segment ordinals are used.
+     */
+    static LongBitSet collectOrdinals(IndexSearcher searcher, Query fromQuery, String joinField,
+                                      OrdinalMap ordinalMap, long valueCount) throws IOException {
+        LongBitSet ordinals = new LongBitSet(valueCount);
+        searcher.search(fromQuery, new SimpleCollector() {
+
+            private SortedDocValues values;
+            private LongValues globalOrds;
+
+            @Override
+            protected void doSetNextReader(LeafReaderContext context) throws IOException {
+                values = DocValues.getSorted(context.reader(), joinField);
+                globalOrds = ordinalMap != null ? ordinalMap.getGlobalOrds(context.ord) : LongValues.IDENTITY;
+            }
+
+            @Override
+            public void collect(int doc) throws IOException {
+                if (values.advanceExact(doc)) {
+                    ordinals.set(globalOrds.get(values.ordValue()));
+                }
+            }
+
+            @Override
+            public ScoreMode scoreMode() {
+                return ScoreMode.COMPLETE_NO_SCORES;
+            }
+        });
+        return ordinals;
+    }
+
+    @Override
+    public Weight createWeight(IndexSearcher searcher, ScoreMode scoreMode, float boost) throws IOException {
+        Weight toWeight = searcher.createWeight(searcher.rewrite(toQuery), ScoreMode.COMPLETE_NO_SCORES, 1f);
+        return new ConstantScoreWeight(this, boost) {
+
+            @Override
+            public Scorer scorer(LeafReaderContext context) throws IOException {
+                Scorer toScorer = toWeight.scorer(context);
+                if (toScorer == null) {
+                    return null;
+                }
+                SortedDocValues values = DocValues.getSorted(context.reader(), joinField);
+                LongValues globalOrds = ordinalMap != null ? ordinalMap.getGlobalOrds(context.ord) : LongValues.IDENTITY;
+                TwoPhaseIterator twoPhaseIterator = new TwoPhaseIterator(toScorer.iterator()) {
+                    @Override
+                    public boolean matches() throws IOException {
+                        return values.advanceExact(approximation.docID()) && ordinals.get(globalOrds.get(values.ordValue()));
+                    }
+
+                    @Override
+                    public float matchCost() {
+                        return 10;
+                    }
+                };
+                return new ConstantScoreScorer(this, score(), scoreMode, twoPhaseIterator);
+            }
+
+            @Override
+            public boolean isCacheable(LeafReaderContext ctx) {
+                return DocValues.isCacheable(ctx, joinField) && toWeight.isCacheable(ctx);
+            }
+        };
+    }
+
+    @Override
+    public void visit(QueryVisitor visitor) {
+        // fromQuery matches other documents than this query, possibly in other segments, so it isn't a required clause
+        toQuery.visit(visitor.getSubVisitor(BooleanClause.Occur.MUST, this));
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (sameClassAs(o) == false) return false;
+        JoinOrdinalsQuery that = (JoinOrdinalsQuery) o;
+        return readerKey == that.readerKey
+            && joinField.equals(that.joinField)
+            && toQuery.equals(that.toQuery)
+            && fromQuery.equals(that.fromQuery);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(classHash(), readerKey, joinField, toQuery, fromQuery);
+    }
+
+    @Override
+    public String toString(String field) {
+        return "JoinOrdinalsQuery{joinField=" + joinField + "}";
+    }
+}
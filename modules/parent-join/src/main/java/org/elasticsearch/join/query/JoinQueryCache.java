@@ -0,0 +1,100 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.elasticsearch.join.query;
+
+import org.apache.lucene.index.FilterLeafReader;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.LeafReader;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.util.LongBitSet;
+import org.apache.lucene.util.RamUsageEstimator;
+import org.elasticsearch.common.CheckedSupplier;
+import org.elasticsearch.common.settings.Setting;
+import org.elasticsearch.common.unit.ByteSizeValue;
+import org.elasticsearch.index.cache.ReaderKeyedCache;
+
+import java.io.IOException;
+
+/**
+ * A node level cache of the global ordinals of the join field that the child (or parent) documents matching a join
+ * query hold. Collecting these ordinals requires running the inner query of the join against the whole shard, which
+ * dominates the cost of join queries. The collected ordinals only depend on the inner query and on the top level
+ * reader they were collected with, so repeated join queries can skip this phase until the next refresh. The entries
+ * of a reader are dropped when the reader gets closed.
+ * <p>
+ * The cache is disabled unless {@link #CACHE_SIZE} is set.
+ */
+public final class JoinQueryCache {
+
+    public static final Setting<ByteSizeValue> CACHE_SIZE = Setting.memorySizeSetting(
+        "parent_join.query_cache.size",
+        "0b",
+        Setting.Property.NodeScope
+    );
+
+    private final ReaderKeyedCache<Query, LongBitSet> cache;
+
+    public JoinQueryCache(long maxSizeInBytes) {
+        this.cache = new ReaderKeyedCache<>(maxSizeInBytes, ordinals -> RamUsageEstimator.sizeOf(ordinals.getBits()));
+    }
+
+    /**
+     * Returns the join ordinals that the provided join query collects on the provided reader, from the cache if
+     * possible, or {@code null} if they can't be cached for this reader.
+     */
+    LongBitSet getOrCompute(IndexReader reader, Query joinQuery, CheckedSupplier<LongBitSet, IOException> loader) throws IOException {
+        if (cache.isEnabled() == false || canCache(reader) == false) {
+            return null;
+        }
+        IndexReader.CacheHelper cacheHelper = reader.getReaderCacheHelper();
+        LongBitSet ordinals = cache.get(cacheHelper, joinQuery);
+        if (ordinals == null) {
+            ordinals = loader.get();
+            cache.put(cacheHelper, joinQuery, ordinals);
+        }
+        return ordinals;
+    }
+
+    /**
+     * Only readers whose content is fully identified by their cache key can be cached. This excludes leaves that
+     * hide documents (document level security, these don't expose a reader cache key) and leaves that hide fields
+     * (field level security) since both change the documents that the inner query of a join matches.
+     */
+    static boolean canCache(IndexReader reader) {
+        if (reader.getReaderCacheHelper() == null) {
+            return false;
+        }
+        for (LeafReaderContext context : reader.leaves()) {
+            LeafReader leafReader = context.reader();
+            if (leafReader.getReaderCacheHelper() == null) {
+                return false;
+            }
+            LeafReader unwrapped = FilterLeafReader.unwrap(leafReader);
+            if (leafReader != unwrapped && leafReader.getFieldInfos().size() != unwrapped.getFieldInfos().size()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    long count() {
+        return cache.count();
+    }
+}
@@ -330,6 +330,6 @@ public class ChildrenToParentAggregatorTests extends AggregatorTestCase {
 
     @Override
     protected List<SearchPlugin> getSearchPlugins() {
-        return Collections.singletonList(new ParentJoinPlugin());
+        return Collections.singletonList(new ParentJoinPlugin(Settings.EMPTY));
     }
 }
@@ -20,6 +20,7 @@
 package org.elasticsearch.join.aggregations;
 
 import org.elasticsearch.common.ParseField;
+import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.common.xcontent.NamedXContentRegistry;
 import org.elasticsearch.common.xcontent.NamedXContentRegistry.Entry;
 import org.elasticsearch.join.ParentJoinPlugin;
@@ -37,7 +38,7 @@ public class InternalChildrenTests extends InternalSingleBucketAggregationTestCa
 
     @Override
     protected SearchPlugin registerPlugin() {
-        return new ParentJoinPlugin();
+        return new ParentJoinPlugin(Settings.EMPTY);
     }
 
     @Override
@@ -257,6 +257,6 @@ public class ParentToChildrenAggregatorTests extends AggregatorTestCase {
 
     @Override
     protected List<SearchPlugin> getSearchPlugins() {
-        return Collections.singletonList(new ParentJoinPlugin());
+        return Collections.singletonList(new ParentJoinPlugin(Settings.EMPTY));
     }
 }
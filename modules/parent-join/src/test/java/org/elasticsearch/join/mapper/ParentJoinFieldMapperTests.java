@@ -22,6 +22,7 @@ package org.elasticsearch.join.mapper;
 import org.apache.lucene.index.Term;
 import org.apache.lucene.search.TermQuery;
 import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.common.xcontent.XContentFactory;
 import org.elasticsearch.common.xcontent.XContentType;
 import org.elasticsearch.index.mapper.DocumentMapper;
@@ -42,7 +43,7 @@ import static org.hamcrest.Matchers.containsString;
 public class ParentJoinFieldMapperTests extends MapperServiceTestCase {
     @Override
     protected Collection<? extends Plugin> getPlugins() {
-        return singleton(new ParentJoinPlugin());
+        return singleton(new ParentJoinPlugin(Settings.EMPTY));
     }
 
     public void testSingleLevel() throws Exception {
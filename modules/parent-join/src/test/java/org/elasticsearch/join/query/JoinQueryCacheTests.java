@@ -0,0 +1,180 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.elasticsearch.join.query;
+
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.SortedDocValuesField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.FilterDirectoryReader;
+import org.apache.lucene.index.FilterLeafReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.LeafReader;
+import org.apache.lucene.index.OrdinalMap;
+import org.apache.lucene.index.SortedDocValues;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.join.JoinUtil;
+import org.apache.lucene.search.join.ScoreMode;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.util.BytesRef;
+import org.apache.lucene.util.LongBitSet;
+import org.apache.lucene.util.packed.PackedInts;
+import org.elasticsearch.test.ESTestCase;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class JoinQueryCacheTests extends ESTestCase {
+
+    private static final String JOIN_FIELD = "join_field#parent";
+
+    public void testJoinOrdinalsQuery() throws IOException {
+        try (Directory directory = newDirectory(); IndexWriter writer = new IndexWriter(directory, newIndexWriterConfig())) {
+            indexDocuments(writer);
+            try (DirectoryReader reader = DirectoryReader.open(writer)) {
+                IndexSearcher searcher = new IndexSearcher(reader);
+                OrdinalMap ordinalMap = ordinalMap(reader);
+                long valueCount = ordinalMap != null
+                    ? ordinalMap.getValueCount()
+                    : reader.leaves().get(0).reader().getSortedDocValues(JOIN_FIELD).getValueCount();
+                Query parentFilter = new TermQuery(new Term("type", "parent"));
+                for (String color : new String[] { "red", "blue", "green", "yellow" }) {
+                    Query childQuery = new TermQuery(new Term("color", color));
+                    LongBitSet ordinals = JoinOrdinalsQuery.collectOrdinals(searcher, childQuery, JOIN_FIELD, ordinalMap, valueCount);
+                    Query query = new JoinOrdinalsQuery(JOIN_FIELD, parentFilter, childQuery, ordinalMap, ordinals,
+                        reader.getReaderCacheHelper().getKey());
+                    Query expected = JoinUtil.createJoinQuery(JOIN_FIELD, childQuery, parentFilter, searcher, ScoreMode.None, ordinalMap);
+                    assertEquals(searcher.count(expected), searcher.count(query));
+                }
+            }
+        }
+    }
+
+    public void testCaching() throws IOException {
+        JoinQueryCache cache = new JoinQueryCache(1024 * 1024);
+        try (Directory directory = newDirectory(); IndexWriter writer = new IndexWriter(directory, newIndexWriterConfig())) {
+            indexDocuments(writer);
+            Query joinQuery = new TermQuery(new Term("color", "red"));
+            AtomicInteger loads = new AtomicInteger();
+            try (DirectoryReader reader = DirectoryReader.open(writer)) {
+                for (int i = 0; i < 3; i++) {
+                    LongBitSet ordinals = cache.getOrCompute(reader, joinQuery, () -> {
+                        loads.incrementAndGet();
+                        return new LongBitSet(10);
+                    });
+                    assertNotNull(ordinals);
+                }
+                assertEquals(1, loads.get());
+                assertEquals(1, cache.count());
+
+                // a different inner query
+                cache.getOrCompute(reader, new TermQuery(new Term("color", "blue")), () -> {
+                    loads.incrementAndGet();
+                    return new LongBitSet(10);
+                });
+                assertEquals(2, loads.get());
+                assertEquals(2, cache.count());
+            }
+            // the entries of a reader are dropped once it is closed
+            assertEquals(0, cache.count());
+        }
+    }
+
+    public void testDoNotCacheReadersHidingDocuments() throws IOException {
+        JoinQueryCache cache = new JoinQueryCache(1024 * 1024);
+        try (Directory directory = newDirectory(); IndexWriter writer = new IndexWriter(directory, newIndexWriterConfig())) {
+            indexDocuments(writer);
+            try (DirectoryReader reader = new NoReaderCacheDirectoryReader(DirectoryReader.open(writer))) {
+                assertFalse(JoinQueryCache.canCache(reader));
+                assertNull(cache.getOrCompute(reader, new TermQuery(new Term("color", "red")), () -> new LongBitSet(10)));
+                assertEquals(0, cache.count());
+            }
+        }
+    }
+
+    private static void indexDocuments(IndexWriter writer) throws IOException {
+        String[] colors = new String[] { "red", "blue", "green" };
+        int numParents = randomIntBetween(1, 20);
+        for (int i = 0; i < numParents; i++) {
+            String id = Integer.toString(i);
+            Document parent = new Document();
+            parent.add(new StringField("type", "parent", Field.Store.NO));
+            parent.add(new SortedDocValuesField(JOIN_FIELD, new BytesRef(id)));
+            writer.addDocument(parent);
+            int numChildren = randomIntBetween(0, 5);
+            for (int j = 0; j < numChildren; j++) {
+                Document child = new Document();
+                child.add(new StringField("type", "child", Field.Store.NO));
+                child.add(new StringField("color", randomFrom(colors), Field.Store.NO));
+                child.add(new SortedDocValuesField(JOIN_FIELD, new BytesRef(id)));
+                writer.addDocument(child);
+            }
+            if (rarely()) {
+                writer.commit();
+            }
+        }
+    }
+
+    private static OrdinalMap ordinalMap(DirectoryReader reader) throws IOException {
+        if (reader.leaves().size() <= 1) {
+            return null;
+        }
+        SortedDocValues[] values = new SortedDocValues[reader.leaves().size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = reader.leaves().get(i).reader().getSortedDocValues(JOIN_FIELD);
+        }
+        return OrdinalMap.build(null, values, PackedInts.DEFAULT);
+    }
+
+    private static class NoReaderCacheDirectoryReader extends FilterDirectoryReader {
+
+        NoReaderCacheDirectoryReader(DirectoryReader in) throws IOException {
+            super(in, new SubReaderWrapper() {
+                @Override
+                public LeafReader wrap(LeafReader reader) {
+                    return new FilterLeafReader(reader) {
+                        @Override
+                        public CacheHelper getCoreCacheHelper() {
+                            return in.getCoreCacheHelper();
+                        }
+
+                        @Override
+                        public CacheHelper getReaderCacheHelper() {
+                            return null;
+                        }
+                    };
+                }
+            });
+        }
+
+        @Override
+        protected DirectoryReader doWrapDirectoryReader(DirectoryReader in) throws IOException {
+            return new NoReaderCacheDirectoryReader(in);
+        }
+
+        @Override
+        public CacheHelper getReaderCacheHelper() {
+            return in.getReaderCacheHelper();
+        }
+    }
+}
@@ -501,7 +501,7 @@ public class PercolateQueryBuilder extends AbstractQueryBuilder<PercolateQueryBu
         QueryShardContext percolateShardContext = wrap(context);
         PercolatorFieldMapper.configureContext(percolateShardContext, pft.mapUnmappedFieldsAsText);;
         PercolateQuery.QueryStore queryStore = createStore(pft.queryBuilderField,
-            percolateShardContext);
+            percolateShardContext, pft.queryCache);
 
         return pft.percolateQuery(name, queryStore, documents, docSearcher, excludeNestedDocuments, context.indexVersionCreated());
     }
@@ -544,7 +544,8 @@ public class PercolateQueryBuilder extends AbstractQueryBuilder<PercolateQueryBu
     }
 
     static PercolateQuery.QueryStore createStore(MappedFieldType queryBuilderFieldType,
-                                                 QueryShardContext context) {
+                                                 QueryShardContext context,
+                                                 PercolatorQueryCache queryCache) {
         Version indexVersion = context.indexVersionCreated();
         NamedWriteableRegistry registry = context.getWriteableRegistry();
         return ctx -> {
@@ -553,34 +554,47 @@ public class PercolateQueryBuilder extends AbstractQueryBuilder<PercolateQueryBu
             if (binaryDocValues == null) {
                 return docId -> null;
             }
+            PercolatorQueryCache.LeafCache leafCache =
+                queryCache != null ? queryCache.getLeafCache(ctx, queryBuilderFieldType.name()) : null;
             return docId -> {
-                if (binaryDocValues.advanceExact(docId)) {
+                QueryBuilder queryBuilder = leafCache != null ? leafCache.get(docId) : null;
+                if (queryBuilder == null) {
+                    if (binaryDocValues.advanceExact(docId) == false) {
+                        return null;
+                    }
                     BytesRef qbSource = binaryDocValues.binaryValue();
-                    try (InputStream in = new ByteArrayInputStream(qbSource.bytes, qbSource.offset, qbSource.length)) {
-                        try (StreamInput input = new NamedWriteableAwareStreamInput(
-                                new InputStreamStreamInput(in, qbSource.length), registry)) {
-                            input.setVersion(indexVersion);
-                            // Query builder's content is stored via BinaryFieldMapper, which has a custom encoding
-                            // to encode multiple binary values into a single binary doc values field.
-                            // This is the reason we need to first need to read the number of values and
-                            // then the length of the field value in bytes.
-                            int numValues = input.readVInt();
-                            assert numValues == 1;
-                            int valueLength = input.readVInt();
-                            assert valueLength > 0;
-                            QueryBuilder queryBuilder = input.readNamedWriteable(QueryBuilder.class);
-                            assert in.read() == -1;
-                            queryBuilder = Rewriteable.rewrite(queryBuilder, context);
-                            return queryBuilder.toQuery(context);
-                        }
+                    queryBuilder = readQueryBuilder(qbSource, registry, indexVersion);
+                    if (leafCache != null) {
+                        leafCache.put(docId, queryBuilder, qbSource.length);
                     }
-                } else {
-                    return null;
                 }
+                queryBuilder = Rewriteable.rewrite(queryBuilder, context);
+                return queryBuilder.toQuery(context);
             };
         };
     }
 
+    private static QueryBuilder readQueryBuilder(BytesRef qbSource, NamedWriteableRegistry registry,
+                                                 Version indexVersion) throws IOException {
+        try (InputStream in = new ByteArrayInputStream(qbSource.bytes, qbSource.offset, qbSource.length)) {
+            try (StreamInput input = new NamedWriteableAwareStreamInput(
+                    new InputStreamStreamInput(in, qbSource.length), registry)) {
+                input.setVersion(indexVersion);
+                // Query builder's content is stored via BinaryFieldMapper, which has a custom encoding
+                // to encode multiple binary values into a single binary doc values field.
+                // This is the reason we need to first need to read the number of values and
+                // then the length of the field value in bytes.
+                int numValues = input.readVInt();
+                assert numValues == 1;
+                int valueLength = input.readVInt();
+                assert valueLength > 0;
+                QueryBuilder queryBuilder = input.readNamedWriteable(QueryBuilder.class);
+                assert in.read() == -1;
+                return queryBuilder;
+            }
+        }
+    }
+
     static QueryShardContext wrap(QueryShardContext shardContext) {
         return new QueryShardContext(shardContext) {
 
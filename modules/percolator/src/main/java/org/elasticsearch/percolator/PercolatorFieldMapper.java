@@ -110,7 +110,7 @@ public class PercolatorFieldMapper extends FieldMapper {
 
     @Override
     public FieldMapper.Builder getMergeBuilder() {
-        return new Builder(simpleName(), queryShardContext, mapUnmappedFieldsAsText).init(this);
+        return new Builder(simpleName(), queryShardContext, mapUnmappedFieldsAsText, queryCache).init(this);
     }
 
     static class Builder extends FieldMapper.Builder {
@@ -119,11 +119,14 @@ public class PercolatorFieldMapper extends FieldMapper {
 
         private final Supplier<QueryShardContext> queryShardContext;
         private final boolean mapUnmappedFieldsAsText;
+        private final PercolatorQueryCache queryCache;
 
-        Builder(String fieldName, Supplier<QueryShardContext> queryShardContext, boolean mapUnmappedFieldsAsText) {
+        Builder(String fieldName, Supplier<QueryShardContext> queryShardContext, boolean mapUnmappedFieldsAsText,
+                PercolatorQueryCache queryCache) {
             super(fieldName);
             this.queryShardContext = queryShardContext;
             this.mapUnmappedFieldsAsText = mapUnmappedFieldsAsText;
+            this.queryCache = queryCache;
         }
 
         @Override
@@ -148,12 +151,13 @@ public class PercolatorFieldMapper extends FieldMapper {
             NumberFieldMapper minimumShouldMatchFieldMapper = createMinimumShouldMatchField(contentPath);
             fieldType.minimumShouldMatchField = minimumShouldMatchFieldMapper.fieldType();
             fieldType.mapUnmappedFieldsAsText = mapUnmappedFieldsAsText;
+            fieldType.queryCache = queryCache;
 
             contentPath.remove();
             return new PercolatorFieldMapper(name(), fieldType,
                 multiFieldsBuilder.build(this, contentPath), copyTo.build(), queryShardContext, extractedTermsField,
                 extractionResultField, queryBuilderField, rangeFieldMapper, minimumShouldMatchFieldMapper,
-                mapUnmappedFieldsAsText);
+                mapUnmappedFieldsAsText, queryCache);
         }
 
         static KeywordFieldMapper createExtractQueryFieldBuilder(String name, ContentPath contentPath) {
@@ -184,9 +188,16 @@ public class PercolatorFieldMapper extends FieldMapper {
 
     static class TypeParser implements Mapper.TypeParser {
 
+        private final PercolatorQueryCache queryCache;
+
+        TypeParser(PercolatorQueryCache queryCache) {
+            this.queryCache = queryCache;
+        }
+
         @Override
         public Builder parse(String name, Map<String, Object> node, ParserContext parserContext) throws MapperParsingException {
-            return new Builder(name, parserContext.queryShardContextSupplier(), getMapUnmappedFieldAsText(parserContext.getSettings()));
+            return new Builder(name, parserContext.queryShardContextSupplier(), getMapUnmappedFieldAsText(parserContext.getSettings()),
+                queryCache);
         }
     }
 
@@ -203,6 +214,7 @@ public class PercolatorFieldMapper extends FieldMapper {
 
         RangeFieldMapper.RangeFieldType rangeField;
         boolean mapUnmappedFieldsAsText;
+        PercolatorQueryCache queryCache;
 
         private PercolatorFieldType(String name, Map<String, String> meta) {
             super(name, false, false, false, TextSearchInfo.NONE, meta);
@@ -326,12 +338,14 @@ public class PercolatorFieldMapper extends FieldMapper {
     private final NumberFieldMapper minimumShouldMatchFieldMapper;
     private final RangeFieldMapper rangeFieldMapper;
     private final boolean mapUnmappedFieldsAsText;
+    private final PercolatorQueryCache queryCache;
 
     PercolatorFieldMapper(String simpleName, MappedFieldType mappedFieldType,
                           MultiFields multiFields, CopyTo copyTo, Supplier<QueryShardContext> queryShardContext,
                           KeywordFieldMapper queryTermsField, KeywordFieldMapper extractionResultField,
                           BinaryFieldMapper queryBuilderField, RangeFieldMapper rangeFieldMapper,
-                          NumberFieldMapper minimumShouldMatchFieldMapper, boolean mapUnmappedFieldsAsText) {
+                          NumberFieldMapper minimumShouldMatchFieldMapper, boolean mapUnmappedFieldsAsText,
+                          PercolatorQueryCache queryCache) {
         super(simpleName, mappedFieldType, multiFields, copyTo);
         this.queryShardContext = queryShardContext;
         this.queryTermsField = queryTermsField;
@@ -340,6 +354,7 @@ public class PercolatorFieldMapper extends FieldMapper {
         this.minimumShouldMatchFieldMapper = minimumShouldMatchFieldMapper;
         this.rangeFieldMapper = rangeFieldMapper;
         this.mapUnmappedFieldsAsText = mapUnmappedFieldsAsText;
+        this.queryCache = queryCache;
     }
 
     @Override
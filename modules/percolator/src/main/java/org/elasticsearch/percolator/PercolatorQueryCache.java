@@ -0,0 +1,136 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.percolator;
+
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.LeafReaderContext;
+import org.elasticsearch.common.settings.Setting;
+import org.elasticsearch.common.unit.ByteSizeValue;
+import org.elasticsearch.index.cache.ReaderKeyedCache;
+import org.elasticsearch.index.query.QueryBuilder;
+
+import java.util.Objects;
+
+/**
+ * A node level cache of the query builders that are stored in percolator fields. Verifying a candidate match
+ * requires the query builder of the candidate, which would otherwise be deserialized from doc values again for
+ * every percolate request. Segments are immutable so entries are keyed by segment and document id, and the entries
+ * of a segment are dropped when the segment gets closed.
+ * <p>
+ * Only the deserialized query builders are cached, rewriting them and converting them to Lucene queries still
+ * happens on every request because the result depends on the search request (current time, runtime mappings) and
+ * on the analyzers of the index, which may be reloaded.
+ * <p>
+ * The cache is disabled unless {@link #CACHE_SIZE} is set.
+ */
+final class PercolatorQueryCache {
+
+    static final Setting<ByteSizeValue> CACHE_SIZE = Setting.memorySizeSetting(
+        "percolator.query_cache.size",
+        "0b",
+        Setting.Property.NodeScope
+    );
+
+    // rough estimate of the memory used by an entry besides its query builder
+    static final long ENTRY_OVERHEAD_IN_BYTES = 128;
+    // query builders are estimated to use a few times more memory than their serialized form
+    static final long SERIALIZED_SIZE_MULTIPLIER = 4;
+
+    private final ReaderKeyedCache<Key, Entry> cache;
+
+    PercolatorQueryCache(long maxSizeInBytes) {
+        this.cache = new ReaderKeyedCache<>(maxSizeInBytes, entry -> ENTRY_OVERHEAD_IN_BYTES + entry.ramBytesUsed);
+    }
+
+    /**
+     * Returns a view of the cache for the query builders that are stored in the provided field of the provided
+     * segment, or {@code null} if the query builders of this segment can't be cached.
+     */
+    LeafCache getLeafCache(LeafReaderContext context, String fieldName) {
+        if (cache.isEnabled() == false) {
+            return null;
+        }
+        IndexReader.CacheHelper cacheHelper = context.reader().getCoreCacheHelper();
+        if (cacheHelper == null) {
+            return null;
+        }
+        return new LeafCache(cacheHelper, fieldName);
+    }
+
+    long count() {
+        return cache.count();
+    }
+
+    final class LeafCache {
+
+        private final IndexReader.CacheHelper cacheHelper;
+        private final String fieldName;
+
+        private LeafCache(IndexReader.CacheHelper cacheHelper, String fieldName) {
+            this.cacheHelper = cacheHelper;
+            this.fieldName = fieldName;
+        }
+
+        QueryBuilder get(int docId) {
+            Entry entry = cache.get(cacheHelper, new Key(fieldName, docId));
+            return entry == null ? null : entry.queryBuilder;
+        }
+
+        void put(int docId, QueryBuilder queryBuilder, int serializedSizeInBytes) {
+            long ramBytesUsed = SERIALIZED_SIZE_MULTIPLIER * serializedSizeInBytes;
+            cache.put(cacheHelper, new Key(fieldName, docId), new Entry(queryBuilder, ramBytesUsed));
+        }
+    }
+
+    private static final class Key {
+
+        final String fieldName;
+        final int docId;
+
+        Key(String fieldName, int docId) {
+            this.fieldName = fieldName;
+            this.docId = docId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Key key = (Key) o;
+            return docId == key.docId && fieldName.equals(key.fieldName);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(fieldName, docId);
+        }
+    }
+
+    private static final class Entry {
+
+        final QueryBuilder queryBuilder;
+        final long ramBytesUsed;
+
+        Entry(QueryBuilder queryBuilder, long ramBytesUsed) {
+            this.queryBuilder = queryBuilder;
+            this.ramBytesUsed = ramBytesUsed;
+        }
+    }
+}
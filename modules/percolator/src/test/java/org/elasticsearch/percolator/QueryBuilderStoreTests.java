@@ -29,7 +29,6 @@ import org.apache.lucene.search.Query;
 import org.apache.lucene.search.TermQuery;
 import org.apache.lucene.store.Directory;
 import org.elasticsearch.Version;
-import org.elasticsearch.cluster.metadata.IndexMetadata;
 import org.elasticsearch.common.CheckedFunction;
 import org.elasticsearch.common.io.stream.NamedWriteableRegistry;
 import org.elasticsearch.common.settings.Settings;
@@ -68,48 +67,79 @@ public class QueryBuilderStoreTests extends ESTestCase {
 
     public void testStoringQueryBuilders() throws IOException {
         try (Directory directory = newDirectory()) {
-            TermQueryBuilder[] queryBuilders = new TermQueryBuilder[randomIntBetween(1, 16)];
-            IndexWriterConfig config = new IndexWriterConfig(new WhitespaceAnalyzer());
-            config.setMergePolicy(NoMergePolicy.INSTANCE);
-            Settings settings = Settings.builder().put(IndexMetadata.SETTING_VERSION_CREATED, Version.CURRENT).build();
             BinaryFieldMapper fieldMapper = PercolatorFieldMapper.Builder.createQueryBuilderFieldBuilder(new ContentPath(0));
+            TermQueryBuilder[] queryBuilders = indexQueryBuilders(directory, fieldMapper);
+            PercolateQuery.QueryStore queryStore = PercolateQueryBuilder.createStore(fieldMapper.fieldType(),
+                queryShardContext(fieldMapper), null);
 
-            Version version = Version.CURRENT;
-            try (IndexWriter indexWriter = new IndexWriter(directory, config)) {
-                for (int i = 0; i < queryBuilders.length; i++) {
-                    queryBuilders[i] = new TermQueryBuilder(randomAlphaOfLength(4), randomAlphaOfLength(8));
-                    ParseContext parseContext = mock(ParseContext.class);
-                    ParseContext.Document document = new ParseContext.Document();
-                    when(parseContext.doc()).thenReturn(document);
-                    PercolatorFieldMapper.createQueryBuilderField(version,
-                        fieldMapper, queryBuilders[i], parseContext);
-                    indexWriter.addDocument(document);
-                }
+            try (IndexReader indexReader = DirectoryReader.open(directory)) {
+                assertQueries(indexReader, queryStore, queryBuilders);
             }
+        }
+    }
 
-            QueryShardContext queryShardContext = mock(QueryShardContext.class);
-            when(queryShardContext.indexVersionCreated()).thenReturn(version);
-            when(queryShardContext.getWriteableRegistry()).thenReturn(writableRegistry());
-            when(queryShardContext.getXContentRegistry()).thenReturn(xContentRegistry());
-            when(queryShardContext.getForField(fieldMapper.fieldType()))
-                .thenReturn(new BytesBinaryIndexFieldData(fieldMapper.name(), CoreValuesSourceType.BYTES));
-            when(queryShardContext.getFieldType(Mockito.anyString())).thenAnswer(invocation -> {
-                final String fieldName = (String) invocation.getArguments()[0];
-                return new KeywordFieldMapper.KeywordFieldType(fieldName);
-            });
-            PercolateQuery.QueryStore queryStore = PercolateQueryBuilder.createStore(fieldMapper.fieldType(), queryShardContext);
+    public void testCachingQueryBuilders() throws IOException {
+        try (Directory directory = newDirectory()) {
+            BinaryFieldMapper fieldMapper = PercolatorFieldMapper.Builder.createQueryBuilderFieldBuilder(new ContentPath(0));
+            TermQueryBuilder[] queryBuilders = indexQueryBuilders(directory, fieldMapper);
+            PercolatorQueryCache queryCache = new PercolatorQueryCache(1024 * 1024);
+            PercolateQuery.QueryStore queryStore = PercolateQueryBuilder.createStore(fieldMapper.fieldType(),
+                queryShardContext(fieldMapper), queryCache);
 
             try (IndexReader indexReader = DirectoryReader.open(directory)) {
-                LeafReaderContext leafContext = indexReader.leaves().get(0);
-                CheckedFunction<Integer, Query, IOException> queries = queryStore.getQueries(leafContext);
-                assertEquals(queryBuilders.length, leafContext.reader().numDocs());
-                for (int i = 0; i < queryBuilders.length; i++) {
-                    TermQuery query = (TermQuery) queries.apply(i);
-                    assertEquals(queryBuilders[i].fieldName(), query.getTerm().field());
-                    assertEquals(queryBuilders[i].value(), query.getTerm().text());
-                }
+                assertQueries(indexReader, queryStore, queryBuilders);
+                assertEquals(queryBuilders.length, queryCache.count());
+                // the query builders are now served from the cache
+                assertQueries(indexReader, queryStore, queryBuilders);
+                assertEquals(queryBuilders.length, queryCache.count());
+            }
+            // the entries of a segment are dropped when it gets closed
+            assertEquals(0, queryCache.count());
+        }
+    }
+
+    private static TermQueryBuilder[] indexQueryBuilders(Directory directory, BinaryFieldMapper fieldMapper) throws IOException {
+        TermQueryBuilder[] queryBuilders = new TermQueryBuilder[randomIntBetween(1, 16)];
+        IndexWriterConfig config = new IndexWriterConfig(new WhitespaceAnalyzer());
+        config.setMergePolicy(NoMergePolicy.INSTANCE);
+        try (IndexWriter indexWriter = new IndexWriter(directory, config)) {
+            for (int i = 0; i < queryBuilders.length; i++) {
+                queryBuilders[i] = new TermQueryBuilder(randomAlphaOfLength(4), randomAlphaOfLength(8));
+                ParseContext parseContext = mock(ParseContext.class);
+                ParseContext.Document document = new ParseContext.Document();
+                when(parseContext.doc()).thenReturn(document);
+                PercolatorFieldMapper.createQueryBuilderField(Version.CURRENT,
+                    fieldMapper, queryBuilders[i], parseContext);
+                indexWriter.addDocument(document);
             }
         }
+        return queryBuilders;
+    }
+
+    private QueryShardContext queryShardContext(BinaryFieldMapper fieldMapper) {
+        QueryShardContext queryShardContext = mock(QueryShardContext.class);
+        when(queryShardContext.indexVersionCreated()).thenReturn(Version.CURRENT);
+        when(queryShardContext.getWriteableRegistry()).thenReturn(writableRegistry());
+        when(queryShardContext.getXContentRegistry()).thenReturn(xContentRegistry());
+        when(queryShardContext.getForField(fieldMapper.fieldType()))
+            .thenReturn(new BytesBinaryIndexFieldData(fieldMapper.name(), CoreValuesSourceType.BYTES));
+        when(queryShardContext.getFieldType(Mockito.anyString())).thenAnswer(invocation -> {
+            final String fieldName = (String) invocation.getArguments()[0];
+            return new KeywordFieldMapper.KeywordFieldType(fieldName);
+        });
+        return queryShardContext;
+    }
+
+    private static void assertQueries(IndexReader indexReader, PercolateQuery.QueryStore queryStore,
+                                      TermQueryBuilder[] queryBuilders) throws IOException {
+        LeafReaderContext leafContext = indexReader.leaves().get(0);
+        CheckedFunction<Integer, Query, IOException> queries = queryStore.getQueries(leafContext);
+        assertEquals(queryBuilders.length, leafContext.reader().numDocs());
+        for (int i = 0; i < queryBuilders.length; i++) {
+            TermQuery query = (TermQuery) queries.apply(i);
+            assertEquals(queryBuilders[i].fieldName(), query.getTerm().field());
+            assertEquals(queryBuilders[i].value(), query.getTerm().text());
+        }
     }
 
 }
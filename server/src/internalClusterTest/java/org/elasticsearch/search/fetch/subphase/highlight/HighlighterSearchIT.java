@@ -37,6 +37,7 @@ import org.elasticsearch.common.settings.Settings.Builder;
 import org.elasticsearch.common.time.DateFormatter;
 import org.elasticsearch.common.xcontent.XContentBuilder;
 import org.elasticsearch.common.xcontent.XContentFactory;
+import org.elasticsearch.index.IndexSettings;
 import org.elasticsearch.index.analysis.AbstractIndexAnalyzerProvider;
 import org.elasticsearch.index.analysis.AnalyzerProvider;
 import org.elasticsearch.index.analysis.PreConfiguredTokenFilter;
@@ -2831,6 +2832,41 @@ public class HighlighterSearchIT extends ESIntegTestCase {
         }
     }
 
+    public void testMaxAnalyzedOffset() throws Exception {
+        assertAcked(prepareCreate("test").setMapping("text", "type=text")
+            .setSettings(Settings.builder().put(IndexSettings.MAX_ANALYZED_OFFSET_SETTING.getKey(), 20)));
+        // the first fox ends before offset 20, the second one comes after
+        indexRandom(true, client().prepareIndex("test").setId("1")
+            .setSource("text", "The quick brown fox went to the forest and saw another fox."));
+
+        for (String type : new String[] {"unified", "plain"}) {
+            // without the option, fields longer than the index setting are rejected
+            assertFailures(client().prepareSearch("test")
+                    .setQuery(matchQuery("text", "fox"))
+                    .highlighter(new HighlightBuilder().field(new Field("text").highlighterType(type))),
+                RestStatus.BAD_REQUEST,
+                containsString("has exceeded [20] - maximum allowed to be analyzed for highlighting"));
+
+            SearchResponse searchResponse = client().prepareSearch("test")
+                .setQuery(matchQuery("text", "fox"))
+                .highlighter(new HighlightBuilder().field(new Field("text").highlighterType(type).maxAnalyzedOffset(20)))
+                .get();
+            assertNoFailures(searchResponse);
+            assertHitCount(searchResponse, 1);
+            assertHighlight(searchResponse, 0, "text", 0, 1, containsString("The quick brown <em>fox</em>"));
+            assertHighlight(searchResponse, 0, "text", 0, 1, not(containsString("another <em>fox</em>")));
+
+            // the option can also be set for all fields
+            searchResponse = client().prepareSearch("test")
+                .setQuery(matchQuery("text", "fox"))
+                .highlighter(new HighlightBuilder().maxAnalyzedOffset(20).field(new Field("text").highlighterType(type)))
+                .get();
+            assertNoFailures(searchResponse);
+            assertHighlight(searchResponse, 0, "text", 0, 1, containsString("The quick brown <em>fox</em>"));
+            assertHighlight(searchResponse, 0, "text", 0, 1, not(containsString("another <em>fox</em>")));
+        }
+    }
+
     public void testWithNestedQuery() throws Exception {
         String mapping = Strings.toString(jsonBuilder().startObject().startObject("properties")
             .startObject("text")
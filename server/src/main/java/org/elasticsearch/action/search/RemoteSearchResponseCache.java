@@ -0,0 +1,207 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.action.search;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.message.ParameterizedMessage;
+import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.client.Client;
+import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.cache.Cache;
+import org.elasticsearch.common.cache.CacheBuilder;
+import org.elasticsearch.common.io.stream.BytesStreamOutput;
+import org.elasticsearch.common.io.stream.NamedWriteableAwareStreamInput;
+import org.elasticsearch.common.io.stream.NamedWriteableRegistry;
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.common.io.stream.StreamOutput;
+import org.elasticsearch.common.settings.Setting;
+import org.elasticsearch.common.settings.Setting.Property;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.unit.ByteSizeValue;
+import org.elasticsearch.common.unit.TimeValue;
+import org.elasticsearch.common.util.concurrent.ThreadContext;
+import org.elasticsearch.common.xcontent.XContentHelper;
+import org.elasticsearch.common.xcontent.XContentType;
+import org.elasticsearch.search.builder.SearchSourceBuilder;
+import org.elasticsearch.tasks.Task;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * A coordinating node cache of the responses returned by remote clusters when a cross-cluster search is executed
+ * with {@code ccs_minimize_roundtrips}. Dashboards tend to re-issue the very same aggregation-only searches over and
+ * over, and each of them costs a round trip over a potentially high latency link to every remote cluster involved.
+ * <p>
+ * The coordinating node has no view of the remote cluster state, hence the cache is not coherent with changes that
+ * happen on the remote clusters and may serve responses that are up to {@link #CCS_RESPONSE_CACHE_EXPIRE} old. For
+ * this reason the cache is disabled unless {@link #CCS_RESPONSE_CACHE_SIZE} is set. Only searches that explicitly
+ * opt-in to the request cache, don't return hits and don't use the current time or scripts are ever cached, see
+ * {@link #canCache(SearchRequest)}. The headers of the calling thread are part of the cache key, so that a response
+ * is never shared between requests that run with different credentials. Entries are only invalidated by their expiry:
+ * the clear cache API targets the indices of the local cluster and doesn't reach this cache.
+ */
+public final class RemoteSearchResponseCache {
+
+    private static final Logger logger = LogManager.getLogger(RemoteSearchResponseCache.class);
+
+    public static final Setting<ByteSizeValue> CCS_RESPONSE_CACHE_SIZE =
+        Setting.memorySizeSetting("search.ccs.response_cache.size", "0b", Property.NodeScope);
+    public static final Setting<TimeValue> CCS_RESPONSE_CACHE_EXPIRE =
+        Setting.timeSetting("search.ccs.response_cache.expire", TimeValue.timeValueMinutes(1), TimeValue.timeValueMillis(1),
+            Property.NodeScope);
+
+    // the keys of the search source that make the shard request cache refuse a request, see QueryShardContext#isCacheable
+    private static final Set<String> NON_DETERMINISTIC_KEYS = Set.of("script_fields", "runtime_mappings", "random_score");
+
+    private final NamedWriteableRegistry namedWriteableRegistry;
+    private final Cache<BytesReference, BytesReference> cache;
+
+    public RemoteSearchResponseCache(Settings settings, NamedWriteableRegistry namedWriteableRegistry) {
+        this.namedWriteableRegistry = namedWriteableRegistry;
+        final long maxSizeInBytes = CCS_RESPONSE_CACHE_SIZE.get(settings).getBytes();
+        if (maxSizeInBytes > 0) {
+            this.cache = CacheBuilder.<BytesReference, BytesReference>builder()
+                .setMaximumWeight(maxSizeInBytes)
+                .setExpireAfterWrite(CCS_RESPONSE_CACHE_EXPIRE.get(settings))
+                .weigher((k, v) -> k.length() + v.length())
+                .build();
+        } else {
+            this.cache = null;
+        }
+    }
+
+    /**
+     * Returns whether the response to the provided search request can be cached. This follows the rules of the shard request
+     * cache: only requests that explicitly enable the request cache, don't return any hits, don't use DFS and are not profiled
+     * are eligible. The shard request cache also refuses requests that use the current time or scripts, which only the data
+     * nodes can tell once they parsed the request. The coordinating node conservatively refuses requests whose source has a
+     * script, runtime fields, random scoring or a date math expression relative to {@code now} anywhere.
+     */
+    static boolean canCache(SearchRequest request) throws IOException {
+        if (request.requestCache() == null || request.requestCache() == false) {
+            return false;
+        }
+        if (request.scroll() != null || request.pointInTimeBuilder() != null || request.searchType() == SearchType.DFS_QUERY_THEN_FETCH) {
+            return false;
+        }
+        SearchSourceBuilder source = request.source();
+        if (source == null || source.size() != 0 || source.profile()) {
+            return false;
+        }
+        BytesReference bytes = XContentHelper.toXContent(source, XContentType.JSON, false);
+        return isDeterministic(XContentHelper.convertToMap(bytes, false, XContentType.JSON).v2());
+    }
+
+    private static boolean isDeterministic(Object value) {
+        if (value instanceof Map) {
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                String key = entry.getKey().toString();
+                // script, init_script, bucket_script, ...
+                if (key.endsWith("script") || NON_DETERMINISTIC_KEYS.contains(key)) {
+                    return false;
+                }
+                if (isDeterministic(entry.getValue()) == false) {
+                    return false;
+                }
+            }
+        } else if (value instanceof List) {
+            for (Object element : (List<?>) value) {
+                if (isDeterministic(element) == false) {
+                    return false;
+                }
+            }
+        } else if (value instanceof String) {
+            return ((String) value).startsWith("now") == false;
+        }
+        return true;
+    }
+
+    /**
+     * Executes the provided search request against the remote cluster, serving the response from the cache if possible.
+     */
+    void search(Client remoteClusterClient, String clusterAlias, SearchRequest request, ThreadContext threadContext,
+                ActionListener<SearchResponse> listener) {
+        final BytesReference key;
+        try {
+            if (cache == null || canCache(request) == false) {
+                remoteClusterClient.search(request, listener);
+                return;
+            }
+            key = buildKey(clusterAlias, request, threadContext.getHeaders());
+        } catch (IOException e) {
+            listener.onFailure(e);
+            return;
+        }
+        final BytesReference cached = cache.get(key);
+        if (cached != null) {
+            final SearchResponse response;
+            try (StreamInput in = new NamedWriteableAwareStreamInput(cached.streamInput(), namedWriteableRegistry)) {
+                response = new SearchResponse(in);
+            } catch (IOException e) {
+                logger.debug(() -> new ParameterizedMessage("failed to read cached response for remote cluster [{}]", clusterAlias), e);
+                cache.invalidate(key);
+                remoteClusterClient.search(request, listener);
+                return;
+            }
+            listener.onResponse(response);
+            return;
+        }
+        remoteClusterClient.search(request, ActionListener.wrap(response -> {
+            // partial results must not be served to subsequent requests
+            if (response.getFailedShards() == 0 && response.isTimedOut() == false) {
+                BytesStreamOutput out = new BytesStreamOutput();
+                response.writeTo(out);
+                cache.put(key, out.bytes());
+            }
+            listener.onResponse(response);
+        }, listener::onFailure));
+    }
+
+    public int count() {
+        return cache == null ? 0 : cache.count();
+    }
+
+    static BytesReference buildKey(String clusterAlias, SearchRequest request, Map<String, String> headers) throws IOException {
+        BytesStreamOutput out = new BytesStreamOutput();
+        out.writeString(clusterAlias);
+        // the absolute start time is deliberately left out, it differs for every request but doesn't affect the
+        // response of requests that are eligible for caching
+        out.writeStringArray(request.indices());
+        request.indicesOptions().writeIndicesOptions(out);
+        out.writeOptionalString(request.routing());
+        out.writeOptionalString(request.preference());
+        out.writeByte(request.searchType().id());
+        // these change the failures and the number of reduce phases that the response reports
+        out.writeOptionalBoolean(request.allowPartialSearchResults());
+        out.writeVInt(request.getBatchedReduceSize());
+        out.writeOptionalVInt(request.getPreFilterShardSize());
+        out.writeVInt(request.getMaxConcurrentShardRequests());
+        request.source().writeTo(out);
+        Map<String, String> sortedHeaders = new TreeMap<>(headers);
+        sortedHeaders.remove(Task.X_OPAQUE_ID);
+        out.writeMap(sortedHeaders, StreamOutput::writeString, StreamOutput::writeString);
+        return out.bytes();
+    }
+}
@@ -22,6 +22,7 @@ package org.elasticsearch.action.search;
 import org.elasticsearch.action.ActionListener;
 import org.elasticsearch.node.ResponseCollectorService;
 import org.elasticsearch.search.SearchPhaseResult;
+import org.elasticsearch.search.SearchShardTarget;
 import org.elasticsearch.search.query.QuerySearchResult;
 import org.elasticsearch.transport.Transport;
 
@@ -31,7 +32,9 @@ import java.util.function.BiFunction;
 /**
  * A wrapper of search action listeners (search results) that unwraps the query
  * result to get the piggybacked queue size and service time EWMA, adding those
- * values to the coordinating nodes' {@link ResponseCollectorService}.
+ * values to the coordinating nodes' {@link ResponseCollectorService}. The
+ * response time is recorded both for the node and for the shard copy that
+ * served the request.
  */
 public final class SearchExecutionStatsCollector implements ActionListener<SearchPhaseResult> {
 
@@ -63,6 +66,10 @@ public final class SearchExecutionStatsCollector implements ActionListener<Searc
             // EWMA/queue size may be -1 if the query node doesn't support capturing it
             if (serviceTimeEWMA > 0 && queueSize >= 0) {
                 collector.addNodeStatistics(nodeId, queueSize, responseDuration, serviceTimeEWMA);
+                final SearchShardTarget shardTarget = response.getSearchShardTarget();
+                if (shardTarget != null) {
+                    collector.addShardStatistics(nodeId, shardTarget.getShardId(), responseDuration);
+                }
             }
         }
         listener.onResponse(response);
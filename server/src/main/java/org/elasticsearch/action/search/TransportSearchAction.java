@@ -112,6 +112,7 @@ public class TransportSearchAction extends HandledTransportAction<SearchRequest,
     private final IndexNameExpressionResolver indexNameExpressionResolver;
     private final NamedWriteableRegistry namedWriteableRegistry;
     private final CircuitBreaker circuitBreaker;
+    private final RemoteSearchResponseCache remoteSearchResponseCache;
 
     @Inject
     public TransportSearchAction(ThreadPool threadPool,
@@ -123,7 +124,8 @@ public class TransportSearchAction extends HandledTransportAction<SearchRequest,
                                  ClusterService clusterService,
                                  ActionFilters actionFilters,
                                  IndexNameExpressionResolver indexNameExpressionResolver,
-                                 NamedWriteableRegistry namedWriteableRegistry) {
+                                 NamedWriteableRegistry namedWriteableRegistry,
+                                 RemoteSearchResponseCache remoteSearchResponseCache) {
         super(SearchAction.NAME, transportService, actionFilters, (Writeable.Reader<SearchRequest>) SearchRequest::new);
         this.threadPool = threadPool;
         this.circuitBreaker = circuitBreakerService.getBreaker(CircuitBreaker.REQUEST);
@@ -135,6 +137,7 @@ public class TransportSearchAction extends HandledTransportAction<SearchRequest,
         this.searchService = searchService;
         this.indexNameExpressionResolver = indexNameExpressionResolver;
         this.namedWriteableRegistry = namedWriteableRegistry;
+        this.remoteSearchResponseCache = remoteSearchResponseCache;
     }
 
     private Map<String, AliasFilter> buildPerIndexAliasFilter(SearchRequest request, ClusterState clusterState,
@@ -297,7 +300,7 @@ public class TransportSearchAction extends HandledTransportAction<SearchRequest,
                 if (shouldMinimizeRoundtrips(searchRequest)) {
                     ccsRemoteReduce(searchRequest, localIndices, remoteClusterIndices, timeProvider,
                         searchService.aggReduceContextBuilder(searchRequest),
-                        remoteClusterService, threadPool, listener,
+                        remoteClusterService, remoteSearchResponseCache, threadPool, listener,
                         (r, l) -> executeLocalSearch(
                             task, timeProvider, r, localIndices, clusterState, l, searchContext, searchAsyncActionProvider));
                 } else {
@@ -359,7 +362,8 @@ public class TransportSearchAction extends HandledTransportAction<SearchRequest,
 
     static void ccsRemoteReduce(SearchRequest searchRequest, OriginalIndices localIndices, Map<String, OriginalIndices> remoteIndices,
                                 SearchTimeProvider timeProvider, InternalAggregation.ReduceContextBuilder aggReduceContextBuilder,
-                                RemoteClusterService remoteClusterService, ThreadPool threadPool, ActionListener<SearchResponse> listener,
+                                RemoteClusterService remoteClusterService, @Nullable RemoteSearchResponseCache responseCache,
+                                ThreadPool threadPool, ActionListener<SearchResponse> listener,
                                 BiConsumer<SearchRequest, ActionListener<SearchResponse>> localSearchConsumer) {
 
         if (localIndices == null && remoteIndices.size() == 1) {
@@ -372,30 +376,32 @@ public class TransportSearchAction extends HandledTransportAction<SearchRequest,
             SearchRequest ccsSearchRequest = SearchRequest.subSearchRequest(searchRequest, indices.indices(),
                 clusterAlias, timeProvider.getAbsoluteStartMillis(), true);
             Client remoteClusterClient = remoteClusterService.getRemoteClusterClient(threadPool, clusterAlias);
-            remoteClusterClient.search(ccsSearchRequest, new ActionListener<SearchResponse>() {
-                @Override
-                public void onResponse(SearchResponse searchResponse) {
-                    Map<String, ProfileShardResult> profileResults = searchResponse.getProfileResults();
-                    SearchProfileShardResults profile = profileResults == null || profileResults.isEmpty()
-                        ? null : new SearchProfileShardResults(profileResults);
-                    InternalSearchResponse internalSearchResponse = new InternalSearchResponse(searchResponse.getHits(),
-                        (InternalAggregations) searchResponse.getAggregations(), searchResponse.getSuggest(), profile,
-                        searchResponse.isTimedOut(), searchResponse.isTerminatedEarly(), searchResponse.getNumReducePhases());
-                    listener.onResponse(new SearchResponse(internalSearchResponse, searchResponse.getScrollId(),
-                        searchResponse.getTotalShards(), searchResponse.getSuccessfulShards(), searchResponse.getSkippedShards(),
-                        timeProvider.buildTookInMillis(), searchResponse.getShardFailures(), new SearchResponse.Clusters(1, 1, 0),
-                        searchResponse.pointInTimeId()));
-                }
+            searchRemoteCluster(remoteClusterClient, clusterAlias, ccsSearchRequest, responseCache, threadPool,
+                new ActionListener<SearchResponse>() {
+                    @Override
+                    public void onResponse(SearchResponse searchResponse) {
+                        Map<String, ProfileShardResult> profileResults = searchResponse.getProfileResults();
+                        SearchProfileShardResults profile = profileResults == null || profileResults.isEmpty()
+                            ? null : new SearchProfileShardResults(profileResults);
+                        InternalSearchResponse internalSearchResponse = new InternalSearchResponse(searchResponse.getHits(),
+                            (InternalAggregations) searchResponse.getAggregations(), searchResponse.getSuggest(), profile,
+                            searchResponse.isTimedOut(), searchResponse.isTerminatedEarly(), searchResponse.getNumReducePhases());
+                        listener.onResponse(new SearchResponse(internalSearchResponse, searchResponse.getScrollId(),
+                            searchResponse.getTotalShards(), searchResponse.getSuccessfulShards(), searchResponse.getSkippedShards(),
+                            timeProvider.buildTookInMillis(), searchResponse.getShardFailures(), new SearchResponse.Clusters(1, 1, 0),
+                            searchResponse.pointInTimeId()));
+                    }
 
-                @Override
-                public void onFailure(Exception e) {
-                    if (skipUnavailable) {
-                        listener.onResponse(SearchResponse.empty(timeProvider::buildTookInMillis, new SearchResponse.Clusters(1, 0, 1)));
-                    } else {
-                        listener.onFailure(wrapRemoteClusterFailure(clusterAlias, e));
+                    @Override
+                    public void onFailure(Exception e) {
+                        if (skipUnavailable) {
+                            listener.onResponse(SearchResponse.empty(timeProvider::buildTookInMillis,
+                                new SearchResponse.Clusters(1, 0, 1)));
+                        } else {
+                            listener.onFailure(wrapRemoteClusterFailure(clusterAlias, e));
+                        }
                     }
-                }
-            });
+                });
         } else {
             SearchResponseMerger searchResponseMerger = createSearchResponseMerger(
                     searchRequest.source(), timeProvider, aggReduceContextBuilder);
@@ -412,7 +418,7 @@ public class TransportSearchAction extends HandledTransportAction<SearchRequest,
                 ActionListener<SearchResponse> ccsListener = createCCSListener(clusterAlias, skipUnavailable, countDown,
                     skippedClusters, exceptions, searchResponseMerger, totalClusters,  listener);
                 Client remoteClusterClient = remoteClusterService.getRemoteClusterClient(threadPool, clusterAlias);
-                remoteClusterClient.search(ccsSearchRequest, ccsListener);
+                searchRemoteCluster(remoteClusterClient, clusterAlias, ccsSearchRequest, responseCache, threadPool, ccsListener);
             }
             if (localIndices != null) {
                 ActionListener<SearchResponse> ccsListener = createCCSListener(RemoteClusterAware.LOCAL_CLUSTER_GROUP_KEY,
@@ -424,6 +430,16 @@ public class TransportSearchAction extends HandledTransportAction<SearchRequest,
         }
     }
 
+    private static void searchRemoteCluster(Client remoteClusterClient, String clusterAlias, SearchRequest ccsSearchRequest,
+                                            @Nullable RemoteSearchResponseCache responseCache, ThreadPool threadPool,
+                                            ActionListener<SearchResponse> listener) {
+        if (responseCache == null) {
+            remoteClusterClient.search(ccsSearchRequest, listener);
+        } else {
+            responseCache.search(remoteClusterClient, clusterAlias, ccsSearchRequest, threadPool.getThreadContext(), listener);
+        }
+    }
+
     static SearchResponseMerger createSearchResponseMerger(SearchSourceBuilder source, SearchTimeProvider timeProvider,
                                                            InternalAggregation.ReduceContextBuilder aggReduceContextBuilder) {
         final int from;
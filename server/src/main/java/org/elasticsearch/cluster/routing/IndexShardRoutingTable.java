@@ -284,14 +284,21 @@ public class IndexShardRoutingTable implements Iterable<ShardRouting> {
         return nodeStats;
     }
 
-    private static Map<String, Double> rankNodes(final Map<String, Optional<ResponseCollectorService.ComputedNodeStats>> nodeStats,
+    private static Map<String, Double> rankNodes(final ShardId shardId,
+                                                 final ResponseCollectorService collector,
+                                                 final Map<String, Optional<ResponseCollectorService.ComputedNodeStats>> nodeStats,
                                                  final Map<String, Long> nodeSearchCounts) {
         final Map<String, Double> nodeRanks = new HashMap<>(nodeStats.size());
         for (Map.Entry<String, Optional<ResponseCollectorService.ComputedNodeStats>> entry : nodeStats.entrySet()) {
             Optional<ResponseCollectorService.ComputedNodeStats> maybeStats = entry.getValue();
             maybeStats.ifPresent(stats -> {
                 final String nodeId = entry.getKey();
-                nodeRanks.put(nodeId, stats.rank(nodeSearchCounts.getOrDefault(nodeId, 1L)));
+                // a node holds at most one copy of a shard, so the rank of the node is the rank of the copy it holds, which
+                // accounts for the response time of this particular copy if we have seen responses from it
+                final ResponseCollectorService.ComputedNodeStats shardStats = collector.getShardResponseTime(nodeId, shardId)
+                    .map(stats::withResponseTime)
+                    .orElse(stats);
+                nodeRanks.put(nodeId, shardStats.rank(nodeSearchCounts.getOrDefault(nodeId, 1L)));
             });
         }
         return nodeRanks;
@@ -307,8 +314,10 @@ public class IndexShardRoutingTable implements Iterable<ShardRouting> {
      * This adjustment takes the "winning" node's statistics and adds the average of those statistics with each non-winning node. Let's say
      * the winning node had a queue size of 10 and a non-winning node had a queue of 18. The average queue size is (10 + 18) / 2 = 14 so the
      * non-winning node will have statistics added for a queue size of 14. This is repeated for the response time and service times as well.
+     * The response times of the non-winning copies of the shard are adjusted in the same way.
      */
     private static void adjustStats(final ResponseCollectorService collector,
+                                    final ShardId shardId,
                                     final Map<String, Optional<ResponseCollectorService.ComputedNodeStats>> nodeStats,
                                     final String minNodeId,
                                     final ResponseCollectorService.ComputedNodeStats minStats) {
@@ -324,11 +333,19 @@ public class IndexShardRoutingTable implements Iterable<ShardRouting> {
                     collector.addNodeStatistics(nodeId, updatedQueue, updatedResponse, updatedService);
                 }
             }
+            collector.getShardResponseTime(minNodeId, shardId).ifPresent(minShardResponse -> {
+                for (String nodeId : nodeStats.keySet()) {
+                    if (nodeId.equals(minNodeId) == false) {
+                        collector.getShardResponseTime(nodeId, shardId).ifPresent(shardResponse ->
+                            collector.addShardStatistics(nodeId, shardId, (long) ((minShardResponse + shardResponse) / 2)));
+                    }
+                }
+            });
         }
     }
 
-    private static List<ShardRouting> rankShardsAndUpdateStats(List<ShardRouting> shards, final ResponseCollectorService collector,
-                                                               final Map<String, Long> nodeSearchCounts) {
+    private List<ShardRouting> rankShardsAndUpdateStats(List<ShardRouting> shards, final ResponseCollectorService collector,
+                                                        final Map<String, Long> nodeSearchCounts) {
         if (collector == null || nodeSearchCounts == null || shards.size() <= 1) {
             return shards;
         }
@@ -338,7 +355,7 @@ public class IndexShardRoutingTable implements Iterable<ShardRouting> {
         final Map<String, Optional<ResponseCollectorService.ComputedNodeStats>> nodeStats = getNodeStats(nodeIds, collector);
 
         // Retrieve all the nodes the shards exist on
-        final Map<String, Double> nodeRanks = rankNodes(nodeStats, nodeSearchCounts);
+        final Map<String, Double> nodeRanks = rankNodes(shardId, collector, nodeStats, nodeSearchCounts);
 
         // sort all shards based on the shard rank
         ArrayList<ShardRouting> sortedShards = new ArrayList<>(shards);
@@ -353,7 +370,7 @@ public class IndexShardRoutingTable implements Iterable<ShardRouting> {
                 String minNodeId = minShard.currentNodeId();
                 Optional<ResponseCollectorService.ComputedNodeStats> maybeMinStats = nodeStats.get(minNodeId);
                 if (maybeMinStats.isPresent()) {
-                    adjustStats(collector, nodeStats, minNodeId, maybeMinStats.get());
+                    adjustStats(collector, shardId, nodeStats, minNodeId, maybeMinStats.get());
                     // Increase the number of searches for the "winning" node by one.
                     // Note that this doesn't actually affect the "real" counts, instead
                     // it only affects the captured node search counts, which is
@@ -379,6 +396,11 @@ public class IndexShardRoutingTable implements Iterable<ShardRouting> {
                 // these shards on the same node
                 return 0;
             }
+            if (s1.relocating() != s2.relocating()) {
+                // a copy that is relocating away is busy sending its files to the target and will go away soon,
+                // so prefer copies that are not relocating
+                return s1.relocating() ? 1 : -1;
+            }
             Double shard1rank = nodeRanks.get(s1.currentNodeId());
             Double shard2rank = nodeRanks.get(s2.currentNodeId());
             if (shard1rank != null) {
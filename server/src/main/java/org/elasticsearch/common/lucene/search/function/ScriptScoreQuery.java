@@ -29,6 +29,7 @@ import org.apache.lucene.search.FilterLeafCollector;
 import org.apache.lucene.search.LeafCollector;
 import org.apache.lucene.search.Query;
 import org.apache.lucene.search.Scorable;
+import org.apache.lucene.search.ScoreCachingWrappingScorer;
 import org.apache.lucene.search.Weight;
 import org.apache.lucene.search.IndexSearcher;
 import org.apache.lucene.search.QueryVisitor;
@@ -213,7 +214,8 @@ public class ScriptScoreQuery extends Query {
             super(weight);
             this.scoreScript = scoreScript;
             if (subQueryScoreMode == ScoreMode.COMPLETE) {
-                scoreScript.setScorer(subQueryScorer);
+                // scripts may read _score several times per document, only compute it once
+                scoreScript.setScorer(new ScoreCachingWrappingScorer(subQueryScorer));
             }
             this.subQueryScorer = subQueryScorer;
             this.boost = boost;
@@ -259,7 +261,8 @@ public class ScriptScoreQuery extends Query {
                 ScoreMode subQueryScoreMode, float boost, ExplanationHolder explanation) {
             this.scoreScript = scoreScript;
             if (subQueryScoreMode == ScoreMode.COMPLETE) {
-                scoreScript.setScorer(subQueryScorer);
+                // scripts may read _score several times per document, only compute it once
+                scoreScript.setScorer(new ScoreCachingWrappingScorer(subQueryScorer));
             }
             this.subQueryScorer = subQueryScorer;
             this.boost = boost;
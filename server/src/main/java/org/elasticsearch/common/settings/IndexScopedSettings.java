@@ -37,6 +37,7 @@ import org.elasticsearch.index.SearchSlowLog;
 import org.elasticsearch.index.cache.bitset.BitsetFilterCache;
 import org.elasticsearch.index.engine.EngineConfig;
 import org.elasticsearch.index.fielddata.IndexFieldDataService;
+import org.elasticsearch.index.mapper.CompletionFieldMapper;
 import org.elasticsearch.index.mapper.FieldMapper;
 import org.elasticsearch.index.mapper.MapperService;
 import org.elasticsearch.index.similarity.SimilarityService;
@@ -109,6 +110,7 @@ public final class IndexScopedSettings extends AbstractScopedSettings {
             IndexSortConfig.INDEX_SORT_MODE_SETTING,
             IndexSettings.INDEX_TRANSLOG_DURABILITY_SETTING,
             IndexSettings.INDEX_WARMER_ENABLED_SETTING,
+            IndexSettings.INDEX_WARMER_RECENT_QUERIES_SETTING,
             IndexSettings.INDEX_REFRESH_INTERVAL_SETTING,
             IndexSettings.MAX_RESULT_WINDOW_SETTING,
             IndexSettings.MAX_INNER_RESULT_WINDOW_SETTING,
@@ -160,6 +162,7 @@ public final class IndexScopedSettings extends AbstractScopedSettings {
             IndexModule.INDEX_QUERY_CACHE_ENABLED_SETTING,
             FsDirectoryFactory.INDEX_LOCK_FACTOR_SETTING,
             EngineConfig.INDEX_CODEC_SETTING,
+            CompletionFieldMapper.COMPLETION_OFF_HEAP_SETTING,
             IndexMetadata.SETTING_WAIT_FOR_ACTIVE_SHARDS,
             IndexSettings.DEFAULT_PIPELINE,
             IndexSettings.FINAL_PIPELINE,
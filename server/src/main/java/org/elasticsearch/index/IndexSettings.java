@@ -78,6 +78,12 @@ public final class IndexSettings {
             (value) -> Translog.Durability.valueOf(value.toUpperCase(Locale.ROOT)), Property.Dynamic, Property.IndexScope);
     public static final Setting<Boolean> INDEX_WARMER_ENABLED_SETTING =
         Setting.boolSetting("index.warmer.enabled", true, Property.Dynamic, Property.IndexScope);
+    /**
+     * The number of distinct queries recently executed on a shard that are replayed against new readers before they
+     * are exposed to searches, so that they don't hit cold caches. Disabled by default.
+     */
+    public static final Setting<Integer> INDEX_WARMER_RECENT_QUERIES_SETTING =
+        Setting.intSetting("index.warmer.recent_queries", 0, 0, 100, Property.Dynamic, Property.IndexScope);
     public static final Setting<String> INDEX_CHECK_ON_STARTUP =
         new Setting<>("index.shard.check_on_startup", "false", (s) -> {
             switch (s) {
@@ -372,6 +378,7 @@ public final class IndexSettings {
     }
 
     private volatile boolean warmerEnabled;
+    private volatile int warmerRecentQueries;
     private volatile int maxResultWindow;
     private volatile int maxInnerResultWindow;
     private volatile int maxRescoreWindow;
@@ -493,6 +500,7 @@ public final class IndexSettings {
         softDeleteRetentionOperations = scopedSettings.get(INDEX_SOFT_DELETES_RETENTION_OPERATIONS_SETTING);
         retentionLeaseMillis = scopedSettings.get(INDEX_SOFT_DELETES_RETENTION_LEASE_PERIOD_SETTING).millis();
         warmerEnabled = scopedSettings.get(INDEX_WARMER_ENABLED_SETTING);
+        warmerRecentQueries = scopedSettings.get(INDEX_WARMER_RECENT_QUERIES_SETTING);
         maxResultWindow = scopedSettings.get(MAX_RESULT_WINDOW_SETTING);
         maxInnerResultWindow = scopedSettings.get(MAX_INNER_RESULT_WINDOW_SETTING);
         maxRescoreWindow = scopedSettings.get(MAX_RESCORE_WINDOW_SETTING);
@@ -546,6 +554,7 @@ public final class IndexSettings {
         scopedSettings.addSettingsUpdateConsumer(MAX_NGRAM_DIFF_SETTING, this::setMaxNgramDiff);
         scopedSettings.addSettingsUpdateConsumer(MAX_SHINGLE_DIFF_SETTING, this::setMaxShingleDiff);
         scopedSettings.addSettingsUpdateConsumer(INDEX_WARMER_ENABLED_SETTING, this::setEnableWarmer);
+        scopedSettings.addSettingsUpdateConsumer(INDEX_WARMER_RECENT_QUERIES_SETTING, this::setWarmerRecentQueries);
         scopedSettings.addSettingsUpdateConsumer(INDEX_GC_DELETES_SETTING, this::setGCDeletes);
         scopedSettings.addSettingsUpdateConsumer(INDEX_TRANSLOG_FLUSH_THRESHOLD_SIZE_SETTING, this::setTranslogFlushThresholdSize);
         scopedSettings.addSettingsUpdateConsumer(INDEX_FLUSH_AFTER_MERGE_THRESHOLD_SIZE_SETTING, this::setFlushAfterMergeThresholdSize);
@@ -734,6 +743,17 @@ public final class IndexSettings {
         this.warmerEnabled = enableWarmer;
     }
 
+    /**
+     * Returns the number of recent queries that are replayed to warm new readers, <code>0</code> if disabled
+     */
+    public int getWarmerRecentQueries() {
+        return warmerRecentQueries;
+    }
+
+    private void setWarmerRecentQueries(int warmerRecentQueries) {
+        this.warmerRecentQueries = warmerRecentQueries;
+    }
+
     /**
      * Returns the translog sync interval. This is the interval in which the transaction log is asynchronously fsynced unless
      * the transaction log is fsyncing on every operations
@@ -22,8 +22,18 @@ package org.elasticsearch.index;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.apache.logging.log4j.message.ParameterizedMessage;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.search.DocIdSetIterator;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreMode;
+import org.apache.lucene.search.Scorer;
+import org.apache.lucene.search.Weight;
 import org.elasticsearch.common.lucene.index.ElasticsearchDirectoryReader;
 import org.elasticsearch.common.unit.TimeValue;
+import org.elasticsearch.common.util.concurrent.ConcurrentCollections;
+import org.elasticsearch.index.cache.query.QueryCache;
 import org.elasticsearch.index.fielddata.IndexFieldData;
 import org.elasticsearch.index.fielddata.IndexFieldDataService;
 import org.elasticsearch.index.mapper.MappedFieldType;
@@ -32,11 +42,13 @@ import org.elasticsearch.index.shard.IndexShard;
 import org.elasticsearch.index.shard.IndexShardState;
 import org.elasticsearch.threadpool.ThreadPool;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
@@ -47,11 +59,12 @@ public final class IndexWarmer {
 
     private final List<Listener> listeners;
 
-    IndexWarmer(ThreadPool threadPool, IndexFieldDataService indexFieldDataService,
+    IndexWarmer(ThreadPool threadPool, IndexFieldDataService indexFieldDataService, QueryCache queryCache,
                 Listener... listeners) {
         ArrayList<Listener> list = new ArrayList<>();
         final Executor executor = threadPool.executor(ThreadPool.Names.WARMER);
         list.add(new FieldDataWarmer(executor, indexFieldDataService));
+        list.add(new RecentQueriesWarmer(executor, queryCache));
 
         Collections.addAll(list, listeners);
         this.listeners = Collections.unmodifiableList(list);
@@ -157,4 +170,92 @@ public final class IndexWarmer {
         }
     }
 
+    /**
+     * Replays the queries that were recently executed on the shard against the segments of the new reader that were not
+     * warmed yet, so that the first searches that hit the new reader find the query cache and the file system cache
+     * already populated. Segments that were already part of a previous reader keep their caches and are skipped. The
+     * replay stops early if the shard gets closed.
+     */
+    static class RecentQueriesWarmer implements IndexWarmer.Listener {
+
+        private final Executor executor;
+        private final QueryCache queryCache;
+        private final Set<IndexReader.CacheKey> warmedSegments = ConcurrentCollections.newConcurrentSet();
+
+        RecentQueriesWarmer(Executor executor, QueryCache queryCache) {
+            this.executor = executor;
+            this.queryCache = queryCache;
+        }
+
+        @Override
+        public TerminationHandle warmReader(final IndexShard indexShard, final ElasticsearchDirectoryReader reader) {
+            final List<Query> recentQueries = indexShard.warmerService().recentQueries();
+            if (recentQueries.isEmpty()) {
+                return TerminationHandle.NO_WAIT;
+            }
+            final List<LeafReaderContext> newSegments = newSegments(reader);
+            if (newSegments.isEmpty()) {
+                return TerminationHandle.NO_WAIT;
+            }
+            final IndexSearcher searcher = new IndexSearcher(reader);
+            searcher.setQueryCache(queryCache);
+            searcher.setQueryCachingPolicy(indexShard.getQueryCachingPolicy());
+            final CountDownLatch latch = new CountDownLatch(recentQueries.size());
+            for (final Query query : recentQueries) {
+                executor.execute(() -> {
+                    try {
+                        final long start = System.nanoTime();
+                        warmQuery(indexShard, searcher, query, newSegments);
+                        if (indexShard.warmerService().logger().isTraceEnabled()) {
+                            indexShard.warmerService().logger().trace(
+                                "warmed query [{}], took [{}]",
+                                query,
+                                TimeValue.timeValueNanos(System.nanoTime() - start));
+                        }
+                    } catch (Exception e) {
+                        // the query may rely on state of the search request it came from, this is best effort
+                        indexShard
+                            .warmerService()
+                            .logger()
+                            .debug(() -> new ParameterizedMessage("failed to warm-up query [{}]", query), e);
+                    } finally {
+                        latch.countDown();
+                    }
+                });
+            }
+            return () -> latch.await();
+        }
+
+        private List<LeafReaderContext> newSegments(ElasticsearchDirectoryReader reader) {
+            final List<LeafReaderContext> newSegments = new ArrayList<>();
+            for (LeafReaderContext context : reader.leaves()) {
+                final IndexReader.CacheHelper cacheHelper = context.reader().getCoreCacheHelper();
+                if (cacheHelper == null) {
+                    newSegments.add(context);
+                } else if (warmedSegments.add(cacheHelper.getKey())) {
+                    cacheHelper.addClosedListener(warmedSegments::remove);
+                    newSegments.add(context);
+                }
+            }
+            return newSegments;
+        }
+
+        private static void warmQuery(IndexShard indexShard, IndexSearcher searcher, Query query,
+                                      List<LeafReaderContext> segments) throws IOException {
+            // recent queries are recorded before they get rewritten, so that they can be rewritten against the new reader
+            final Weight weight = searcher.createWeight(searcher.rewrite(query), ScoreMode.COMPLETE_NO_SCORES, 1f);
+            for (LeafReaderContext context : segments) {
+                if (indexShard.state() == IndexShardState.CLOSED) {
+                    return;
+                }
+                final Scorer scorer = weight.scorer(context);
+                if (scorer != null) {
+                    final DocIdSetIterator iterator = scorer.iterator();
+                    while (iterator.nextDoc() != DocIdSetIterator.NO_MORE_DOCS) {
+                        // consume the matches so that their postings are read
+                    }
+                }
+            }
+        }
+    }
 }
@@ -0,0 +1,150 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.index.cache;
+
+import org.apache.lucene.index.IndexReader;
+import org.elasticsearch.common.cache.Cache;
+import org.elasticsearch.common.cache.CacheBuilder;
+import org.elasticsearch.common.cache.RemovalNotification;
+import org.elasticsearch.common.util.concurrent.ConcurrentCollections;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.ToLongFunction;
+
+/**
+ * A node level cache of values that are derived from an {@link IndexReader} and are only valid as long as the reader
+ * is open. Entries are keyed by the {@link IndexReader.CacheKey} of the reader they were computed from and by a key
+ * that identifies the value within this reader. All entries share a single size limit, and the keys of each reader
+ * are tracked separately so that closing a reader only touches the entries of this reader.
+ * <p>
+ * A cache with a size of {@code 0} is disabled: it never holds any entry.
+ */
+public final class ReaderKeyedCache<K, V> {
+
+    private final Cache<Key<K>, V> cache;
+    private final Map<IndexReader.CacheKey, Set<K>> keysPerReader = ConcurrentCollections.newConcurrentMap();
+
+    /**
+     * @param maxSizeInBytes the maximum weight of all entries, {@code 0} to disable the cache
+     * @param weigher        estimates the memory used by a value
+     */
+    public ReaderKeyedCache(long maxSizeInBytes, ToLongFunction<V> weigher) {
+        if (maxSizeInBytes < 0) {
+            throw new IllegalArgumentException("cache size must be positive or 0 but was [" + maxSizeInBytes + "]");
+        }
+        if (maxSizeInBytes > 0) {
+            this.cache = CacheBuilder.<Key<K>, V>builder()
+                .setMaximumWeight(maxSizeInBytes)
+                .weigher((key, value) -> weigher.applyAsLong(value))
+                .removalListener(this::onRemoval)
+                .build();
+        } else {
+            this.cache = null;
+        }
+    }
+
+    /**
+     * Whether this cache can hold entries at all.
+     */
+    public boolean isEnabled() {
+        return cache != null;
+    }
+
+    /**
+     * Returns the value cached for the provided key of the provided reader, or {@code null} if there is none.
+     */
+    public V get(IndexReader.CacheHelper cacheHelper, K key) {
+        if (cache == null) {
+            return null;
+        }
+        return cache.get(new Key<>(cacheHelper.getKey(), key));
+    }
+
+    /**
+     * Caches the provided value for the provided key of the provided reader until the reader gets closed or the
+     * entry gets evicted.
+     */
+    public void put(IndexReader.CacheHelper cacheHelper, K key, V value) {
+        if (cache == null) {
+            return;
+        }
+        IndexReader.CacheKey readerKey = cacheHelper.getKey();
+        Set<K> keys = keysPerReader.computeIfAbsent(readerKey, k -> {
+            cacheHelper.addClosedListener(this::onClose);
+            return ConcurrentCollections.newConcurrentSet();
+        });
+        keys.add(key);
+        cache.put(new Key<>(readerKey, key), value);
+    }
+
+    /**
+     * The number of cached entries.
+     */
+    public int count() {
+        return cache == null ? 0 : cache.count();
+    }
+
+    private void onClose(IndexReader.CacheKey readerKey) {
+        Set<K> keys = keysPerReader.remove(readerKey);
+        if (keys != null) {
+            for (K key : keys) {
+                cache.invalidate(new Key<>(readerKey, key));
+            }
+        }
+    }
+
+    private void onRemoval(RemovalNotification<Key<K>, V> notification) {
+        if (notification.getRemovalReason() == RemovalNotification.RemovalReason.REPLACED) {
+            // the key is still cached with its new value
+            return;
+        }
+        Key<K> key = notification.getKey();
+        Set<K> keys = keysPerReader.get(key.readerKey);
+        if (keys != null) {
+            keys.remove(key.key);
+        }
+    }
+
+    private static final class Key<K> {
+
+        final IndexReader.CacheKey readerKey;
+        final K key;
+
+        Key(IndexReader.CacheKey readerKey, K key) {
+            this.readerKey = readerKey;
+            this.key = key;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Key<?> other = (Key<?>) o;
+            return readerKey == other.readerKey && key.equals(other.key);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(readerKey, key);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.index.codec;
+
+import org.apache.lucene.codecs.PostingsFormat;
+import org.apache.lucene.search.suggest.document.Completion84PostingsFormat;
+import org.apache.lucene.search.suggest.document.CompletionPostingsFormat;
+
+/**
+ * A completion postings format that is identical to {@link Completion84PostingsFormat} on disk but loads the
+ * suggester FSTs off-heap when the segment is memory-mapped, leaving their caching to the filesystem cache
+ * rather than the JVM heap.
+ * <p>
+ * Lucene resolves postings formats by name when opening a segment, so the load mode can not be chosen at read
+ * time. This format is therefore registered under its own name and is used to write completion fields of indices
+ * that have {@code index.completion.off_heap} enabled.
+ */
+public final class OffHeapCompletionPostingsFormat extends CompletionPostingsFormat {
+
+    public static final String NAME = "ESCompletion84OffHeap";
+
+    public OffHeapCompletionPostingsFormat() {
+        super(NAME, FSTLoadMode.AUTO);
+    }
+
+    @Override
+    protected PostingsFormat delegatePostingsFormat() {
+        return PostingsFormat.forName("Lucene84");
+    }
+}
@@ -40,6 +40,7 @@ import org.elasticsearch.index.mapper.MapperService;
 public class PerFieldMappingPostingFormatCodec extends Lucene87Codec {
     private final Logger logger;
     private final MapperService mapperService;
+    private final boolean completionOffHeap;
 
     static {
         assert Codec.forName(Lucene.LATEST_CODEC).getClass().isAssignableFrom(PerFieldMappingPostingFormatCodec.class) :
@@ -49,6 +50,7 @@ public class PerFieldMappingPostingFormatCodec extends Lucene87Codec {
     public PerFieldMappingPostingFormatCodec(Lucene87StoredFieldsFormat.Mode compressionMode, MapperService mapperService, Logger logger) {
         super(compressionMode);
         this.mapperService = mapperService;
+        this.completionOffHeap = mapperService.getIndexSettings().getValue(CompletionFieldMapper.COMPLETION_OFF_HEAP_SETTING);
         this.logger = logger;
     }
 
@@ -58,6 +60,9 @@ public class PerFieldMappingPostingFormatCodec extends Lucene87Codec {
         if (fieldType == null) {
             logger.warn("no index mapper found for field: [{}] returning default postings format", field);
         } else if (fieldType instanceof CompletionFieldMapper.CompletionFieldType) {
+            if (completionOffHeap) {
+                return CompletionFieldMapper.CompletionFieldType.offHeapPostingsFormat();
+            }
             return CompletionFieldMapper.CompletionFieldType.postingsFormat();
         }
         return super.getPostingsFormatForField(field);
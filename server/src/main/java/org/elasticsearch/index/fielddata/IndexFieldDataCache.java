@@ -44,6 +44,15 @@ public interface IndexFieldDataCache {
      */
     void clear(String fieldName);
 
+    /**
+     * Returns a cache for the same field whose entries are also keyed by the provided value, for field data that is
+     * computed from more than the indexed content of the field. Such entries are cleared together with the field.
+     * Caches that can't keep entries apart don't cache at all.
+     */
+    default IndexFieldDataCache keyedBy(Object key) {
+        return new None();
+    }
+
     interface Listener {
 
         /**
@@ -79,5 +88,10 @@ public interface IndexFieldDataCache {
         @Override
         public void clear(String fieldName) {
         }
+
+        @Override
+        public IndexFieldDataCache keyedBy(Object key) {
+            return this;
+        }
     }
 }
@@ -32,6 +32,8 @@ import org.apache.lucene.search.suggest.document.SuggestField;
 import org.elasticsearch.Version;
 import org.elasticsearch.common.ParsingException;
 import org.elasticsearch.common.logging.DeprecationLogger;
+import org.elasticsearch.common.settings.Setting;
+import org.elasticsearch.common.settings.Setting.Property;
 import org.elasticsearch.common.unit.Fuzziness;
 import org.elasticsearch.common.util.set.Sets;
 import org.elasticsearch.common.xcontent.ToXContent;
@@ -40,6 +42,7 @@ import org.elasticsearch.common.xcontent.XContentParser.NumberType;
 import org.elasticsearch.common.xcontent.XContentParser.Token;
 import org.elasticsearch.index.analysis.AnalyzerScope;
 import org.elasticsearch.index.analysis.NamedAnalyzer;
+import org.elasticsearch.index.codec.OffHeapCompletionPostingsFormat;
 import org.elasticsearch.index.query.QueryShardContext;
 import org.elasticsearch.search.lookup.SearchLookup;
 import org.elasticsearch.search.suggest.completion.CompletionSuggester;
@@ -84,6 +87,13 @@ public class CompletionFieldMapper extends FieldMapper {
      */
     static final int COMPLETION_CONTEXTS_LIMIT = 10;
 
+    /**
+     * Whether the suggester FSTs of newly written segments should be loaded off-heap when the segment is memory-mapped.
+     * Segments written before the setting was enabled keep loading their FSTs on-heap until they are merged away.
+     */
+    public static final Setting<Boolean> COMPLETION_OFF_HEAP_SETTING =
+        Setting.boolSetting("index.completion.off_heap", false, Property.IndexScope);
+
     @Override
     public FieldMapper.Builder getMergeBuilder() {
         return new Builder(simpleName(), builder.defaultAnalyzer, builder.indexVersionCreated).init(this);
@@ -218,6 +228,7 @@ public class CompletionFieldMapper extends FieldMapper {
     public static final class CompletionFieldType extends TermBasedFieldType {
 
         private static PostingsFormat postingsFormat;
+        private static PostingsFormat offHeapPostingsFormat;
 
         private ContextMappings contextMappings = null;
 
@@ -254,6 +265,17 @@ public class CompletionFieldMapper extends FieldMapper {
             return postingsFormat;
         }
 
+        /**
+         * @return postings format to use for this field-type when suggester FSTs should be loaded off-heap
+         * @see #COMPLETION_OFF_HEAP_SETTING
+         */
+        public static synchronized PostingsFormat offHeapPostingsFormat() {
+            if (offHeapPostingsFormat == null) {
+                offHeapPostingsFormat = new OffHeapCompletionPostingsFormat();
+            }
+            return offHeapPostingsFormat;
+        }
+
         /**
          * Completion prefix query
          */
@@ -881,7 +881,8 @@ final class DocumentParser {
 
     // looks up a child mapper, but takes into account field names that expand to objects
     private static Mapper getMapper(final ParseContext context, ObjectMapper objectMapper, String fieldName, String[] subfields) {
-        String fieldPath = context.path().pathAsText(fieldName);
+        // avoid building the full path for fields of the root object, which is what most fields of flat documents are
+        String fieldPath = context.path().length() == 0 ? fieldName : context.path().pathAsText(fieldName);
         // Check if mapper is a metadata mapper first
         Mapper mapper = context.docMapper().mapping().getMetadataMapper(fieldPath);
         if (mapper != null) {
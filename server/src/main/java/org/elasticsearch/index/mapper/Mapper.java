@@ -133,6 +133,11 @@ public abstract class Mapper implements ToXContentFragment, Iterable<Mapper> {
 
             public boolean isWithinMultiField() { return false; }
 
+            /**
+             * Whether the mappings being parsed are runtime fields defined in a search request rather than in the index mappings
+             */
+            public boolean isFromSearchRequest() { return false; }
+
             protected Function<String, TypeParser> typeParsers() { return typeParsers; }
 
             protected Function<String, RuntimeFieldType.Parser> runtimeTypeParsers() { return runtimeTypeParsers; }
@@ -150,6 +155,13 @@ public abstract class Mapper implements ToXContentFragment, Iterable<Mapper> {
                 return new MultiFieldParserContext(in);
             }
 
+            /**
+             * Creates the context to parse the runtime fields that are defined in a search request
+             */
+            public ParserContext createSearchRequestContext() {
+                return new SearchRequestParserContext(this);
+            }
+
             static class MultiFieldParserContext extends ParserContext {
                 MultiFieldParserContext(ParserContext in) {
                     super(in.similarityLookupService, in.typeParsers, in.runtimeTypeParsers, in.indexVersionCreated,
@@ -160,6 +172,17 @@ public abstract class Mapper implements ToXContentFragment, Iterable<Mapper> {
                 @Override
                 public boolean isWithinMultiField() { return true; }
             }
+
+            static class SearchRequestParserContext extends ParserContext {
+                SearchRequestParserContext(ParserContext in) {
+                    super(in.similarityLookupService, in.typeParsers, in.runtimeTypeParsers, in.indexVersionCreated,
+                        in.queryShardContextSupplier, in.dateFormatter, in.scriptService, in.indexAnalyzers, in.indexSettings,
+                        in.idFieldDataEnabled);
+                }
+
+                @Override
+                public boolean isFromSearchRequest() { return true; }
+            }
         }
 
         Mapper.Builder parse(String name, Map<String, Object> node, ParserContext parserContext) throws MapperParsingException;
@@ -20,18 +20,27 @@
 package org.elasticsearch.index.warmer;
 
 import org.apache.logging.log4j.Logger;
+import org.apache.lucene.search.Query;
 import org.elasticsearch.common.metrics.CounterMetric;
 import org.elasticsearch.common.metrics.MeanMetric;
 import org.elasticsearch.index.IndexSettings;
 import org.elasticsearch.index.shard.AbstractIndexShardComponent;
+import org.elasticsearch.index.shard.SearchOperationListener;
 import org.elasticsearch.index.shard.ShardId;
+import org.elasticsearch.search.internal.SearchContext;
 
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 
-public class ShardIndexWarmerService extends AbstractIndexShardComponent {
+public class ShardIndexWarmerService extends AbstractIndexShardComponent implements SearchOperationListener {
 
     private final CounterMetric current = new CounterMetric();
     private final MeanMetric warmerMetric = new MeanMetric();
+    // the distinct queries recently executed on this shard, from the least to the most recent
+    private final LinkedHashSet<Query> recentQueries = new LinkedHashSet<>();
 
     public ShardIndexWarmerService(ShardId shardId, IndexSettings indexSettings) {
         super(shardId, indexSettings);
@@ -50,6 +59,49 @@ public class ShardIndexWarmerService extends AbstractIndexShardComponent {
         warmerMetric.inc(tookInNanos);
     }
 
+    @Override
+    public void onQueryPhase(SearchContext searchContext, long tookInNanos) {
+        final int maxRecentQueries = indexSettings.getWarmerRecentQueries();
+        // queries that depend on the current time or run scripts can't be replayed as is
+        if (maxRecentQueries == 0 || searchContext.parsedQuery() == null || searchContext.getQueryShardContext().isCacheable() == false) {
+            if (maxRecentQueries == 0) {
+                clearRecentQueries();
+            }
+            return;
+        }
+        // the query as it was before it got rewritten against the reader of this search, the rewritten query may
+        // depend on this reader and would not match the terms or documents of new segments
+        final Query query = searchContext.parsedQuery().query();
+        synchronized (recentQueries) {
+            recentQueries.remove(query);
+            recentQueries.add(query);
+            final Iterator<Query> iterator = recentQueries.iterator();
+            while (recentQueries.size() > maxRecentQueries) {
+                iterator.next();
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * Returns the distinct queries that were recently executed on this shard and that should be replayed to warm new
+     * readers, see {@link IndexSettings#INDEX_WARMER_RECENT_QUERIES_SETTING}.
+     */
+    public List<Query> recentQueries() {
+        if (indexSettings.getWarmerRecentQueries() == 0) {
+            return List.of();
+        }
+        synchronized (recentQueries) {
+            return new ArrayList<>(recentQueries);
+        }
+    }
+
+    private void clearRecentQueries() {
+        synchronized (recentQueries) {
+            recentQueries.clear();
+        }
+    }
+
     public WarmerStats stats() {
         return new WarmerStats(current.count(), warmerMetric.count(), TimeUnit.NANOSECONDS.toMillis(warmerMetric.sum()));
     }
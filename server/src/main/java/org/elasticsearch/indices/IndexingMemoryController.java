@@ -46,6 +46,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.PriorityQueue;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.ReentrantLock;
 
@@ -197,6 +198,30 @@ public class IndexingMemoryController implements IndexingOperationListener, Clos
         });
     }
 
+    /**
+     * run a check of the indexing buffers that was triggered by indexing activity, in the background so that the indexing
+     * thread doesn't have to wait for it
+     */
+    protected void executeCheckAsync(Runnable check) {
+        threadPool.generic().execute(new AbstractRunnable() {
+            @Override
+            protected void doRun() {
+                check.run();
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                logger.warn("failed to check indexing buffers", e);
+            }
+
+            @Override
+            public void onRejection(Exception e) {
+                // fall back to checking on the calling thread
+                check.run();
+            }
+        });
+    }
+
     /** force checker to run now */
     void forceCheck() {
         statusChecker.run();
@@ -250,11 +275,35 @@ public class IndexingMemoryController implements IndexingOperationListener, Clos
 
         final AtomicLong bytesWrittenSinceCheck = new AtomicLong();
         final ReentrantLock runLock = new ReentrantLock();
+        /** Whether a check triggered by indexing has been handed over to a background thread and hasn't completed yet */
+        final AtomicBoolean checkPending = new AtomicBoolean();
 
         /** Shard calls this on each indexing/delete op */
         public void bytesWritten(int bytes) {
             long totalBytes = bytesWrittenSinceCheck.addAndGet(bytes);
             assert totalBytes >= 0;
+            if (totalBytes > indexingBuffer.getBytes()/30) {
+                if (totalBytes > indexingBuffer.getBytes()) {
+                    // the background check can't keep up with indexing, so we have no choice but to make the indexing thread
+                    // check the indexing buffers itself
+                    checkIfOverThreshold();
+                } else if (checkPending.compareAndSet(false, true)) {
+                    // don't make the indexing thread pay for going over all shards of the node, hand the check over
+                    executeCheckAsync(this::checkAsync);
+                }
+            }
+        }
+
+        private void checkAsync() {
+            try {
+                checkIfOverThreshold();
+            } finally {
+                checkPending.set(false);
+            }
+        }
+
+        private void checkIfOverThreshold() {
+            long totalBytes = bytesWrittenSinceCheck.get();
             while (totalBytes > indexingBuffer.getBytes()/30) {
 
                 if (runLock.tryLock()) {
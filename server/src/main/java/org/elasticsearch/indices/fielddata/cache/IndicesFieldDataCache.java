@@ -47,6 +47,7 @@ import org.elasticsearch.index.shard.ShardUtils;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Objects;
 import java.util.function.ToLongBiFunction;
 
 public class IndicesFieldDataCache implements RemovalListener<IndicesFieldDataCache.Key, Accountable>, Releasable{
@@ -118,6 +119,10 @@ public class IndicesFieldDataCache implements RemovalListener<IndicesFieldDataCa
         final String fieldName;
         private final Cache<Key, Accountable> cache;
         private final Listener[] listeners;
+        // the cache of the field that this cache is keyed from, or this cache itself
+        private final IndexFieldCache parent;
+        @Nullable
+        private final Object extraKey;
 
         IndexFieldCache(Logger logger,final Cache<Key, Accountable> cache, Index index, String fieldName, Listener... listeners) {
             this.logger = logger;
@@ -125,6 +130,18 @@ public class IndicesFieldDataCache implements RemovalListener<IndicesFieldDataCa
             this.index = index;
             this.fieldName = fieldName;
             this.cache = cache;
+            this.parent = this;
+            this.extraKey = null;
+        }
+
+        private IndexFieldCache(IndexFieldCache parent, Object extraKey) {
+            this.logger = parent.logger;
+            this.listeners = parent.listeners;
+            this.index = parent.index;
+            this.fieldName = parent.fieldName;
+            this.cache = parent.cache;
+            this.parent = parent;
+            this.extraKey = Objects.requireNonNull(extraKey);
         }
 
         @Override
@@ -212,6 +229,24 @@ public class IndicesFieldDataCache implements RemovalListener<IndicesFieldDataCa
             // soon as possible
             cache.refresh();
         }
+
+        @Override
+        public IndexFieldDataCache keyedBy(Object extraKey) {
+            return new IndexFieldCache(parent, extraKey);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            IndexFieldCache that = (IndexFieldCache) o;
+            return parent == that.parent && Objects.equals(extraKey, that.extraKey);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * System.identityHashCode(parent) + Objects.hashCode(extraKey);
+        }
     }
 
     public static class Key {
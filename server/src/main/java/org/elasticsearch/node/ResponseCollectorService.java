@@ -22,12 +22,17 @@ package org.elasticsearch.node;
 import org.elasticsearch.cluster.ClusterChangedEvent;
 import org.elasticsearch.cluster.ClusterStateListener;
 import org.elasticsearch.cluster.node.DiscoveryNode;
+import org.elasticsearch.cluster.routing.IndexRoutingTable;
+import org.elasticsearch.cluster.routing.IndexShardRoutingTable;
+import org.elasticsearch.cluster.routing.RoutingTable;
+import org.elasticsearch.cluster.routing.ShardRouting;
 import org.elasticsearch.cluster.service.ClusterService;
 import org.elasticsearch.common.ExponentiallyWeightedMovingAverage;
 import org.elasticsearch.common.io.stream.StreamInput;
 import org.elasticsearch.common.io.stream.StreamOutput;
 import org.elasticsearch.common.io.stream.Writeable;
 import org.elasticsearch.common.util.concurrent.ConcurrentCollections;
+import org.elasticsearch.index.shard.ShardId;
 
 import java.io.IOException;
 import java.util.HashMap;
@@ -39,13 +44,17 @@ import java.util.concurrent.ConcurrentMap;
 /**
  * Collects statistics about queue size, response time, and service time of
  * tasks executed on each node, making the EWMA of the values available to the
- * coordinating node.
+ * coordinating node. Response times are additionally tracked per shard copy so
+ * that a copy which is slower than the rest of its node (for instance because
+ * it is merging heavily or has a cold cache) can be ranked on its own merits.
  */
 public final class ResponseCollectorService implements ClusterStateListener {
 
     private static final double ALPHA = 0.3;
 
     private final ConcurrentMap<String, NodeStatistics> nodeIdToStats = ConcurrentCollections.newConcurrentMap();
+    private final ConcurrentMap<String, ConcurrentMap<ShardId, ExponentiallyWeightedMovingAverage>> nodeIdToShardResponseTimes =
+        ConcurrentCollections.newConcurrentMap();
 
     public ResponseCollectorService(ClusterService clusterService) {
         clusterService.addListener(this);
@@ -58,10 +67,40 @@ public final class ResponseCollectorService implements ClusterStateListener {
                 removeNode(removedNode.getId());
             }
         }
+        if (event.routingTableChanged()) {
+            removeShardCopiesThatLeft(event.state().routingTable());
+        }
     }
 
     void removeNode(String nodeId) {
         nodeIdToStats.remove(nodeId);
+        nodeIdToShardResponseTimes.remove(nodeId);
+    }
+
+    /**
+     * Drops the response times of the shard copies that are no longer held by the node they were collected for, either
+     * because the copy relocated away or because the index got deleted.
+     */
+    void removeShardCopiesThatLeft(RoutingTable routingTable) {
+        nodeIdToShardResponseTimes.forEach((nodeId, shardResponseTimes) ->
+            shardResponseTimes.keySet().removeIf(shardId -> holdsCopy(routingTable, nodeId, shardId) == false));
+    }
+
+    private static boolean holdsCopy(RoutingTable routingTable, String nodeId, ShardId shardId) {
+        final IndexRoutingTable indexRoutingTable = routingTable.index(shardId.getIndex());
+        if (indexRoutingTable == null) {
+            return false;
+        }
+        final IndexShardRoutingTable shardRoutingTable = indexRoutingTable.shard(shardId.id());
+        if (shardRoutingTable == null) {
+            return false;
+        }
+        for (ShardRouting shardRouting : shardRoutingTable) {
+            if (nodeId.equals(shardRouting.currentNodeId())) {
+                return true;
+            }
+        }
+        return false;
     }
 
     public void addNodeStatistics(String nodeId, int queueSize, long responseTimeNanos, long avgServiceTimeNanos) {
@@ -79,6 +118,32 @@ public final class ResponseCollectorService implements ClusterStateListener {
         });
     }
 
+    /**
+     * Records the response time of a request that was executed against the copy of {@code shardId} held by {@code nodeId}.
+     */
+    public void addShardStatistics(String nodeId, ShardId shardId, long responseTimeNanos) {
+        nodeIdToShardResponseTimes.computeIfAbsent(nodeId, id -> ConcurrentCollections.newConcurrentMap())
+            .compute(shardId, (id, ewma) -> {
+                if (ewma == null) {
+                    return new ExponentiallyWeightedMovingAverage(ALPHA, responseTimeNanos);
+                }
+                ewma.addValue((double) responseTimeNanos);
+                return ewma;
+            });
+    }
+
+    /**
+     * Returns the EWMA of the response time of the copy of {@code shardId} held by {@code nodeId}, or an
+     * empty {@code Optional} if no response was collected for this shard copy yet.
+     */
+    public Optional<Double> getShardResponseTime(String nodeId, ShardId shardId) {
+        final Map<ShardId, ExponentiallyWeightedMovingAverage> shardResponseTimes = nodeIdToShardResponseTimes.get(nodeId);
+        if (shardResponseTimes == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(shardResponseTimes.get(shardId)).map(ExponentiallyWeightedMovingAverage::getAverage);
+    }
+
     public Map<String, ComputedNodeStats> getAllNodeStatistics() {
         final int clientNum = nodeIdToStats.size();
         // Transform the mutable object internally used for accounting into the computed version
@@ -143,6 +208,13 @@ public final class ResponseCollectorService implements ClusterStateListener {
             this.serviceTime = in.readDouble();
         }
 
+        /**
+         * Returns a copy of these statistics with the response time replaced by the given value.
+         */
+        public ComputedNodeStats withResponseTime(double responseTime) {
+            return new ComputedNodeStats(nodeId, clientNum, queueSize, responseTime, serviceTime);
+        }
+
         @Override
         public void writeTo(StreamOutput out) throws IOException {
             out.writeString(this.nodeId);
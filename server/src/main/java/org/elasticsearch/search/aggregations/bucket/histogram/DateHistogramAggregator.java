@@ -265,6 +265,16 @@ class DateHistogramAggregator extends BucketsAggregator implements SizedBucketAg
         }
         SortedNumericDocValues values = valuesSource.longValues(ctx);
         return new LeafBucketCollectorBase(sub, values) {
+            /*
+             * Documents are often clustered by date, for instance when the index is sorted on the date or on the
+             * dimensions and the date of time series, so consecutive values tend to fall into the same bucket. We
+             * remember the last bucket and its bounds to skip rounding and hashing these values.
+             */
+            private long lastOwningBucketOrd = -1;
+            private long lastRounded;
+            private long lastRoundedEnd = Long.MIN_VALUE; // only computed once a second value falls into the bucket
+            private long lastBucketOrd;
+
             @Override
             public void collect(int doc, long owningBucketOrd) throws IOException {
                 if (values.advanceExact(doc)) {
@@ -273,18 +283,37 @@ class DateHistogramAggregator extends BucketsAggregator implements SizedBucketAg
                     long previousRounded = Long.MIN_VALUE;
                     for (int i = 0; i < valuesCount; ++i) {
                         long value = values.nextValue();
-                        long rounded = preparedRounding.round(value);
+                        boolean sameBucket = owningBucketOrd == lastOwningBucketOrd;
+                        long rounded;
+                        if (sameBucket && value >= lastRounded && value < lastRoundedEnd) {
+                            rounded = lastRounded;
+                            assert rounded == preparedRounding.round(value);
+                        } else {
+                            rounded = preparedRounding.round(value);
+                            sameBucket &= rounded == lastRounded;
+                        }
                         assert rounded >= previousRounded;
                         if (rounded == previousRounded) {
                             continue;
                         }
                         if (hardBounds == null || hardBounds.contain(rounded)) {
-                            long bucketOrd = bucketOrds.add(owningBucketOrd, rounded);
-                            if (bucketOrd < 0) { // already seen
-                                bucketOrd = -1 - bucketOrd;
-                                collectExistingBucket(sub, doc, bucketOrd);
+                            if (sameBucket) {
+                                if (lastRoundedEnd == Long.MIN_VALUE) {
+                                    lastRoundedEnd = preparedRounding.nextRoundingValue(rounded);
+                                }
+                                collectExistingBucket(sub, doc, lastBucketOrd);
                             } else {
-                                collectBucket(sub, doc, bucketOrd);
+                                long bucketOrd = bucketOrds.add(owningBucketOrd, rounded);
+                                if (bucketOrd < 0) { // already seen
+                                    bucketOrd = -1 - bucketOrd;
+                                    collectExistingBucket(sub, doc, bucketOrd);
+                                } else {
+                                    collectBucket(sub, doc, bucketOrd);
+                                }
+                                lastOwningBucketOrd = owningBucketOrd;
+                                lastRounded = rounded;
+                                lastRoundedEnd = Long.MIN_VALUE;
+                                lastBucketOrd = bucketOrd;
                             }
                         }
                         previousRounded = rounded;
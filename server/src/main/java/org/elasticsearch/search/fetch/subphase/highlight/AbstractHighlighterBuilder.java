@@ -21,6 +21,7 @@ package org.elasticsearch.search.fetch.subphase.highlight;
 
 import org.apache.lucene.search.highlight.SimpleFragmenter;
 import org.apache.lucene.search.highlight.SimpleSpanFragmenter;
+import org.elasticsearch.Version;
 import org.elasticsearch.common.ParseField;
 import org.elasticsearch.common.ParsingException;
 import org.elasticsearch.common.Strings;
@@ -71,6 +72,7 @@ public abstract class AbstractHighlighterBuilder<HB extends AbstractHighlighterB
     public static final ParseField NO_MATCH_SIZE_FIELD = new ParseField("no_match_size");
     public static final ParseField FORCE_SOURCE_FIELD = new ParseField("force_source");
     public static final ParseField PHRASE_LIMIT_FIELD = new ParseField("phrase_limit");
+    public static final ParseField MAX_ANALYZED_OFFSET_FIELD = new ParseField("max_analyzed_offset");
     public static final ParseField OPTIONS_FIELD = new ParseField("options");
     public static final ParseField HIGHLIGHT_QUERY_FIELD = new ParseField("highlight_query");
     public static final ParseField MATCHED_FIELDS_FIELD = new ParseField("matched_fields");
@@ -107,6 +109,8 @@ public abstract class AbstractHighlighterBuilder<HB extends AbstractHighlighterB
 
     protected Integer phraseLimit;
 
+    protected Integer maxAnalyzedOffset;
+
     protected Map<String, Object> options;
 
     protected Boolean requireFieldMatch;
@@ -131,6 +135,7 @@ public abstract class AbstractHighlighterBuilder<HB extends AbstractHighlighterB
         boundaryScannerLocale = template.boundaryScannerLocale;
         noMatchSize = template.noMatchSize;
         phraseLimit = template.phraseLimit;
+        maxAnalyzedOffset = template.maxAnalyzedOffset;
         options = template.options;
         requireFieldMatch = template.requireFieldMatch;
     }
@@ -165,6 +170,9 @@ public abstract class AbstractHighlighterBuilder<HB extends AbstractHighlighterB
             options(in.readMap());
         }
         requireFieldMatch(in.readOptionalBoolean());
+        if (in.getVersion().onOrAfter(Version.V_8_0_0)) {
+            maxAnalyzedOffset(in.readOptionalVInt());
+        }
     }
 
     /**
@@ -206,6 +214,9 @@ public abstract class AbstractHighlighterBuilder<HB extends AbstractHighlighterB
             out.writeMap(options);
         }
         out.writeOptionalBoolean(requireFieldMatch);
+        if (out.getVersion().onOrAfter(Version.V_8_0_0)) {
+            out.writeOptionalVInt(maxAnalyzedOffset);
+        }
         doWriteTo(out);
     }
 
@@ -525,6 +536,29 @@ public abstract class AbstractHighlighterBuilder<HB extends AbstractHighlighterB
         return this.phraseLimit;
     }
 
+    /**
+     * Sets the maximum number of characters of the field that the highlighters analyze if the field doesn't also
+     * define maxAnalyzedOffset. Text beyond this offset is not highlighted, instead of failing the request when the
+     * field is longer than the index level {@code index.highlight.max_analyzed_offset} setting.
+     * @param maxAnalyzedOffset a positive integer or null to leave out of request.  default is null.
+     * @return this for chaining
+     */
+    @SuppressWarnings("unchecked")
+    public HB maxAnalyzedOffset(Integer maxAnalyzedOffset) {
+        if (maxAnalyzedOffset != null && maxAnalyzedOffset <= 0) {
+            throw new IllegalArgumentException("[" + MAX_ANALYZED_OFFSET_FIELD.getPreferredName() + "] must be a positive integer");
+        }
+        this.maxAnalyzedOffset = maxAnalyzedOffset;
+        return (HB) this;
+    }
+
+    /**
+     * @return the value set by {@link #maxAnalyzedOffset(Integer)}
+     */
+    public Integer maxAnalyzedOffset() {
+        return this.maxAnalyzedOffset;
+    }
+
     /**
      * Forces the highlighting to highlight fields based on the source even if fields are stored separately.
      */
@@ -606,6 +640,9 @@ public abstract class AbstractHighlighterBuilder<HB extends AbstractHighlighterB
         if (phraseLimit != null) {
             builder.field(PHRASE_LIMIT_FIELD.getPreferredName(), phraseLimit);
         }
+        if (maxAnalyzedOffset != null) {
+            builder.field(MAX_ANALYZED_OFFSET_FIELD.getPreferredName(), maxAnalyzedOffset);
+        }
     }
 
     static <HB extends AbstractHighlighterBuilder<HB>> BiFunction<XContentParser, HB, HB> setupParser(
@@ -626,6 +663,7 @@ public abstract class AbstractHighlighterBuilder<HB extends AbstractHighlighterB
         parser.declareInt(HB::noMatchSize, NO_MATCH_SIZE_FIELD);
         parser.declareBoolean(HB::forceSource, FORCE_SOURCE_FIELD);
         parser.declareInt(HB::phraseLimit, PHRASE_LIMIT_FIELD);
+        parser.declareInt(HB::maxAnalyzedOffset, MAX_ANALYZED_OFFSET_FIELD);
         parser.declareObject(HB::options, (XContentParser p, Void c) -> {
             try {
                 return p.map();
@@ -659,7 +697,7 @@ public abstract class AbstractHighlighterBuilder<HB extends AbstractHighlighterB
         return Objects.hash(getClass(), Arrays.hashCode(preTags), Arrays.hashCode(postTags), fragmentSize,
                 numOfFragments, highlighterType, fragmenter, highlightQuery, order, highlightFilter,
                 forceSource, boundaryScannerType, boundaryMaxScan, Arrays.hashCode(boundaryChars), boundaryScannerLocale,
-                noMatchSize, phraseLimit, options, requireFieldMatch, doHashCode());
+                noMatchSize, phraseLimit, maxAnalyzedOffset, options, requireFieldMatch, doHashCode());
     }
 
     /**
@@ -693,6 +731,7 @@ public abstract class AbstractHighlighterBuilder<HB extends AbstractHighlighterB
                Objects.equals(boundaryScannerLocale, other.boundaryScannerLocale) &&
                Objects.equals(noMatchSize, other.noMatchSize) &&
                Objects.equals(phraseLimit, other.phraseLimit) &&
+               Objects.equals(maxAnalyzedOffset, other.maxAnalyzedOffset) &&
                Objects.equals(options, other.options) &&
                Objects.equals(requireFieldMatch, other.requireFieldMatch) &&
                doEquals(other);
@@ -29,6 +29,7 @@ import org.elasticsearch.common.xcontent.ObjectParser;
 import org.elasticsearch.common.xcontent.ObjectParser.NamedObjectParser;
 import org.elasticsearch.common.xcontent.XContentBuilder;
 import org.elasticsearch.common.xcontent.XContentParser;
+import org.elasticsearch.index.IndexSettings;
 import org.elasticsearch.index.query.QueryBuilder;
 import org.elasticsearch.index.query.QueryRewriteContext;
 import org.elasticsearch.index.query.QueryShardContext;
@@ -359,6 +360,15 @@ public class HighlightBuilder extends AbstractHighlighterBuilder<HighlightBuilde
         if (highlighterBuilder.phraseLimit != null) {
             targetOptionsBuilder.phraseLimit(highlighterBuilder.phraseLimit);
         }
+        if (highlighterBuilder.maxAnalyzedOffset != null) {
+            int indexMaxAnalyzedOffset = context.getIndexSettings().getHighlightMaxAnalyzedOffset();
+            if (highlighterBuilder.maxAnalyzedOffset > indexMaxAnalyzedOffset) {
+                throw new IllegalArgumentException("[" + MAX_ANALYZED_OFFSET_FIELD.getPreferredName()
+                    + "] must not be greater than the [" + IndexSettings.MAX_ANALYZED_OFFSET_SETTING.getKey()
+                    + "] index level setting [" + indexMaxAnalyzedOffset + "]");
+            }
+            targetOptionsBuilder.maxAnalyzedOffset(highlighterBuilder.maxAnalyzedOffset);
+        }
         if (highlighterBuilder.options != null) {
             targetOptionsBuilder.options(highlighterBuilder.options);
         }
@@ -60,6 +60,7 @@ public class PlainHighlighter implements Highlighter {
         MappedFieldType fieldType = fieldContext.fieldType;
 
         Encoder encoder = field.fieldOptions().encoder().equals("html") ? HighlightUtils.Encoders.HTML : HighlightUtils.Encoders.DEFAULT;
+        Integer queryMaxAnalyzedOffset = field.fieldOptions().maxAnalyzedOffset();
 
         if (!hitContext.cache().containsKey(CACHE_KEY)) {
             hitContext.cache().put(CACHE_KEY, new HashMap<>());
@@ -90,8 +91,8 @@ public class PlainHighlighter implements Highlighter {
 
             entry = new org.apache.lucene.search.highlight.Highlighter(formatter, encoder, queryScorer);
             entry.setTextFragmenter(fragmenter);
-            // always highlight across all data
-            entry.setMaxDocCharsToAnalyze(Integer.MAX_VALUE);
+            // highlight across all data, unless the request asked to stop analyzing the text at a given offset
+            entry.setMaxDocCharsToAnalyze(queryMaxAnalyzedOffset == null ? Integer.MAX_VALUE : queryMaxAnalyzedOffset);
 
             cache.put(fieldType, entry);
         }
@@ -115,7 +116,7 @@ public class PlainHighlighter implements Highlighter {
             if (keywordIgnoreAbove != null && textLength > keywordIgnoreAbove) {
                 continue; // skip highlighting keyword terms that were ignored during indexing
             }
-            if (textLength > maxAnalyzedOffset) {
+            if (queryMaxAnalyzedOffset == null && textLength > maxAnalyzedOffset) {
                 throw new IllegalArgumentException(
                     "The length of [" + fieldContext.fieldName + "] field of [" + hitContext.hit().getId() +
                         "] doc of [" + context.getIndexName() + "] index " +
@@ -126,6 +126,8 @@ public class SearchHighlightContext {
 
         private int phraseLimit = -1;
 
+        private Integer maxAnalyzedOffset;
+
         public int fragmentCharSize() {
             return fragmentCharSize;
         }
@@ -198,6 +200,14 @@ public class SearchHighlightContext {
             return phraseLimit;
         }
 
+        /**
+         * The maximum number of characters of the field to analyze for highlighting, or {@code null} if the whole
+         * field is analyzed and fields longer than {@code index.highlight.max_analyzed_offset} are rejected.
+         */
+        public Integer maxAnalyzedOffset() {
+            return maxAnalyzedOffset;
+        }
+
         public Set<String> matchedFields() {
             return matchedFields;
         }
@@ -305,6 +315,11 @@ public class SearchHighlightContext {
                 return this;
             }
 
+            Builder maxAnalyzedOffset(Integer maxAnalyzedOffset) {
+                fieldOptions.maxAnalyzedOffset = maxAnalyzedOffset;
+                return this;
+            }
+
             Builder matchedFields(Set<String> matchedFields) {
                 fieldOptions.matchedFields = matchedFields;
                 return this;
@@ -377,6 +392,9 @@ public class SearchHighlightContext {
                 if (fieldOptions.phraseLimit == -1) {
                     fieldOptions.phraseLimit = globalOptions.phraseLimit;
                 }
+                if (fieldOptions.maxAnalyzedOffset == null) {
+                    fieldOptions.maxAnalyzedOffset = globalOptions.maxAnalyzedOffset;
+                }
                 return this;
             }
         }
@@ -117,6 +117,12 @@ public class UnifiedHighlighter implements Highlighter {
         }
         int numberOfFragments = fieldContext.field.fieldOptions().numberOfFragments();
         Analyzer analyzer = wrapAnalyzer(fieldContext.context.getQueryShardContext().getFieldNameIndexAnalyzer());
+        Integer queryMaxAnalyzedOffset = fieldContext.field.fieldOptions().maxAnalyzedOffset();
+        if (queryMaxAnalyzedOffset != null) {
+            // stop analyzing the text at the requested offset instead of rejecting fields that are too long
+            analyzer = new LimitTokenOffsetAnalyzer(analyzer, queryMaxAnalyzedOffset);
+            maxAnalyzedOffset = Integer.MAX_VALUE;
+        }
         PassageFormatter passageFormatter = getPassageFormatter(fieldContext.hitContext, fieldContext.field, encoder);
         IndexSearcher searcher = fieldContext.context.searcher();
         OffsetSource offsetSource = getOffsetSource(fieldContext.fieldType);
@@ -177,9 +177,10 @@ public class ContextIndexSearcher extends IndexSearcher implements Releasable {
     public void search(List<LeafReaderContext> leaves, Weight weight, CollectorManager manager,
             QuerySearchResult result, DocValueFormat[] formats, TotalHits totalHits) throws IOException {
         final List<Collector> collectors = new ArrayList<>(leaves.size());
+        final RequiredPointRanges requiredPointRanges = RequiredPointRanges.of(weight.getQuery());
         for (LeafReaderContext ctx : leaves) {
             final Collector collector = manager.newCollector();
-            searchLeaf(ctx, weight, collector);
+            searchLeaf(ctx, weight, requiredPointRanges, collector);
             collectors.add(collector);
         }
         TopFieldDocs mergedTopDocs = (TopFieldDocs) manager.reduce(collectors);
@@ -196,8 +197,9 @@ public class ContextIndexSearcher extends IndexSearcher implements Releasable {
 
     @Override
     protected void search(List<LeafReaderContext> leaves, Weight weight, Collector collector) throws IOException {
+        final RequiredPointRanges requiredPointRanges = RequiredPointRanges.of(weight.getQuery());
         for (LeafReaderContext ctx : leaves) { // search each subreader
-            searchLeaf(ctx, weight, collector);
+            searchLeaf(ctx, weight, requiredPointRanges, collector);
         }
     }
 
@@ -205,10 +207,18 @@ public class ContextIndexSearcher extends IndexSearcher implements Releasable {
      * Lower-level search API.
      *
      * {@link LeafCollector#collect(int)} is called for every matching document in
-     * the provided <code>ctx</code>.
+     * the provided <code>ctx</code>. Segments that can't match the point ranges
+     * that the query requires are skipped.
      */
-    private void searchLeaf(LeafReaderContext ctx, Weight weight, Collector collector) throws IOException {
+    private void searchLeaf(LeafReaderContext ctx, Weight weight, RequiredPointRanges requiredPointRanges,
+                            Collector collector) throws IOException {
         cancellable.checkCancelled();
+        if (requiredPointRanges != null && requiredPointRanges.canMatch(ctx) == false) {
+            if (weight instanceof ProfileWeight) {
+                ((ProfileWeight) weight).onSegmentSkipped();
+            }
+            return;
+        }
         weight = wrapWeight(weight);
         final LeafCollector leafCollector;
         try {
@@ -35,7 +35,7 @@ import java.util.function.Function;
 
 public class LeafDocLookup implements Map<String, ScriptDocValues<?>> {
 
-    private final Map<String, ScriptDocValues<?>> localCacheFieldData = new HashMap<>(4);
+    private final Map<String, FieldDocValues> localCacheFieldData = new HashMap<>(4);
     private final Function<String, MappedFieldType> fieldTypeLookup;
     private final Function<MappedFieldType, IndexFieldData<?>> fieldDataLookup;
 
@@ -58,36 +58,41 @@ public class LeafDocLookup implements Map<String, ScriptDocValues<?>> {
     public ScriptDocValues<?> get(Object key) {
         // assume its a string...
         String fieldName = key.toString();
-        ScriptDocValues<?> scriptValues = localCacheFieldData.get(fieldName);
-        if (scriptValues == null) {
+        FieldDocValues fieldDocValues = localCacheFieldData.get(fieldName);
+        if (fieldDocValues == null) {
             final MappedFieldType fieldType = fieldTypeLookup.apply(fieldName);
             if (fieldType == null) {
                 throw new IllegalArgumentException("No field found for [" + fieldName + "] in mapping");
             }
             // load fielddata on behalf of the script: otherwise it would need additional permissions
             // to deal with pagedbytes/ramusagestimator/etc
-            scriptValues = AccessController.doPrivileged(new PrivilegedAction<ScriptDocValues<?>>() {
+            ScriptDocValues<?> scriptValues = AccessController.doPrivileged(new PrivilegedAction<ScriptDocValues<?>>() {
                 @Override
                 public ScriptDocValues<?> run() {
                     return fieldDataLookup.apply(fieldType).load(reader).getScriptValues();
                 }
             });
-            localCacheFieldData.put(fieldName, scriptValues);
+            fieldDocValues = new FieldDocValues(scriptValues);
+            localCacheFieldData.put(fieldName, fieldDocValues);
         }
-        try {
-            scriptValues.setNextDocId(docId);
-        } catch (IOException e) {
-            throw ExceptionsHelper.convertToElastic(e);
+        // scripts often read the same field several times for a document, only the first access needs to read its values
+        if (fieldDocValues.docId != docId) {
+            try {
+                fieldDocValues.scriptValues.setNextDocId(docId);
+            } catch (IOException e) {
+                throw ExceptionsHelper.convertToElastic(e);
+            }
+            fieldDocValues.docId = docId;
         }
-        return scriptValues;
+        return fieldDocValues.scriptValues;
     }
 
     @Override
     public boolean containsKey(Object key) {
         // assume its a string...
         String fieldName = key.toString();
-        ScriptDocValues<?> scriptValues = localCacheFieldData.get(fieldName);
-        return scriptValues != null || fieldTypeLookup.apply(fieldName) != null;
+        FieldDocValues fieldDocValues = localCacheFieldData.get(fieldName);
+        return fieldDocValues != null || fieldTypeLookup.apply(fieldName) != null;
     }
 
     @Override
@@ -139,4 +144,16 @@ public class LeafDocLookup implements Map<String, ScriptDocValues<?>> {
     public Set<Map.Entry<String, ScriptDocValues<?>>> entrySet() {
         throw new UnsupportedOperationException();
     }
+
+    /**
+     * The doc values of a field and the document they are positioned on.
+     */
+    private static final class FieldDocValues {
+        private final ScriptDocValues<?> scriptValues;
+        private int docId = -1;
+
+        FieldDocValues(ScriptDocValues<?> scriptValues) {
+            this.scriptValues = scriptValues;
+        }
+    }
 }
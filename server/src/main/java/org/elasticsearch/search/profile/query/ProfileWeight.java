@@ -48,6 +48,13 @@ public final class ProfileWeight extends Weight {
         this.profile = profile;
     }
 
+    /**
+     * Records that a segment was skipped because it can't have matches, without building a scorer for it.
+     */
+    public void onSegmentSkipped() {
+        profile.onSegmentSkipped();
+    }
+
     @Override
     public Scorer scorer(LeafReaderContext context) throws IOException {
         ScorerSupplier supplier = scorerSupplier(context);
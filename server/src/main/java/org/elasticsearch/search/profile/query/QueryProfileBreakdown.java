@@ -21,6 +21,10 @@ package org.elasticsearch.search.profile.query;
 
 import org.elasticsearch.search.profile.AbstractProfileBreakdown;
 
+import java.util.Map;
+
+import static java.util.Collections.emptyMap;
+
 /**
  * A record of timings for the various operations that may happen during query execution.
  * A node's time may be composed of several internal attributes (rewriting, weighting,
@@ -28,8 +32,22 @@ import org.elasticsearch.search.profile.AbstractProfileBreakdown;
  */
 public final class QueryProfileBreakdown extends AbstractProfileBreakdown<QueryTimingType> {
 
+    private int segmentsSkipped;
+
     /** Sole constructor. */
     public QueryProfileBreakdown() {
         super(QueryTimingType.class);
     }
+
+    /**
+     * Records that a segment was skipped because it can't have matches.
+     */
+    void onSegmentSkipped() {
+        segmentsSkipped++;
+    }
+
+    @Override
+    protected Map<String, Object> toDebugMap() {
+        return segmentsSkipped == 0 ? emptyMap() : Map.of("segments_skipped", segmentsSkipped);
+    }
 }
@@ -0,0 +1,142 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.action.search;
+
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.unit.TimeValue;
+import org.elasticsearch.index.query.QueryBuilders;
+import org.elasticsearch.index.query.functionscore.ScoreFunctionBuilders;
+import org.elasticsearch.script.Script;
+import org.elasticsearch.search.aggregations.AggregationBuilders;
+import org.elasticsearch.search.builder.SearchSourceBuilder;
+import org.elasticsearch.tasks.Task;
+import org.elasticsearch.test.ESTestCase;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+public class RemoteSearchResponseCacheTests extends ESTestCase {
+
+    private static SearchRequest cacheableRequest() {
+        SearchSourceBuilder source = new SearchSourceBuilder().size(0)
+            .query(QueryBuilders.rangeQuery("@timestamp").gte("2020-01-01").lt("2020-02-01"))
+            .aggregation(AggregationBuilders.terms("hosts").field("host"));
+        return new SearchRequest("logs-*").source(source).requestCache(true);
+    }
+
+    public void testCanCache() throws Exception {
+        assertTrue(RemoteSearchResponseCache.canCache(cacheableRequest()));
+
+        // request cache must be explicitly enabled
+        assertFalse(RemoteSearchResponseCache.canCache(cacheableRequest().requestCache(false)));
+        SearchRequest noRequestCache = new SearchRequest("logs-*").source(cacheableRequest().source());
+        assertFalse(RemoteSearchResponseCache.canCache(noRequestCache));
+
+        // requests returning hits are not cached
+        SearchRequest withHits = cacheableRequest();
+        withHits.source().size(10);
+        assertFalse(RemoteSearchResponseCache.canCache(withHits));
+
+        SearchRequest scroll = cacheableRequest();
+        scroll.scroll(TimeValue.timeValueMinutes(1));
+        assertFalse(RemoteSearchResponseCache.canCache(scroll));
+
+        SearchRequest profile = cacheableRequest();
+        profile.source().profile(true);
+        assertFalse(RemoteSearchResponseCache.canCache(profile));
+
+        // relative date math
+        SearchRequest relative = cacheableRequest();
+        relative.source().query(QueryBuilders.rangeQuery("@timestamp").gte("now-1d"));
+        assertFalse(RemoteSearchResponseCache.canCache(relative));
+        SearchRequest relativeInAggs = cacheableRequest();
+        relativeInAggs.source().aggregation(AggregationBuilders.dateRange("recent").field("@timestamp").addUnboundedFrom("now-1h"));
+        assertFalse(RemoteSearchResponseCache.canCache(relativeInAggs));
+
+        SearchRequest dfs = cacheableRequest().searchType(SearchType.DFS_QUERY_THEN_FETCH);
+        assertFalse(RemoteSearchResponseCache.canCache(dfs));
+    }
+
+    public void testDoNotCacheScripts() throws Exception {
+        SearchRequest scriptQuery = cacheableRequest();
+        scriptQuery.source().query(QueryBuilders.scriptQuery(new Script("doc['a'].value > 0")));
+        assertFalse(RemoteSearchResponseCache.canCache(scriptQuery));
+
+        SearchRequest scriptedAgg = cacheableRequest();
+        scriptedAgg.source().aggregation(AggregationBuilders.scriptedMetric("metric")
+            .mapScript(new Script("state.count++")).combineScript(new Script("state")).reduceScript(new Script("states")));
+        assertFalse(RemoteSearchResponseCache.canCache(scriptedAgg));
+
+        SearchRequest valuesScript = cacheableRequest();
+        valuesScript.source().aggregation(AggregationBuilders.max("max").script(new Script("Math.random()")));
+        assertFalse(RemoteSearchResponseCache.canCache(valuesScript));
+
+        SearchRequest runtimeMappings = cacheableRequest();
+        runtimeMappings.source().runtimeMappings(Map.of("day", Map.of("type", "keyword")));
+        assertFalse(RemoteSearchResponseCache.canCache(runtimeMappings));
+
+        SearchRequest randomScore = cacheableRequest();
+        randomScore.source().query(QueryBuilders.functionScoreQuery(ScoreFunctionBuilders.randomFunction()));
+        assertFalse(RemoteSearchResponseCache.canCache(randomScore));
+    }
+
+    public void testKeyIgnoresStartTimeAndOpaqueId() throws Exception {
+        SearchRequest request = cacheableRequest();
+        SearchRequest first = SearchRequest.subSearchRequest(request, request.indices(), "remote", randomNonNegativeLong(), false);
+        SearchRequest second = SearchRequest.subSearchRequest(request, request.indices(), "remote", randomNonNegativeLong(), false);
+
+        Map<String, String> headers = new HashMap<>();
+        headers.put("_authentication", "user1");
+        Map<String, String> headersWithOpaqueId = new HashMap<>(headers);
+        headersWithOpaqueId.put(Task.X_OPAQUE_ID, randomAlphaOfLength(10));
+
+        assertEquals(RemoteSearchResponseCache.buildKey("remote", first, headers),
+            RemoteSearchResponseCache.buildKey("remote", second, headersWithOpaqueId));
+    }
+
+    public void testKeyDependsOnClusterAndHeaders() throws Exception {
+        SearchRequest request = cacheableRequest();
+        Map<String, String> headers = Collections.singletonMap("_authentication", "user1");
+
+        assertNotEquals(RemoteSearchResponseCache.buildKey("remote1", request, headers),
+            RemoteSearchResponseCache.buildKey("remote2", request, headers));
+        assertNotEquals(RemoteSearchResponseCache.buildKey("remote1", request, headers),
+            RemoteSearchResponseCache.buildKey("remote1", request, Collections.singletonMap("_authentication", "user2")));
+
+        SearchRequest otherIndices = cacheableRequest().indices("metrics-*");
+        assertNotEquals(RemoteSearchResponseCache.buildKey("remote1", request, headers),
+            RemoteSearchResponseCache.buildKey("remote1", otherIndices, headers));
+
+        SearchRequest disallowPartialResults = cacheableRequest().allowPartialSearchResults(false);
+        assertNotEquals(RemoteSearchResponseCache.buildKey("remote1", request, headers),
+            RemoteSearchResponseCache.buildKey("remote1", disallowPartialResults, headers));
+
+        SearchRequest otherBatchedReduceSize = cacheableRequest();
+        otherBatchedReduceSize.setBatchedReduceSize(randomIntBetween(2, 64));
+        assertNotEquals(RemoteSearchResponseCache.buildKey("remote1", request, headers),
+            RemoteSearchResponseCache.buildKey("remote1", otherBatchedReduceSize, headers));
+    }
+
+    public void testDisabledByDefault() throws Exception {
+        RemoteSearchResponseCache cache = new RemoteSearchResponseCache(Settings.EMPTY, writableRegistry());
+        assertEquals(0, cache.count());
+    }
+}
@@ -89,6 +89,7 @@ import java.util.Set;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.BiFunction;
@@ -392,7 +393,8 @@ public class TransportSearchActionTests extends ESTestCase {
             LatchedActionListener<SearchResponse> listener = new LatchedActionListener<>(
                 ActionListener.wrap(r -> fail("no response expected"), failure::set), latch);
             TransportSearchAction.ccsRemoteReduce(searchRequest, localIndices, remoteIndicesByCluster, timeProvider,
-                    emptyReduceContextBuilder(), remoteClusterService, threadPool, listener, (r, l) -> setOnce.set(Tuple.tuple(r, l)));
+                    emptyReduceContextBuilder(), remoteClusterService, null, threadPool, listener,
+                    (r, l) -> setOnce.set(Tuple.tuple(r, l)));
             if (localIndices == null) {
                 assertNull(setOnce.get());
             } else {
@@ -437,7 +439,8 @@ public class TransportSearchActionTests extends ESTestCase {
                 LatchedActionListener<SearchResponse> listener = new LatchedActionListener<>(
                     ActionListener.wrap(response::set, e -> fail("no failures expected")), latch);
                 TransportSearchAction.ccsRemoteReduce(searchRequest, localIndices, remoteIndicesByCluster, timeProvider,
-                        emptyReduceContextBuilder(), remoteClusterService, threadPool, listener, (r, l) -> setOnce.set(Tuple.tuple(r, l)));
+                        emptyReduceContextBuilder(), remoteClusterService, null, threadPool, listener,
+                        (r, l) -> setOnce.set(Tuple.tuple(r, l)));
                 if (localIndices == null) {
                     assertNull(setOnce.get());
                 } else {
@@ -463,7 +466,8 @@ public class TransportSearchActionTests extends ESTestCase {
                 LatchedActionListener<SearchResponse> listener = new LatchedActionListener<>(
                     ActionListener.wrap(r -> fail("no response expected"), failure::set), latch);
                 TransportSearchAction.ccsRemoteReduce(searchRequest, localIndices, remoteIndicesByCluster, timeProvider,
-                        emptyReduceContextBuilder(), remoteClusterService, threadPool, listener, (r, l) -> setOnce.set(Tuple.tuple(r, l)));
+                        emptyReduceContextBuilder(), remoteClusterService, null, threadPool, listener,
+                        (r, l) -> setOnce.set(Tuple.tuple(r, l)));
                 if (localIndices == null) {
                     assertNull(setOnce.get());
                 } else {
@@ -510,7 +514,8 @@ public class TransportSearchActionTests extends ESTestCase {
                 LatchedActionListener<SearchResponse> listener = new LatchedActionListener<>(
                     ActionListener.wrap(r -> fail("no response expected"), failure::set), latch);
                 TransportSearchAction.ccsRemoteReduce(searchRequest, localIndices, remoteIndicesByCluster, timeProvider,
-                        emptyReduceContextBuilder(), remoteClusterService, threadPool, listener, (r, l) -> setOnce.set(Tuple.tuple(r, l)));
+                        emptyReduceContextBuilder(), remoteClusterService, null, threadPool, listener,
+                        (r, l) -> setOnce.set(Tuple.tuple(r, l)));
                 if (localIndices == null) {
                     assertNull(setOnce.get());
                 } else {
@@ -539,7 +544,8 @@ public class TransportSearchActionTests extends ESTestCase {
                 LatchedActionListener<SearchResponse> listener = new LatchedActionListener<>(
                     ActionListener.wrap(response::set, e -> fail("no failures expected")), latch);
                 TransportSearchAction.ccsRemoteReduce(searchRequest, localIndices, remoteIndicesByCluster, timeProvider,
-                        emptyReduceContextBuilder(), remoteClusterService, threadPool, listener, (r, l) -> setOnce.set(Tuple.tuple(r, l)));
+                        emptyReduceContextBuilder(), remoteClusterService, null, threadPool, listener,
+                        (r, l) -> setOnce.set(Tuple.tuple(r, l)));
                 if (localIndices == null) {
                     assertNull(setOnce.get());
                 } else {
@@ -579,7 +585,8 @@ public class TransportSearchActionTests extends ESTestCase {
                 LatchedActionListener<SearchResponse> listener = new LatchedActionListener<>(
                     ActionListener.wrap(response::set, e -> fail("no failures expected")), latch);
                 TransportSearchAction.ccsRemoteReduce(searchRequest, localIndices, remoteIndicesByCluster, timeProvider,
-                        emptyReduceContextBuilder(), remoteClusterService, threadPool, listener, (r, l) -> setOnce.set(Tuple.tuple(r, l)));
+                        emptyReduceContextBuilder(), remoteClusterService, null, threadPool, listener,
+                        (r, l) -> setOnce.set(Tuple.tuple(r, l)));
                 if (localIndices == null) {
                     assertNull(setOnce.get());
                 } else {
@@ -604,6 +611,85 @@ public class TransportSearchActionTests extends ESTestCase {
         }
     }
 
+    public void testCCSRemoteReduceWithResponseCache() throws Exception {
+        DiscoveryNode[] nodes = new DiscoveryNode[1];
+        Map<String, OriginalIndices> remoteIndicesByCluster = new HashMap<>();
+        Settings.Builder builder = Settings.builder();
+        MockTransportService[] mockTransportServices = startTransport(1, nodes, remoteIndicesByCluster, builder);
+        AtomicInteger remoteSearches = new AtomicInteger();
+        AtomicBoolean partialResults = new AtomicBoolean();
+        mockTransportServices[0].addRequestHandlingBehavior(SearchAction.NAME, (handler, request, channel, task) -> {
+            remoteSearches.incrementAndGet();
+            if (partialResults.get()) {
+                InternalSearchResponse response = new InternalSearchResponse(new SearchHits(new SearchHit[0],
+                    new TotalHits(0, TotalHits.Relation.EQUAL_TO), Float.NaN), InternalAggregations.EMPTY, null, null, false, null, 1);
+                channel.sendResponse(new SearchResponse(response, null, 2, 1, 0, 100,
+                    new ShardSearchFailure[] { new ShardSearchFailure(new IllegalStateException("boom")) }, SearchResponse.Clusters.EMPTY));
+            } else {
+                handler.messageReceived(request, channel, task);
+            }
+        });
+        Settings settings = builder.build();
+        TransportSearchAction.SearchTimeProvider timeProvider = new TransportSearchAction.SearchTimeProvider(0, 0, () -> 0);
+        RemoteSearchResponseCache responseCache = new RemoteSearchResponseCache(
+            Settings.builder().put(RemoteSearchResponseCache.CCS_RESPONSE_CACHE_SIZE.getKey(), "1mb").build(), writableRegistry());
+        try (MockTransportService service = MockTransportService.createNewService(settings, Version.CURRENT, threadPool, null)) {
+            service.start();
+            service.acceptIncomingRequests();
+            RemoteClusterService remoteClusterService = service.getRemoteClusterService();
+
+            // the second search is served from the cache
+            for (int i = 0; i < 2; i++) {
+                SearchResponse response = ccsRemoteReduce(cacheableSearchRequest(), remoteIndicesByCluster, timeProvider,
+                    remoteClusterService, responseCache);
+                assertEquals(1, response.getSuccessfulShards());
+                assertEquals(0, response.getFailedShards());
+                assertEquals(1, remoteSearches.get());
+                assertEquals(1, responseCache.count());
+            }
+
+            // requests that don't opt-in to the request cache always hit the remote cluster
+            for (int i = 0; i < 2; i++) {
+                ccsRemoteReduce(cacheableSearchRequest().requestCache(false), remoteIndicesByCluster, timeProvider,
+                    remoteClusterService, responseCache);
+                assertEquals(2 + i, remoteSearches.get());
+            }
+
+            // partial results are not cached
+            partialResults.set(true);
+            for (int i = 0; i < 2; i++) {
+                SearchResponse response = ccsRemoteReduce(cacheableSearchRequest().preference("partial"), remoteIndicesByCluster,
+                    timeProvider, remoteClusterService, responseCache);
+                assertEquals(1, response.getFailedShards());
+                assertEquals(4 + i, remoteSearches.get());
+                assertEquals(1, responseCache.count());
+            }
+        } finally {
+            for (MockTransportService mockTransportService : mockTransportServices) {
+                mockTransportService.close();
+            }
+        }
+    }
+
+    private static SearchRequest cacheableSearchRequest() {
+        return new SearchRequest().source(new SearchSourceBuilder().size(0)).requestCache(true);
+    }
+
+    private SearchResponse ccsRemoteReduce(SearchRequest searchRequest, Map<String, OriginalIndices> remoteIndicesByCluster,
+                                           TransportSearchAction.SearchTimeProvider timeProvider,
+                                           RemoteClusterService remoteClusterService,
+                                           RemoteSearchResponseCache responseCache) throws InterruptedException {
+        final CountDownLatch latch = new CountDownLatch(1);
+        AtomicReference<SearchResponse> response = new AtomicReference<>();
+        LatchedActionListener<SearchResponse> listener = new LatchedActionListener<>(
+            ActionListener.wrap(response::set, e -> fail("no failures expected")), latch);
+        TransportSearchAction.ccsRemoteReduce(searchRequest, null, remoteIndicesByCluster, timeProvider,
+            emptyReduceContextBuilder(), remoteClusterService, responseCache, threadPool, listener,
+            (r, l) -> fail("no local search expected"));
+        awaitLatch(latch, 5, TimeUnit.SECONDS);
+        return response.get();
+    }
+
     public void testCollectSearchShards() throws Exception {
         int numClusters = randomIntBetween(2, 10);
         DiscoveryNode[] nodes = new DiscoveryNode[numClusters];
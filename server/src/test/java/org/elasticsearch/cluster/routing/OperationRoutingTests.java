@@ -606,4 +606,71 @@ public class OperationRoutingTests extends ESTestCase{
         terminate(threadPool);
     }
 
+    public void testAdaptiveReplicaSelectionWithShardLevelStats() throws Exception {
+        final String[] indexNames = new String[] { "test" };
+        ClusterState state = ClusterStateCreationUtils.stateWithAssignedPrimariesAndReplicas(indexNames, 1, 2);
+        OperationRouting opRouting = new OperationRouting(Settings.EMPTY,
+                new ClusterSettings(Settings.EMPTY, ClusterSettings.BUILT_IN_CLUSTER_SETTINGS));
+        opRouting.setUseAdaptiveReplicaSelection(true);
+        TestThreadPool threadPool = new TestThreadPool("testAdaptiveReplicaSelectionWithShardLevelStats");
+        ClusterService clusterService = ClusterServiceUtils.createClusterService(threadPool);
+        ResponseCollectorService collector = new ResponseCollectorService(clusterService);
+        Map<String, Long> outstandingRequests = new HashMap<>();
+
+        // all nodes look the same on average
+        for (String nodeId : new String[] { "node_0", "node_1", "node_2" }) {
+            collector.addNodeStatistics(nodeId, 1, TimeValue.timeValueMillis(100).nanos(), TimeValue.timeValueMillis(50).nanos());
+            outstandingRequests.put(nodeId, 1L);
+        }
+
+        // but the copies on node_0 and node_2 are much slower than the copy on node_1
+        final ShardId shardId = state.routingTable().index("test").shard(0).shardId();
+        collector.addShardStatistics("node_0", shardId, TimeValue.timeValueMillis(400).nanos());
+        collector.addShardStatistics("node_1", shardId, TimeValue.timeValueMillis(50).nanos());
+        collector.addShardStatistics("node_2", shardId, TimeValue.timeValueMillis(400).nanos());
+
+        GroupShardsIterator<ShardIterator> groupIterator = opRouting.searchShards(state, indexNames, null, null, collector,
+            outstandingRequests);
+        ShardRouting shardChoice = groupIterator.get(0).nextOrNull();
+        assertThat(shardChoice.currentNodeId(), equalTo("node_1"));
+
+        IOUtils.close(clusterService);
+        terminate(threadPool);
+    }
+
+    public void testAdaptiveReplicaSelectionRanksRelocatingCopiesLast() throws Exception {
+        final String[] indexNames = new String[] { "test" };
+        ClusterState state = ClusterStateCreationUtils.state("test", randomBoolean(), ShardRoutingState.STARTED,
+            ShardRoutingState.RELOCATING);
+        OperationRouting opRouting = new OperationRouting(Settings.EMPTY,
+                new ClusterSettings(Settings.EMPTY, ClusterSettings.BUILT_IN_CLUSTER_SETTINGS));
+        opRouting.setUseAdaptiveReplicaSelection(true);
+        TestThreadPool threadPool = new TestThreadPool("testAdaptiveReplicaSelectionRanksRelocatingCopiesLast");
+        ClusterService clusterService = ClusterServiceUtils.createClusterService(threadPool);
+        ResponseCollectorService collector = new ResponseCollectorService(clusterService);
+        Map<String, Long> outstandingRequests = new HashMap<>();
+
+        IndexShardRoutingTable shardRoutingTable = state.routingTable().index("test").shard(0);
+        ShardRouting primary = shardRoutingTable.primaryShard();
+        ShardRouting relocatingReplica = shardRoutingTable.replicaShards().get(0);
+        assertTrue(relocatingReplica.relocating());
+
+        // the relocating copy looks much faster than the primary
+        collector.addNodeStatistics(primary.currentNodeId(), 1, TimeValue.timeValueMillis(400).nanos(),
+            TimeValue.timeValueMillis(50).nanos());
+        collector.addNodeStatistics(relocatingReplica.currentNodeId(), 1, TimeValue.timeValueMillis(50).nanos(),
+            TimeValue.timeValueMillis(50).nanos());
+        collector.addShardStatistics(primary.currentNodeId(), primary.shardId(), TimeValue.timeValueMillis(400).nanos());
+        collector.addShardStatistics(relocatingReplica.currentNodeId(), primary.shardId(), TimeValue.timeValueMillis(50).nanos());
+        outstandingRequests.put(primary.currentNodeId(), 1L);
+        outstandingRequests.put(relocatingReplica.currentNodeId(), 1L);
+
+        // but it is ranked after the copy that is not relocating
+        ShardIterator shardIterator = opRouting.searchShards(state, indexNames, null, null, collector, outstandingRequests).get(0);
+        assertThat(shardIterator.nextOrNull().currentNodeId(), equalTo(primary.currentNodeId()));
+        assertThat(shardIterator.nextOrNull().currentNodeId(), equalTo(relocatingReplica.currentNodeId()));
+
+        IOUtils.close(clusterService);
+        terminate(threadPool);
+    }
 }
@@ -0,0 +1,213 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.index;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.NoMergePolicy;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.ConstantScoreScorer;
+import org.apache.lucene.search.ConstantScoreWeight;
+import org.apache.lucene.search.DocIdSetIterator;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.MultiTermQuery;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.QueryCachingPolicy;
+import org.apache.lucene.search.ScoreMode;
+import org.apache.lucene.search.Scorer;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.UsageTrackingQueryCachingPolicy;
+import org.apache.lucene.search.Weight;
+import org.apache.lucene.store.Directory;
+import org.elasticsearch.common.lucene.index.ElasticsearchDirectoryReader;
+import org.elasticsearch.common.util.concurrent.ConcurrentCollections;
+import org.elasticsearch.index.cache.query.QueryCache;
+import org.elasticsearch.index.shard.IndexShard;
+import org.elasticsearch.index.shard.IndexShardState;
+import org.elasticsearch.index.shard.ShardId;
+import org.elasticsearch.index.warmer.ShardIndexWarmerService;
+import org.elasticsearch.test.ESTestCase;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class IndexWarmerTests extends ESTestCase {
+
+    public void testRecentQueriesWarmer() throws Exception {
+        CountingQuery query = new CountingQuery(false);
+        CountingQuery failingQuery = new CountingQuery(true);
+        ShardIndexWarmerService warmerService = mock(ShardIndexWarmerService.class);
+        when(warmerService.recentQueries()).thenReturn(List.of(failingQuery, query));
+        when(warmerService.logger()).thenReturn(LogManager.getLogger(IndexWarmerTests.class));
+        IndexShard indexShard = mock(IndexShard.class);
+        when(indexShard.state()).thenReturn(IndexShardState.STARTED);
+        when(indexShard.warmerService()).thenReturn(warmerService);
+        when(indexShard.getQueryCachingPolicy()).thenReturn(new UsageTrackingQueryCachingPolicy());
+        IndexWarmer.RecentQueriesWarmer warmer = new IndexWarmer.RecentQueriesWarmer(Runnable::run, null);
+
+        ShardId shardId = new ShardId("index", "_na_", 0);
+        IndexWriterConfig config = new IndexWriterConfig().setMergePolicy(NoMergePolicy.INSTANCE);
+        try (Directory directory = newDirectory(); IndexWriter writer = new IndexWriter(directory, config)) {
+            writer.addDocument(new Document());
+            try (DirectoryReader reader = ElasticsearchDirectoryReader.wrap(DirectoryReader.open(writer), shardId)) {
+                // the failure of a query doesn't prevent the other queries from being replayed
+                warmer.warmReader(indexShard, (ElasticsearchDirectoryReader) reader).awaitTermination();
+                assertEquals(1, query.segments.get());
+                assertEquals(1, failingQuery.segments.get());
+
+                // segments that were already warmed are skipped
+                writer.addDocument(new Document());
+                try (DirectoryReader newReader = DirectoryReader.openIfChanged(reader)) {
+                    assertEquals(2, newReader.leaves().size());
+                    warmer.warmReader(indexShard, (ElasticsearchDirectoryReader) newReader).awaitTermination();
+                    assertEquals(2, query.segments.get());
+                    assertEquals(2, failingQuery.segments.get());
+                }
+
+                // nothing is replayed once the shard is closed
+                when(indexShard.state()).thenReturn(IndexShardState.CLOSED);
+                writer.addDocument(new Document());
+                try (DirectoryReader newReader = DirectoryReader.openIfChanged(reader)) {
+                    warmer.warmReader(indexShard, (ElasticsearchDirectoryReader) newReader).awaitTermination();
+                    assertEquals(2, query.segments.get());
+                    assertEquals(2, failingQuery.segments.get());
+                }
+            }
+        }
+    }
+
+    public void testRecentQueriesAreRewrittenAgainstNewReader() throws Exception {
+        PrefixQuery query = new PrefixQuery(new Term("field", "foo"));
+        query.setRewriteMethod(MultiTermQuery.SCORING_BOOLEAN_REWRITE);
+        ShardIndexWarmerService warmerService = mock(ShardIndexWarmerService.class);
+        when(warmerService.recentQueries()).thenReturn(List.of(query));
+        when(warmerService.logger()).thenReturn(LogManager.getLogger(IndexWarmerTests.class));
+        IndexShard indexShard = mock(IndexShard.class);
+        when(indexShard.state()).thenReturn(IndexShardState.STARTED);
+        when(indexShard.warmerService()).thenReturn(warmerService);
+        when(indexShard.getQueryCachingPolicy()).thenReturn(new UsageTrackingQueryCachingPolicy());
+        RecordingQueryCache queryCache = new RecordingQueryCache();
+        IndexWarmer.RecentQueriesWarmer warmer = new IndexWarmer.RecentQueriesWarmer(Runnable::run, queryCache);
+
+        ShardId shardId = new ShardId("index", "_na_", 0);
+        IndexWriterConfig config = new IndexWriterConfig().setMergePolicy(NoMergePolicy.INSTANCE);
+        try (Directory directory = newDirectory(); IndexWriter writer = new IndexWriter(directory, config)) {
+            writer.addDocument(List.of(new StringField("field", "foo1", Field.Store.NO)));
+            try (DirectoryReader reader = ElasticsearchDirectoryReader.wrap(DirectoryReader.open(writer), shardId)) {
+                warmer.warmReader(indexShard, (ElasticsearchDirectoryReader) reader).awaitTermination();
+                assertTrue(queryCache.queries.contains(new TermQuery(new Term("field", "foo1"))));
+
+                // the term of the new segment is part of the replayed query
+                writer.addDocument(List.of(new StringField("field", "foo2", Field.Store.NO)));
+                try (DirectoryReader newReader = DirectoryReader.openIfChanged(reader)) {
+                    warmer.warmReader(indexShard, (ElasticsearchDirectoryReader) newReader).awaitTermination();
+                    assertTrue(queryCache.queries.contains(new TermQuery(new Term("field", "foo2"))));
+                }
+            }
+        }
+    }
+
+    /**
+     * Counts the segments it is executed on, and optionally fails on each of them.
+     */
+    private static class CountingQuery extends Query {
+
+        private final boolean fail;
+        private final AtomicInteger segments = new AtomicInteger();
+
+        CountingQuery(boolean fail) {
+            this.fail = fail;
+        }
+
+        @Override
+        public Weight createWeight(IndexSearcher searcher, ScoreMode scoreMode, float boost) {
+            return new ConstantScoreWeight(this, boost) {
+                @Override
+                public Scorer scorer(LeafReaderContext context) throws IOException {
+                    segments.incrementAndGet();
+                    if (fail) {
+                        throw new IllegalStateException("failed to execute query");
+                    }
+                    return new ConstantScoreScorer(this, score(), scoreMode, DocIdSetIterator.all(context.reader().maxDoc()));
+                }
+
+                @Override
+                public boolean isCacheable(LeafReaderContext ctx) {
+                    return false;
+                }
+            };
+        }
+
+        @Override
+        public String toString(String field) {
+            return "counting(" + fail + ")";
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return this == obj;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(this);
+        }
+    }
+
+    /**
+     * Records the queries whose weights it is asked to cache.
+     */
+    private static class RecordingQueryCache implements QueryCache {
+
+        private final Set<Query> queries = ConcurrentCollections.newConcurrentSet();
+
+        @Override
+        public Weight doCache(Weight weight, QueryCachingPolicy policy) {
+            queries.add(weight.getQuery());
+            return weight;
+        }
+
+        @Override
+        public void clear(String reason) {
+            queries.clear();
+        }
+
+        @Override
+        public void close() {
+        }
+
+        @Override
+        public Index index() {
+            return new Index("index", "_na_");
+        }
+    }
+}
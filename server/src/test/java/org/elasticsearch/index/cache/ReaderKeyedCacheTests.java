@@ -0,0 +1,73 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.index.cache;
+
+import org.apache.lucene.document.Document;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.store.Directory;
+import org.elasticsearch.test.ESTestCase;
+
+import java.io.IOException;
+
+public class ReaderKeyedCacheTests extends ESTestCase {
+
+    public void testEntriesAreDroppedWhenTheirReaderIsClosed() throws IOException {
+        ReaderKeyedCache<String, String> cache = new ReaderKeyedCache<>(1024 * 1024, String::length);
+        try (Directory directory = newDirectory(); IndexWriter writer = new IndexWriter(directory, newIndexWriterConfig())) {
+            writer.addDocument(new Document());
+            DirectoryReader first = DirectoryReader.open(writer);
+            writer.addDocument(new Document());
+            DirectoryReader second = DirectoryReader.open(writer);
+            IndexReader.CacheHelper firstHelper = first.getReaderCacheHelper();
+            IndexReader.CacheHelper secondHelper = second.getReaderCacheHelper();
+
+            cache.put(firstHelper, "a", "first-a");
+            cache.put(firstHelper, "b", "first-b");
+            cache.put(secondHelper, "a", "second-a");
+            assertEquals(3, cache.count());
+            assertEquals("first-a", cache.get(firstHelper, "a"));
+            assertEquals("second-a", cache.get(secondHelper, "a"));
+            assertNull(cache.get(secondHelper, "b"));
+
+            first.close();
+            assertEquals(1, cache.count());
+            assertEquals("second-a", cache.get(secondHelper, "a"));
+
+            second.close();
+            assertEquals(0, cache.count());
+        }
+    }
+
+    public void testDisabled() throws IOException {
+        ReaderKeyedCache<String, String> cache = new ReaderKeyedCache<>(0, String::length);
+        assertFalse(cache.isEnabled());
+        try (Directory directory = newDirectory(); IndexWriter writer = new IndexWriter(directory, newIndexWriterConfig())) {
+            writer.addDocument(new Document());
+            try (DirectoryReader reader = DirectoryReader.open(writer)) {
+                cache.put(reader.getReaderCacheHelper(), "a", "value");
+                assertNull(cache.get(reader.getReaderCacheHelper(), "a"));
+                assertEquals(0, cache.count());
+            }
+        }
+        expectThrows(IllegalArgumentException.class, () -> new ReaderKeyedCache<String, String>(-1, String::length));
+    }
+}
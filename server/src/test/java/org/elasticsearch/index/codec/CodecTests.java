@@ -20,21 +20,33 @@
 package org.elasticsearch.index.codec;
 
 import org.apache.logging.log4j.LogManager;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
 import org.apache.lucene.codecs.Codec;
+import org.apache.lucene.codecs.PostingsFormat;
 import org.apache.lucene.codecs.lucene87.Lucene87Codec;
 import org.apache.lucene.codecs.lucene87.Lucene87StoredFieldsFormat;
 import org.apache.lucene.codecs.lucene87.Lucene87StoredFieldsFormat.Mode;
+import org.apache.lucene.codecs.perfield.PerFieldPostingsFormat;
 import org.apache.lucene.document.Document;
 import org.apache.lucene.index.DirectoryReader;
 import org.apache.lucene.index.IndexWriter;
 import org.apache.lucene.index.IndexWriterConfig;
 import org.apache.lucene.index.SegmentReader;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.suggest.document.Completion84PostingsFormat;
+import org.apache.lucene.search.suggest.document.PrefixCompletionQuery;
+import org.apache.lucene.search.suggest.document.SuggestField;
+import org.apache.lucene.search.suggest.document.SuggestIndexSearcher;
+import org.apache.lucene.search.suggest.document.TopSuggestDocs;
 import org.apache.lucene.store.Directory;
 import org.apache.lucene.util.LuceneTestCase.SuppressCodecs;
+import org.elasticsearch.common.compress.CompressedXContent;
 import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.env.Environment;
 import org.elasticsearch.index.IndexSettings;
 import org.elasticsearch.index.analysis.IndexAnalyzers;
+import org.elasticsearch.index.mapper.CompletionFieldMapper;
 import org.elasticsearch.index.mapper.MapperService;
 import org.elasticsearch.index.similarity.SimilarityService;
 import org.elasticsearch.indices.mapper.MapperRegistry;
@@ -67,6 +79,61 @@ public class CodecTests extends ESTestCase {
         assertCompressionEquals(Mode.BEST_COMPRESSION, codec);
     }
 
+    public void testCompletionPostingsFormat() throws Exception {
+        String mapping = "{\"_doc\":{\"properties\":{\"suggest\":{\"type\":\"completion\"}}}}";
+
+        MapperService mapperService = createMapperService(Settings.EMPTY);
+        mapperService.merge("_doc", new CompressedXContent(mapping), MapperService.MergeReason.MAPPING_UPDATE);
+        PerFieldMappingPostingFormatCodec codec = (PerFieldMappingPostingFormatCodec) new CodecService(mapperService,
+            LogManager.getLogger("test")).codec("default");
+        assertThat(codec.getPostingsFormatForField("suggest"), instanceOf(Completion84PostingsFormat.class));
+
+        Settings offHeap = Settings.builder().put(CompletionFieldMapper.COMPLETION_OFF_HEAP_SETTING.getKey(), true).build();
+        mapperService = createMapperService(offHeap);
+        mapperService.merge("_doc", new CompressedXContent(mapping), MapperService.MergeReason.MAPPING_UPDATE);
+        codec = (PerFieldMappingPostingFormatCodec) new CodecService(mapperService, LogManager.getLogger("test")).codec("default");
+        assertThat(codec.getPostingsFormatForField("suggest"), instanceOf(OffHeapCompletionPostingsFormat.class));
+
+        // segments must be readable, so the format has to be resolvable by name
+        assertThat(PostingsFormat.forName(OffHeapCompletionPostingsFormat.NAME), instanceOf(OffHeapCompletionPostingsFormat.class));
+    }
+
+    public void testOffHeapCompletionRoundTrip() throws Exception {
+        String mapping = "{\"_doc\":{\"properties\":{\"suggest\":{\"type\":\"completion\"}}}}";
+        Settings offHeap = Settings.builder().put(CompletionFieldMapper.COMPLETION_OFF_HEAP_SETTING.getKey(), true).build();
+        MapperService mapperService = createMapperService(offHeap);
+        mapperService.merge("_doc", new CompressedXContent(mapping), MapperService.MergeReason.MAPPING_UPDATE);
+        Codec codec = new CodecService(mapperService, LogManager.getLogger("test")).codec("default");
+
+        Analyzer analyzer = new StandardAnalyzer();
+        Directory dir = newDirectory();
+        IndexWriterConfig iwc = newIndexWriterConfig(analyzer);
+        iwc.setCodec(codec);
+        IndexWriter iw = new IndexWriter(dir, iwc);
+        String[] values = new String[] { "elastic", "elasticsearch", "elk", "kibana" };
+        for (int i = 0; i < values.length; i++) {
+            Document document = new Document();
+            document.add(new SuggestField("suggest", values[i], i + 1));
+            iw.addDocument(document);
+        }
+        iw.commit();
+        iw.close();
+
+        DirectoryReader ir = DirectoryReader.open(dir);
+        SegmentReader sr = (SegmentReader) ir.leaves().get(0).reader();
+        assertEquals(OffHeapCompletionPostingsFormat.NAME,
+            sr.getFieldInfos().fieldInfo("suggest").getAttribute(PerFieldPostingsFormat.PER_FIELD_FORMAT_KEY));
+
+        SuggestIndexSearcher searcher = new SuggestIndexSearcher(ir);
+        TopSuggestDocs suggestions = searcher.suggest(new PrefixCompletionQuery(analyzer, new Term("suggest", "el")), 10, false);
+        assertEquals(3, suggestions.scoreLookupDocs().length);
+        assertEquals("elk", suggestions.scoreLookupDocs()[0].key.toString());
+        assertEquals("elasticsearch", suggestions.scoreLookupDocs()[1].key.toString());
+        assertEquals("elastic", suggestions.scoreLookupDocs()[2].key.toString());
+        ir.close();
+        dir.close();
+    }
+
     // write some docs with it, inspect .si to see this was the used compression
     private void assertCompressionEquals(Mode expected, Codec actual) throws Exception {
         Directory dir = newDirectory();
@@ -86,17 +153,20 @@ public class CodecTests extends ESTestCase {
     }
 
     private CodecService createCodecService() throws IOException {
+        return new CodecService(createMapperService(Settings.EMPTY), LogManager.getLogger("test"));
+    }
+
+    private MapperService createMapperService(Settings indexSettings) throws IOException {
         Settings nodeSettings = Settings.builder()
                 .put(Environment.PATH_HOME_SETTING.getKey(), createTempDir())
                 .build();
-        IndexSettings settings = IndexSettingsModule.newIndexSettings("_na", nodeSettings);
+        IndexSettings settings = IndexSettingsModule.newIndexSettings("_na", indexSettings);
         SimilarityService similarityService = new SimilarityService(settings, null, Collections.emptyMap());
         IndexAnalyzers indexAnalyzers = createTestAnalysis(settings, nodeSettings).indexAnalyzers;
         MapperRegistry mapperRegistry = new MapperRegistry(Collections.emptyMap(), Collections.emptyMap(), Collections.emptyMap(),
             MapperPlugin.NOOP_FIELD_FILTER);
-        MapperService service = new MapperService(settings, indexAnalyzers, xContentRegistry(), similarityService, mapperRegistry,
+        return new MapperService(settings, indexAnalyzers, xContentRegistry(), similarityService, mapperRegistry,
                 () -> null, () -> false, null);
-        return new CodecService(service, LogManager.getLogger("test"));
     }
 
 }
@@ -0,0 +1,111 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.elasticsearch.index.warmer;
+
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.TermQuery;
+import org.elasticsearch.Version;
+import org.elasticsearch.cluster.metadata.IndexMetadata;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.util.BigArrays;
+import org.elasticsearch.index.IndexSettings;
+import org.elasticsearch.index.query.ParsedQuery;
+import org.elasticsearch.index.query.QueryShardContext;
+import org.elasticsearch.index.shard.ShardId;
+import org.elasticsearch.test.ESTestCase;
+import org.elasticsearch.test.IndexSettingsModule;
+import org.elasticsearch.test.TestSearchContext;
+
+import java.util.List;
+
+public class ShardIndexWarmerServiceTests extends ESTestCase {
+
+    public void testRecentQueries() {
+        IndexSettings indexSettings = indexSettings(3);
+        ShardIndexWarmerService warmerService = new ShardIndexWarmerService(new ShardId("index", "_na_", 0), indexSettings);
+        assertEquals(List.of(), warmerService.recentQueries());
+
+        Query foo = new TermQuery(new Term("field", "foo"));
+        Query bar = new TermQuery(new Term("field", "bar"));
+        Query baz = new TermQuery(new Term("field", "baz"));
+        Query qux = new TermQuery(new Term("field", "qux"));
+        onQueryPhase(warmerService, indexSettings, foo);
+        onQueryPhase(warmerService, indexSettings, bar);
+        onQueryPhase(warmerService, indexSettings, foo);
+        assertEquals(List.of(bar, foo), warmerService.recentQueries());
+
+        // the least recent query is evicted
+        onQueryPhase(warmerService, indexSettings, baz);
+        onQueryPhase(warmerService, indexSettings, qux);
+        assertEquals(List.of(foo, baz, qux), warmerService.recentQueries());
+
+        // queries that can't be cached are not recorded
+        QueryShardContext queryShardContext = queryShardContext(indexSettings);
+        queryShardContext.nowInMillis();
+        TestSearchContext searchContext = new TestSearchContext(queryShardContext);
+        searchContext.parsedQuery(new ParsedQuery(bar));
+        warmerService.onQueryPhase(searchContext, 0);
+        assertEquals(List.of(foo, baz, qux), warmerService.recentQueries());
+    }
+
+    public void testRecordsQueriesBeforeRewrite() {
+        IndexSettings indexSettings = indexSettings(3);
+        ShardIndexWarmerService warmerService = new ShardIndexWarmerService(new ShardId("index", "_na_", 0), indexSettings);
+        Query parsed = new PrefixQuery(new Term("field", "foo"));
+        Query rewritten = new TermQuery(new Term("field", "foo1"));
+        TestSearchContext searchContext = new TestSearchContext(queryShardContext(indexSettings)) {
+            @Override
+            public Query query() {
+                return rewritten;
+            }
+        };
+        searchContext.parsedQuery(new ParsedQuery(parsed));
+        warmerService.onQueryPhase(searchContext, 0);
+        // the rewritten query only knows about the terms of the reader it was rewritten against
+        assertEquals(List.of(parsed), warmerService.recentQueries());
+    }
+
+    public void testDisabled() {
+        IndexSettings indexSettings = indexSettings(0);
+        ShardIndexWarmerService warmerService = new ShardIndexWarmerService(new ShardId("index", "_na_", 0), indexSettings);
+        onQueryPhase(warmerService, indexSettings, new TermQuery(new Term("field", "foo")));
+        assertEquals(List.of(), warmerService.recentQueries());
+    }
+
+    private static IndexSettings indexSettings(int recentQueries) {
+        Settings settings = Settings.builder()
+            .put(IndexMetadata.SETTING_VERSION_CREATED, Version.CURRENT)
+            .put(IndexSettings.INDEX_WARMER_RECENT_QUERIES_SETTING.getKey(), recentQueries)
+            .build();
+        return IndexSettingsModule.newIndexSettings("index", settings);
+    }
+
+    private static QueryShardContext queryShardContext(IndexSettings indexSettings) {
+        return new QueryShardContext(0, indexSettings, BigArrays.NON_RECYCLING_INSTANCE, null, null, null, null, null,
+            null, null, null, null, () -> 0L, null, null, () -> true, null);
+    }
+
+    private static void onQueryPhase(ShardIndexWarmerService warmerService, IndexSettings indexSettings, Query query) {
+        TestSearchContext searchContext = new TestSearchContext(queryShardContext(indexSettings));
+        searchContext.parsedQuery(new ParsedQuery(query));
+        warmerService.onQueryPhase(searchContext, 0);
+    }
+}
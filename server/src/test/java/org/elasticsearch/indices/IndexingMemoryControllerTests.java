@@ -27,11 +27,13 @@ import org.elasticsearch.common.unit.ByteSizeUnit;
 import org.elasticsearch.common.unit.ByteSizeValue;
 import org.elasticsearch.common.xcontent.XContentType;
 import org.elasticsearch.index.codec.CodecService;
+import org.elasticsearch.index.engine.Engine;
 import org.elasticsearch.index.engine.EngineConfig;
 import org.elasticsearch.index.engine.InternalEngine;
 import org.elasticsearch.index.refresh.RefreshStats;
 import org.elasticsearch.index.shard.IndexShard;
 import org.elasticsearch.index.shard.IndexShardTestCase;
+import org.elasticsearch.index.shard.ShardId;
 import org.elasticsearch.indices.recovery.RecoveryState;
 import org.elasticsearch.threadpool.Scheduler.Cancellable;
 import org.elasticsearch.threadpool.ThreadPool;
@@ -53,6 +55,8 @@ import static java.util.Collections.emptyMap;
 import static java.util.Collections.emptySet;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 public class IndexingMemoryControllerTests extends IndexShardTestCase {
 
@@ -369,10 +373,62 @@ public class IndexingMemoryControllerTests extends IndexShardTestCase {
 
         assertEquals(1, imc.availableShards().size());
         assertTrue(recoverFromStore(shard));
-        assertThat("we should have flushed in IMC at least once", flushes.get(), greaterThanOrEqualTo(1));
+        // checks triggered by indexing run in the background
+        assertBusy(() -> assertThat("we should have flushed in IMC at least once", flushes.get(), greaterThanOrEqualTo(1)));
         closeShards(shard);
     }
 
+    public void testChecksTriggeredByIndexingRunInBackground() {
+        List<Runnable> pendingChecks = new ArrayList<>();
+        AtomicInteger checks = new AtomicInteger();
+        IndexingMemoryController controller = new IndexingMemoryController(
+            Settings.builder().put("indices.memory.interval", "200h") // disable it
+                .put("indices.memory.index_buffer_size", "3000b").build(),
+            null, Collections.emptyList()) {
+            @Override
+            protected Cancellable scheduleTask(ThreadPool threadPool) {
+                return null;
+            }
+
+            @Override
+            protected List<IndexShard> availableShards() {
+                checks.incrementAndGet();
+                return Collections.emptyList();
+            }
+
+            @Override
+            protected void executeCheckAsync(Runnable check) {
+                pendingChecks.add(check);
+            }
+        };
+        ShardId shardId = new ShardId("index", "_na_", 0);
+
+        // below the threshold nothing happens
+        controller.postIndex(shardId, indexOp(50), new Engine.IndexResult(1, 1, 1, true));
+        assertEquals(0, pendingChecks.size());
+
+        // above the threshold a single check is handed over to the background, no matter how many operations are indexed
+        for (int i = 0; i < 10; i++) {
+            controller.postIndex(shardId, indexOp(200), new Engine.IndexResult(1, 1, 1, true));
+        }
+        assertEquals(1, pendingChecks.size());
+        assertEquals(0, checks.get());
+        pendingChecks.remove(0).run();
+        assertEquals(1, checks.get());
+
+        // but once over the whole indexing buffer, the indexing thread checks itself
+        controller.postIndex(shardId, indexOp(200), new Engine.IndexResult(1, 1, 1, true));
+        assertEquals(1, pendingChecks.size());
+        controller.postIndex(shardId, indexOp(5000), new Engine.IndexResult(1, 1, 1, true));
+        assertEquals(2, checks.get());
+    }
+
+    private static Engine.Index indexOp(int sizeInBytes) {
+        Engine.Index index = mock(Engine.Index.class);
+        when(index.estimatedSizeInBytes()).thenReturn(sizeInBytes);
+        return index;
+    }
+
     EngineConfig configWithRefreshListener(EngineConfig config, ReferenceManager.RefreshListener listener) {
         final List<ReferenceManager.RefreshListener> internalRefreshListener = new ArrayList<>(config.getInternalRefreshListener());;
         internalRefreshListener.add(listener);
@@ -24,10 +24,16 @@ import org.elasticsearch.cluster.ClusterName;
 import org.elasticsearch.cluster.ClusterState;
 import org.elasticsearch.cluster.node.DiscoveryNode;
 import org.elasticsearch.cluster.node.DiscoveryNodes;
+import org.elasticsearch.cluster.routing.IndexRoutingTable;
+import org.elasticsearch.cluster.routing.RoutingTable;
+import org.elasticsearch.cluster.routing.ShardRouting;
+import org.elasticsearch.cluster.routing.ShardRoutingState;
+import org.elasticsearch.cluster.routing.TestShardRouting;
 import org.elasticsearch.cluster.service.ClusterService;
 import org.elasticsearch.common.settings.ClusterSettings;
 import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.common.transport.TransportAddress;
+import org.elasticsearch.index.shard.ShardId;
 import org.elasticsearch.test.ESTestCase;
 import org.elasticsearch.threadpool.TestThreadPool;
 import org.elasticsearch.threadpool.ThreadPool;
@@ -71,6 +77,28 @@ public class ResponseCollectorServiceTests extends ESTestCase {
         assertThat(nodeStats.get("node1").serviceTime, equalTo(10.0));
     }
 
+    public void testShardStats() throws Exception {
+        final ShardId shardId = new ShardId("index", "_na_", 0);
+        assertFalse(collector.getShardResponseTime("node1", shardId).isPresent());
+
+        collector.addNodeStatistics("node1", 1, 100, 10);
+        collector.addShardStatistics("node1", shardId, 400);
+        assertThat(collector.getShardResponseTime("node1", shardId).get(), equalTo(400.0));
+        assertFalse(collector.getShardResponseTime("node1", new ShardId("index", "_na_", 1)).isPresent());
+
+        ResponseCollectorService.ComputedNodeStats shardStats =
+            collector.getNodeStatistics("node1").get().withResponseTime(collector.getShardResponseTime("node1", shardId).get());
+        assertThat(shardStats.queueSize, equalTo(1));
+        assertThat(shardStats.responseTime, equalTo(400.0));
+        assertThat(shardStats.serviceTime, equalTo(10.0));
+        // the node level stats are not affected by the shard level stats
+        assertThat(collector.getNodeStatistics("node1").get().responseTime, equalTo(100.0));
+
+        collector.removeShardCopiesThatLeft(RoutingTable.EMPTY_ROUTING_TABLE);
+        assertFalse(collector.getShardResponseTime("node1", shardId).isPresent());
+        assertThat(collector.getNodeStatistics("node1").get().responseTime, equalTo(100.0));
+    }
+
     /*
      * Test that concurrently adding values and removing nodes does not cause exceptions
      */
@@ -123,6 +151,8 @@ public class ResponseCollectorServiceTests extends ESTestCase {
     public void testNodeRemoval() throws Exception {
         collector.addNodeStatistics("node1", randomIntBetween(1,100), randomIntBetween(1,100), randomIntBetween(1,100));
         collector.addNodeStatistics("node2", randomIntBetween(1,100), randomIntBetween(1,100), randomIntBetween(1,100));
+        final ShardId shardId = new ShardId("index", "_na_", 0);
+        collector.addShardStatistics("node2", shardId, randomIntBetween(1,100));
 
         ClusterState previousState = ClusterState.builder(new ClusterName("cluster")).nodes(DiscoveryNodes.builder()
                 .add(DiscoveryNode.createLocal(Settings.EMPTY, new TransportAddress(TransportAddress.META_ADDRESS, 9200), "node1"))
@@ -136,5 +166,40 @@ public class ResponseCollectorServiceTests extends ESTestCase {
         final Map<String, ResponseCollectorService.ComputedNodeStats> nodeStats = collector.getAllNodeStatistics();
         assertTrue(nodeStats.containsKey("node1"));
         assertFalse(nodeStats.containsKey("node2"));
+        assertFalse(collector.getShardResponseTime("node2", shardId).isPresent());
+    }
+
+    public void testShardCopyRelocation() throws Exception {
+        final ShardId shardId = new ShardId("index", "_na_", 0);
+        collector.addShardStatistics("node1", shardId, randomIntBetween(1, 100));
+        collector.addShardStatistics("node2", shardId, randomIntBetween(1, 100));
+
+        ClusterState previousState = ClusterState.builder(new ClusterName("cluster"))
+            .routingTable(routingTable(
+                TestShardRouting.newShardRouting(shardId, "node1", true, ShardRoutingState.STARTED),
+                TestShardRouting.newShardRouting(shardId, "node2", "node3", false, ShardRoutingState.RELOCATING)))
+            .build();
+        collector.clusterChanged(new ClusterChangedEvent("test", previousState, ClusterState.EMPTY_STATE));
+        // the stats of a copy are kept while it relocates away
+        assertTrue(collector.getShardResponseTime("node1", shardId).isPresent());
+        assertTrue(collector.getShardResponseTime("node2", shardId).isPresent());
+
+        ClusterState newState = ClusterState.builder(previousState)
+            .routingTable(routingTable(
+                TestShardRouting.newShardRouting(shardId, "node1", true, ShardRoutingState.STARTED),
+                TestShardRouting.newShardRouting(shardId, "node3", false, ShardRoutingState.STARTED)))
+            .build();
+        collector.clusterChanged(new ClusterChangedEvent("test", newState, previousState));
+        // and dropped once the copy left the node
+        assertTrue(collector.getShardResponseTime("node1", shardId).isPresent());
+        assertFalse(collector.getShardResponseTime("node2", shardId).isPresent());
+    }
+
+    private static RoutingTable routingTable(ShardRouting... shards) {
+        IndexRoutingTable.Builder indexRoutingTable = IndexRoutingTable.builder(shards[0].index());
+        for (ShardRouting shard : shards) {
+            indexRoutingTable.addShard(shard);
+        }
+        return RoutingTable.builder().add(indexRoutingTable).build();
     }
 }
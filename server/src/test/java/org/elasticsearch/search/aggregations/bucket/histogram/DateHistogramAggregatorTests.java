@@ -30,6 +30,7 @@ import org.apache.lucene.search.MatchAllDocsQuery;
 import org.apache.lucene.search.MatchNoDocsQuery;
 import org.apache.lucene.search.Query;
 import org.apache.lucene.store.Directory;
+import org.elasticsearch.common.Rounding;
 import org.elasticsearch.common.time.DateFormatter;
 import org.elasticsearch.common.time.DateFormatters;
 import org.elasticsearch.index.mapper.DateFieldMapper;
@@ -43,10 +44,14 @@ import org.elasticsearch.search.internal.SearchContext;
 import org.hamcrest.Matcher;
 
 import java.io.IOException;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.function.Consumer;
 import java.util.stream.IntStream;
 
@@ -1225,6 +1230,53 @@ public class DateHistogramAggregatorTests extends DateHistogramAggregatorTestCas
         }
     }
 
+    /**
+     * Consecutive documents that fall into the same bucket are collected without rounding and hashing their dates,
+     * make sure this returns the same buckets as rounding every date, including across daylight saving time changes.
+     */
+    public void testClusteredDates() throws IOException {
+        ZoneId timeZone = ZoneId.of(randomFrom("UTC", "Asia/Kolkata", "America/New_York"));
+        Rounding.Prepared rounding = Rounding.builder(Rounding.DateTimeUnit.HOUR_OF_DAY).timeZone(timeZone).build().prepareForUnknown();
+        // the clocks of New York change on 2020-03-08
+        long timestamp = asLong("2020-03-07T00:00:00");
+        long min = timestamp;
+        List<long[]> docs = new ArrayList<>();
+        Map<Long, Long> expected = new HashMap<>();
+        int numDocs = randomIntBetween(100, 2000);
+        for (int i = 0; i < numDocs; i++) {
+            timestamp += randomIntBetween(0, 10 * 60 * 1000);
+            long[] values = randomBoolean()
+                ? new long[] { timestamp }
+                : new long[] { timestamp, timestamp + randomIntBetween(0, 2 * 60 * 60 * 1000) };
+            docs.add(values);
+            Arrays.stream(values).map(rounding::round).distinct().forEach(key -> expected.merge(key, 1L, Long::sum));
+        }
+        long max = timestamp + 2 * 60 * 60 * 1000;
+
+        // hard bounds prevent the aggregation from being adapted into a range aggregation
+        DateHistogramAggregationBuilder builder = new DateHistogramAggregationBuilder("dh").field(AGGREGABLE_DATE)
+            .calendarInterval(DateHistogramInterval.HOUR)
+            .timeZone(timeZone)
+            .minDocCount(1)
+            .hardBounds(new LongBounds(min, max));
+        DateFieldMapper.DateFieldType fieldType = aggregableDateFieldType(false, randomBoolean());
+        testCase(builder, new MatchAllDocsQuery(), iw -> {
+            for (long[] values : docs) {
+                Document document = new Document();
+                for (long value : values) {
+                    document.add(new SortedNumericDocValuesField(AGGREGABLE_DATE, value));
+                }
+                iw.addDocument(document);
+            }
+        }, (InternalDateHistogram histogram) -> {
+            Map<Long, Long> actual = new HashMap<>();
+            for (InternalDateHistogram.Bucket bucket : histogram.getBuckets()) {
+                actual.put(((ZonedDateTime) bucket.getKey()).toInstant().toEpochMilli(), bucket.getDocCount());
+            }
+            assertEquals(expected, actual);
+        }, fieldType);
+    }
+
     public void testIllegalInterval() throws IOException {
         IllegalArgumentException e = expectThrows(IllegalArgumentException.class, () -> testSearchCase(new MatchAllDocsQuery(),
             Collections.emptyList(),
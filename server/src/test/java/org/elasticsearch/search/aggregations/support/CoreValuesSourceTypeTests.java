@@ -19,6 +19,8 @@
 
 package org.elasticsearch.search.aggregations.support;
 
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
 import org.apache.lucene.search.Query;
 import org.elasticsearch.common.Rounding;
 import org.elasticsearch.common.geo.ShapeRelation;
@@ -109,6 +111,28 @@ public class CoreValuesSourceTypeTests extends MapperServiceTestCase {
         });
     }
 
+    /**
+     * Range queries in a {@code FILTER} clause must not narrow the bounds of the rounding: a multi-valued document that
+     * matches the filter can still hold values outside of the range, and global aggregations ignore the query entirely.
+     */
+    public void testDatePrepareRoundingIgnoresFilterClauses() throws IOException {
+        long min = randomLongBetween(100000, 1000000); // The minimum has to be fairly large or we might accidentally think its a year....
+        long max = randomLongBetween(min + 10, 100000000000L);
+        long minDocs = min - randomLongBetween(1, 1000);
+        long maxDocs = max + randomLongBetween(1, 1000);
+        MapperService mapperService = dateMapperService();
+        Query rangeQuery = mapperService.fieldType("field")
+            .rangeQuery(min, max, true, true, ShapeRelation.CONTAINS, null, null, createQueryShardContext(mapperService));
+        Query query = new BooleanQuery.Builder().add(rangeQuery, BooleanClause.Occur.FILTER).build();
+        List<SourceToParse> docs = List.of(
+            source(b -> b.startArray("field").value(minDocs).value(min + 1).value(maxDocs).endArray())
+        );
+        withAggregationContext(null, mapperService, docs, query, context -> {
+            Rounding rounding = mock(Rounding.class);
+            CoreValuesSourceType.DATE.getField(context.buildFieldContext("field"), null, context).roundingPreparer().apply(rounding);
+            verify(rounding).prepare(minDocs, maxDocs);
+        });
+    }
 
     private MapperService dateMapperService() throws IOException {
         return createMapperService(fieldMapping(b -> b.field("type", "date")));
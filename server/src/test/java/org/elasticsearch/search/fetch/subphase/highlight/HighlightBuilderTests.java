@@ -236,6 +236,30 @@ public class HighlightBuilderTests extends ESTestCase {
         }
     }
 
+    public void testInvalidMaxAnalyzedOffset() throws IOException {
+        IllegalArgumentException e = expectThrows(IllegalArgumentException.class,
+            () -> new HighlightBuilder().maxAnalyzedOffset(randomIntBetween(-100, 0)));
+        assertEquals("[max_analyzed_offset] must be a positive integer", e.getMessage());
+
+        Settings indexSettings = Settings.builder()
+                .put(IndexMetadata.SETTING_VERSION_CREATED, Version.CURRENT)
+                .put(IndexSettings.MAX_ANALYZED_OFFSET_SETTING.getKey(), 100)
+                .build();
+        Index index = new Index(randomAlphaOfLengthBetween(1, 10), "_na_");
+        IndexSettings idxSettings = IndexSettingsModule.newIndexSettings(index, indexSettings);
+        QueryShardContext mockShardContext = new QueryShardContext(0, idxSettings, BigArrays.NON_RECYCLING_INSTANCE,
+                null, null, null, null, null, xContentRegistry(), namedWriteableRegistry,
+                null, null, System::currentTimeMillis, null, null, () -> true, null);
+        HighlightBuilder highlightBuilder = new HighlightBuilder().field("body").maxAnalyzedOffset(100);
+        assertEquals(Integer.valueOf(100), highlightBuilder.build(mockShardContext).fields().iterator().next()
+            .fieldOptions().maxAnalyzedOffset());
+
+        highlightBuilder.maxAnalyzedOffset(101);
+        e = expectThrows(IllegalArgumentException.class, () -> highlightBuilder.build(mockShardContext));
+        assertEquals("[max_analyzed_offset] must not be greater than the [index.highlight.max_analyzed_offset] index level " +
+            "setting [100]", e.getMessage());
+    }
+
     public void testStringInFieldsArray() throws IOException {
         XContentParseException e = expectParseThrows(XContentParseException.class, "{\"fields\" : [ \"junk\" ]}");
         assertThat(e.getMessage(), containsString("[highlight] failed to parse field [fields]"));
@@ -312,6 +336,7 @@ public class HighlightBuilderTests extends ESTestCase {
                 checkSame.accept(AbstractHighlighterBuilder::noMatchSize, FieldOptions::noMatchSize);
                 checkSame.accept(AbstractHighlighterBuilder::numOfFragments, FieldOptions::numberOfFragments);
                 checkSame.accept(AbstractHighlighterBuilder::phraseLimit, FieldOptions::phraseLimit);
+                checkSame.accept(AbstractHighlighterBuilder::maxAnalyzedOffset, FieldOptions::maxAnalyzedOffset);
                 checkSame.accept(AbstractHighlighterBuilder::highlighterType, FieldOptions::highlighterType);
                 checkSame.accept(AbstractHighlighterBuilder::highlightFilter, FieldOptions::highlightFilter);
                 checkSame.accept(AbstractHighlighterBuilder::preTags, FieldOptions::preTags);
@@ -594,6 +619,9 @@ public class HighlightBuilderTests extends ESTestCase {
         if (randomBoolean()) {
             highlightBuilder.phraseLimit(randomIntBetween(0, 10));
         }
+        if (randomBoolean()) {
+            highlightBuilder.maxAnalyzedOffset(randomIntBetween(1, 10));
+        }
         if (randomBoolean()) {
             int items = randomIntBetween(0, 5);
             Map<String, Object> options = new HashMap<>(items);
@@ -620,7 +648,7 @@ public class HighlightBuilderTests extends ESTestCase {
 
     @SuppressWarnings({ "unchecked", "rawtypes" })
     private static void mutateCommonOptions(AbstractHighlighterBuilder highlightBuilder) {
-        switch (randomIntBetween(1, 16)) {
+        switch (randomIntBetween(1, 17)) {
         case 1:
             highlightBuilder.preTags(randomStringArray(4, 6));
             break;
@@ -678,6 +706,9 @@ public class HighlightBuilderTests extends ESTestCase {
         case 16:
             highlightBuilder.requireFieldMatch(toggleOrSet(highlightBuilder.requireFieldMatch()));
             break;
+        case 17:
+            highlightBuilder.maxAnalyzedOffset(randomIntBetween(11, 20));
+            break;
         }
     }
 
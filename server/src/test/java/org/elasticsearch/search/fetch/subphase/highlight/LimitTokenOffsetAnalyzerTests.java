@@ -0,0 +1,35 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.elasticsearch.search.fetch.subphase.highlight;
+
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.MockAnalyzer;
+import org.elasticsearch.test.ESTokenStreamTestCase;
+
+public class LimitTokenOffsetAnalyzerTests extends ESTokenStreamTestCase {
+
+    public void testStopsAtMaxOffset() throws Exception {
+        MockAnalyzer delegate = new MockAnalyzer(random());
+        // the remaining tokens are not consumed
+        delegate.setEnableChecks(false);
+        Analyzer analyzer = new LimitTokenOffsetAnalyzer(delegate, 10);
+        assertAnalyzesTo(analyzer, "foo bar baz qux quux", new String[] { "foo", "bar", "baz" });
+        assertAnalyzesTo(analyzer, "foo bar", new String[] { "foo", "bar" });
+    }
+}
@@ -24,6 +24,7 @@ import org.apache.lucene.codecs.StoredFieldsReader;
 import org.apache.lucene.document.Document;
 import org.apache.lucene.document.Field;
 import org.apache.lucene.document.IntPoint;
+import org.apache.lucene.document.LongPoint;
 import org.apache.lucene.document.StringField;
 import org.apache.lucene.index.DirectoryReader;
 import org.apache.lucene.index.FilterDirectoryReader;
@@ -36,8 +37,11 @@ import org.apache.lucene.index.NoMergePolicy;
 import org.apache.lucene.index.PostingsEnum;
 import org.apache.lucene.index.Term;
 import org.apache.lucene.index.TermsEnum;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
 import org.apache.lucene.search.BoostQuery;
 import org.apache.lucene.search.BulkScorer;
+import org.apache.lucene.search.Collector;
 import org.apache.lucene.search.ConstantScoreQuery;
 import org.apache.lucene.search.DocIdSetIterator;
 import org.apache.lucene.search.Explanation;
@@ -277,6 +281,46 @@ public class ContextIndexSearcherTests extends ESTestCase {
         IOUtils.close(reader, w, dir);
     }
 
+    public void testSkipSegmentsOutsideOfRequiredPointRanges() throws IOException {
+        try (Directory dir = newDirectory();
+             IndexWriter w = new IndexWriter(dir, new IndexWriterConfig().setMergePolicy(NoMergePolicy.INSTANCE))) {
+            for (int segment = 0; segment < 3; segment++) {
+                for (int i = 0; i < 10; i++) {
+                    Document doc = new Document();
+                    doc.add(new LongPoint("timestamp", segment * 10 + i));
+                    w.addDocument(doc);
+                }
+                w.flush();
+            }
+            // a segment without values for the field
+            w.addDocument(new Document());
+            w.flush();
+            try (DirectoryReader reader = DirectoryReader.open(w)) {
+                assertEquals(4, reader.leaves().size());
+                ContextIndexSearcher searcher = new ContextIndexSearcher(reader, IndexSearcher.getDefaultSimilarity(),
+                    IndexSearcher.getDefaultQueryCache(), IndexSearcher.getDefaultQueryCachingPolicy(), randomBoolean());
+                Query range = LongPoint.newRangeQuery("timestamp", 12, 15);
+
+                LeafCountingCollector collector = new LeafCountingCollector();
+                searcher.search(new BooleanQuery.Builder()
+                    .add(new MatchAllDocsQuery(), BooleanClause.Occur.MUST)
+                    .add(range, BooleanClause.Occur.FILTER)
+                    .build(), collector);
+                assertEquals(1, collector.leaves);
+                assertEquals(4, collector.hits);
+
+                // ranges that are not required can't be used to skip segments
+                collector = new LeafCountingCollector();
+                searcher.search(new BooleanQuery.Builder()
+                    .add(new MatchAllDocsQuery(), BooleanClause.Occur.SHOULD)
+                    .add(range, BooleanClause.Occur.SHOULD)
+                    .build(), collector);
+                assertEquals(4, collector.leaves);
+                assertEquals(31, collector.hits);
+            }
+        }
+    }
+
     private SparseFixedBitSet query(LeafReaderContext leaf, String field, String value) throws IOException {
         SparseFixedBitSet sparseFixedBitSet = new SparseFixedBitSet(leaf.reader().maxDoc());
         TermsEnum tenum = leaf.reader().terms(field).iterator();
@@ -287,6 +331,31 @@ public class ContextIndexSearcherTests extends ESTestCase {
         return sparseFixedBitSet;
     }
 
+    private static class LeafCountingCollector implements Collector {
+
+        int leaves;
+        int hits;
+
+        @Override
+        public LeafCollector getLeafCollector(LeafReaderContext context) {
+            leaves++;
+            return new LeafCollector() {
+                @Override
+                public void setScorer(Scorable scorer) {}
+
+                @Override
+                public void collect(int doc) {
+                    hits++;
+                }
+            };
+        }
+
+        @Override
+        public ScoreMode scoreMode() {
+            return ScoreMode.COMPLETE_NO_SCORES;
+        }
+    }
+
     private static class DocumentSubsetDirectoryReader extends FilterDirectoryReader {
         private final BitsetFilterCache bitsetFilterCache;
         private final Query roleQuery;
@@ -21,6 +21,7 @@ package org.elasticsearch.search.profile.query;
 
 import org.apache.lucene.document.Document;
 import org.apache.lucene.document.Field.Store;
+import org.apache.lucene.document.LongPoint;
 import org.apache.lucene.document.StringField;
 import org.apache.lucene.index.DirectoryReader;
 import org.apache.lucene.index.IndexReader;
@@ -103,6 +104,17 @@ public class QueryProfilerTests extends ESTestCase {
         searcher = null;
     }
 
+    public void testSegmentsSkipped() throws IOException {
+        QueryProfiler profiler = new QueryProfiler();
+        searcher.setProfiler(profiler);
+        // no document has points for this field, so no segment can match
+        Query query = LongPoint.newRangeQuery("timestamp", 0, 10);
+        searcher.search(query, 1);
+        List<ProfileResult> results = profiler.getTree();
+        assertEquals(1, results.size());
+        assertEquals(Map.of("segments_skipped", reader.leaves().size()), results.get(0).getDebugInfo());
+    }
+
     public void testBasic() throws IOException {
         QueryProfiler profiler = new QueryProfiler();
         searcher.setProfiler(profiler);
@@ -27,8 +27,14 @@ import org.apache.lucene.index.DirectoryReader;
 import org.apache.lucene.index.IndexWriter;
 import org.apache.lucene.index.LeafReaderContext;
 import org.apache.lucene.search.Explanation;
+import org.apache.lucene.search.FilterScorer;
+import org.apache.lucene.search.FilterWeight;
 import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.MatchAllDocsQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.QueryVisitor;
 import org.apache.lucene.search.ScoreMode;
+import org.apache.lucene.search.Scorer;
 import org.apache.lucene.search.Weight;
 import org.apache.lucene.store.Directory;
 import org.elasticsearch.Version;
@@ -43,6 +49,7 @@ import org.junit.After;
 import org.junit.Before;
 
 import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 
 import static org.hamcrest.CoreMatchers.containsString;
@@ -139,6 +146,34 @@ public class ScriptScoreQueryTests extends ESTestCase {
         assertTrue(e.getMessage().contains("Must be a non-negative score!"));
     }
 
+    public void testSubQueryIsScoredOncePerDocument() throws IOException {
+        Script script = new Script("script reading the score twice");
+        SearchLookup lookup = mock(SearchLookup.class);
+        when(lookup.getLeafSearchLookup(any())).thenReturn(mock(LeafSearchLookup.class));
+        ScoreScript.LeafFactory factory = new ScoreScript.LeafFactory() {
+            @Override
+            public boolean needs_score() {
+                return true;
+            }
+
+            @Override
+            public ScoreScript newInstance(LeafReaderContext ctx) throws IOException {
+                return new ScoreScript(script.getParams(), lookup, ctx) {
+                    @Override
+                    public double execute(ExplanationHolder explanation) {
+                        return get_score() + get_score();
+                    }
+                };
+            }
+        };
+
+        AtomicInteger subQueryScores = new AtomicInteger();
+        ScriptScoreQuery query = new ScriptScoreQuery(new ScoreCountingQuery(subQueryScores), script, factory,
+            null, "index", 0, Version.CURRENT);
+        assertEquals(1, searcher.search(query, 1).totalHits.value);
+        assertEquals(1, subQueryScores.get());
+    }
+
     private ScoreScript.LeafFactory newFactory(Script script, boolean needsScore,
                                                Function<ScoreScript.ExplanationHolder, Double> function) {
         SearchLookup lookup = mock(SearchLookup.class);
@@ -161,4 +196,56 @@ public class ScriptScoreQueryTests extends ESTestCase {
             }
         };
     }
+
+    /**
+     * Matches all documents and counts how many times their score is computed.
+     */
+    private static class ScoreCountingQuery extends Query {
+        private final AtomicInteger scores;
+
+        ScoreCountingQuery(AtomicInteger scores) {
+            this.scores = scores;
+        }
+
+        @Override
+        public Weight createWeight(IndexSearcher searcher, ScoreMode scoreMode, float boost) throws IOException {
+            return new FilterWeight(new MatchAllDocsQuery().createWeight(searcher, scoreMode, boost)) {
+                @Override
+                public Scorer scorer(LeafReaderContext context) throws IOException {
+                    return new FilterScorer(in.scorer(context)) {
+                        @Override
+                        public float score() throws IOException {
+                            scores.incrementAndGet();
+                            return in.score();
+                        }
+
+                        @Override
+                        public float getMaxScore(int upTo) throws IOException {
+                            return in.getMaxScore(upTo);
+                        }
+                    };
+                }
+            };
+        }
+
+        @Override
+        public void visit(QueryVisitor visitor) {
+            visitor.visitLeaf(this);
+        }
+
+        @Override
+        public String toString(String field) {
+            return "ScoreCountingQuery";
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return this == obj;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(this);
+        }
+    }
 }
@@ -20,6 +20,7 @@ import org.elasticsearch.action.search.SearchShard;
 import org.elasticsearch.action.search.SearchTask;
 import org.elasticsearch.action.search.ShardSearchFailure;
 import org.elasticsearch.client.Client;
+import org.elasticsearch.common.io.stream.NamedWriteableRegistry;
 import org.elasticsearch.common.unit.TimeValue;
 import org.elasticsearch.search.SearchShardTarget;
 import org.elasticsearch.search.aggregations.InternalAggregation;
@@ -52,6 +53,7 @@ final class AsyncSearchTask extends SearchTask implements AsyncTask {
     private final Client client;
     private final ThreadPool threadPool;
     private final Supplier<InternalAggregation.ReduceContext> aggReduceContextSupplier;
+    private final NamedWriteableRegistry namedWriteableRegistry;
     private final Listener progressListener;
 
     private final Map<String, String> originHeaders;
@@ -79,6 +81,7 @@ final class AsyncSearchTask extends SearchTask implements AsyncTask {
      * @param searchId The {@link AsyncExecutionId} of the task.
      * @param threadPool The threadPool to schedule runnable.
      * @param aggReduceContextSupplier A supplier to create final reduce contexts.
+     * @param namedWriteableRegistry The registry to read the reduced aggregations kept in serialized form.
      */
     AsyncSearchTask(long id,
                     String type,
@@ -91,7 +94,8 @@ final class AsyncSearchTask extends SearchTask implements AsyncTask {
                     AsyncExecutionId searchId,
                     Client client,
                     ThreadPool threadPool,
-                    Supplier<InternalAggregation.ReduceContext> aggReduceContextSupplier) {
+                    Supplier<InternalAggregation.ReduceContext> aggReduceContextSupplier,
+                    NamedWriteableRegistry namedWriteableRegistry) {
         super(id, type, action, () -> "async_search{" + descriptionSupplier.get() + "}", parentTaskId, taskHeaders);
         this.expirationTimeMillis = getStartTime() + keepAlive.getMillis();
         this.originHeaders = originHeaders;
@@ -99,6 +103,7 @@ final class AsyncSearchTask extends SearchTask implements AsyncTask {
         this.client = client;
         this.threadPool = threadPool;
         this.aggReduceContextSupplier = aggReduceContextSupplier;
+        this.namedWriteableRegistry = namedWriteableRegistry;
         this.progressListener = new Listener();
         setProgressListener(progressListener);
     }
@@ -394,7 +399,8 @@ final class AsyncSearchTask extends SearchTask implements AsyncTask {
             // best effort to cancel expired tasks
             checkCancellation();
             searchResponse.compareAndSet(null,
-                new MutableSearchResponse(shards.size() + skipped.size(), skipped.size(), clusters, threadPool.getThreadContext()));
+                new MutableSearchResponse(shards.size() + skipped.size(), skipped.size(), clusters, threadPool.getThreadContext(),
+                    namedWriteableRegistry));
             executeInitListeners();
         }
 
@@ -439,7 +445,8 @@ final class AsyncSearchTask extends SearchTask implements AsyncTask {
         @Override
         public void onFailure(Exception exc) {
             // if the failure occurred before calling onListShards
-            searchResponse.compareAndSet(null, new MutableSearchResponse(-1, -1, null, threadPool.getThreadContext()));
+            searchResponse.compareAndSet(null, new MutableSearchResponse(-1, -1, null, threadPool.getThreadContext(),
+                namedWriteableRegistry));
             searchResponse.get().updateWithFailure(new ElasticsearchStatusException("error while executing search",
                 ExceptionsHelper.status(exc), exc));
             executeInitListeners();
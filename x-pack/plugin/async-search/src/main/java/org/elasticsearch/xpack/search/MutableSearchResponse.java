@@ -11,6 +11,8 @@ import org.elasticsearch.ExceptionsHelper;
 import org.elasticsearch.action.search.SearchResponse;
 import org.elasticsearch.action.search.SearchResponse.Clusters;
 import org.elasticsearch.action.search.ShardSearchFailure;
+import org.elasticsearch.common.io.stream.DelayableWriteable;
+import org.elasticsearch.common.io.stream.NamedWriteableRegistry;
 import org.elasticsearch.common.unit.TimeValue;
 import org.elasticsearch.common.util.concurrent.AtomicArray;
 import org.elasticsearch.common.util.concurrent.ThreadContext;
@@ -40,6 +42,7 @@ class MutableSearchResponse {
     private final Clusters clusters;
     private final AtomicArray<ShardSearchFailure> queryFailures;
     private final ThreadContext threadContext;
+    private final NamedWriteableRegistry namedWriteableRegistry;
 
     private boolean isPartial;
     private int successfulShards;
@@ -50,6 +53,11 @@ class MutableSearchResponse {
      * this as we receive updates on the search progress listener.
      */
     private Supplier<InternalAggregations> reducedAggsSource = () -> null;
+    /**
+     * Whether {@link #reducedAggsSource} already reads the reduced aggs back
+     * from their serialized form, so we don't serialize them again on every poll.
+     */
+    private boolean reducedAggsSerialized = true;
     private int reducePhase;
     /**
      * The response produced by the search API. Once we receive it we stop
@@ -69,17 +77,20 @@ class MutableSearchResponse {
      * @param skippedShards The number of skipped shards, or -1 to indicate a failure.
      * @param clusters The remote clusters statistics.
      * @param threadContext The thread context to retrieve the final response headers.
+     * @param namedWriteableRegistry The registry to read the reduced aggregations kept in serialized form.
      */
     MutableSearchResponse(int totalShards,
                           int skippedShards,
                           Clusters clusters,
-                          ThreadContext threadContext) {
+                          ThreadContext threadContext,
+                          NamedWriteableRegistry namedWriteableRegistry) {
         this.totalShards = totalShards;
         this.skippedShards = skippedShards;
         this.clusters = clusters;
         this.queryFailures = totalShards == -1 ? null : new AtomicArray<>(totalShards-skippedShards);
         this.isPartial = true;
         this.threadContext = threadContext;
+        this.namedWriteableRegistry = namedWriteableRegistry;
         this.totalHits = EMPTY_TOTAL_HITS;
     }
 
@@ -100,6 +111,7 @@ class MutableSearchResponse {
         this.successfulShards = successfulShards + skippedShards;
         this.totalHits = totalHits;
         this.reducedAggsSource = reducedAggs;
+        this.reducedAggsSerialized = false;
         this.reducePhase = reducePhase;
     }
 
@@ -176,11 +188,14 @@ class MutableSearchResponse {
              * Build the response, reducing aggs if we haven't already and
              * storing the result of the reduction so we won't have to reduce
              * the same aggregation results a second time if nothing has changed.
-             * This does cost memory because we have a reference to the finally
-             * reduced aggs sitting around which can't be GCed until we get an update.
+             * The result is kept in serialized form until we get an update, which
+             * is much more compact than the object graph of the reduced aggs.
              */
             InternalAggregations reducedAggs = reducedAggsSource.get();
-            reducedAggsSource = () -> reducedAggs;
+            if (reducedAggsSerialized == false) {
+                reducedAggsSource = serialize(reducedAggs);
+                reducedAggsSerialized = true;
+            }
             searchResponse = buildResponse(task.getStartTimeNanos(), reducedAggs);
         }
         return new AsyncSearchResponse(task.getExecutionId().getEncoded(), searchResponse,
@@ -249,6 +264,15 @@ class MutableSearchResponse {
             reduceException, isPartial, frozen == false, task.getStartTime(), expirationTime);
     }
 
+    private Supplier<InternalAggregations> serialize(InternalAggregations reducedAggs) {
+        if (reducedAggs == null) {
+            return () -> null;
+        }
+        DelayableWriteable.Serialized<InternalAggregations> serialized = DelayableWriteable.referencing(reducedAggs)
+            .asSerialized(InternalAggregations::readFrom, namedWriteableRegistry);
+        return serialized::expand;
+    }
+
     private void failIfFrozen() {
         if (frozen) {
             throw new IllegalStateException("invalid update received after the completion of the request");
@@ -16,11 +16,14 @@ import org.elasticsearch.action.search.SearchShard;
 import org.elasticsearch.action.search.ShardSearchFailure;
 import org.elasticsearch.common.breaker.CircuitBreaker;
 import org.elasticsearch.common.breaker.CircuitBreakingException;
+import org.elasticsearch.common.io.stream.NamedWriteableRegistry;
+import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.common.unit.TimeValue;
 import org.elasticsearch.index.query.QueryBuilders;
 import org.elasticsearch.index.shard.ShardId;
 import org.elasticsearch.search.DocValueFormat;
 import org.elasticsearch.search.SearchHits;
+import org.elasticsearch.search.SearchModule;
 import org.elasticsearch.search.SearchShardTarget;
 import org.elasticsearch.search.aggregations.BucketOrder;
 import org.elasticsearch.search.aggregations.InternalAggregations;
@@ -43,6 +46,7 @@ import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 
 import static org.hamcrest.Matchers.equalTo;
@@ -70,10 +74,15 @@ public class AsyncSearchTaskTests extends ESTestCase {
         threadPool.shutdownNow();
     }
 
+    @Override
+    protected NamedWriteableRegistry writableRegistry() {
+        return new NamedWriteableRegistry(new SearchModule(Settings.EMPTY, Collections.emptyList()).getNamedWriteables());
+    }
+
     private AsyncSearchTask createAsyncSearchTask() {
         return new AsyncSearchTask(0L, "", "", new TaskId("node1", 0), () -> null, TimeValue.timeValueHours(1),
             Collections.emptyMap(), Collections.emptyMap(), new AsyncExecutionId("0", new TaskId("node1", 1)),
-            new NoOpClient(threadPool), threadPool, null);
+            new NoOpClient(threadPool), threadPool, null, writableRegistry());
     }
 
     public void testTaskDescription() {
@@ -81,7 +90,7 @@ public class AsyncSearchTaskTests extends ESTestCase {
             new SearchSourceBuilder().query(QueryBuilders.termQuery("field", "value")));
         AsyncSearchTask asyncSearchTask = new AsyncSearchTask(0L, "", "", new TaskId("node1", 0), searchRequest::buildDescription,
             TimeValue.timeValueHours(1), Collections.emptyMap(), Collections.emptyMap(), new AsyncExecutionId("0", new TaskId("node1", 1)),
-            new NoOpClient(threadPool), threadPool, null);
+            new NoOpClient(threadPool), threadPool, null, writableRegistry());
         assertEquals("async_search{indices[index1,index2], search_type[QUERY_THEN_FETCH], " +
             "source[{\"query\":{\"term\":{\"field\":{\"value\":\"value\",\"boost\":1.0}}}}]}", asyncSearchTask.getDescription());
     }
@@ -89,7 +98,7 @@ public class AsyncSearchTaskTests extends ESTestCase {
     public void testWaitForInit() throws InterruptedException {
         AsyncSearchTask task = new AsyncSearchTask(0L, "", "", new TaskId("node1", 0), () -> null, TimeValue.timeValueHours(1),
             Collections.emptyMap(), Collections.emptyMap(), new AsyncExecutionId("0", new TaskId("node1", 1)),
-            new NoOpClient(threadPool), threadPool, null);
+            new NoOpClient(threadPool), threadPool, null, writableRegistry());
         int numShards = randomIntBetween(0, 10);
         List<SearchShard> shards = new ArrayList<>();
         for (int i = 0; i < numShards; i++) {
@@ -191,6 +200,38 @@ public class AsyncSearchTaskTests extends ESTestCase {
         assertEquals("boom", failure.getSuppressed()[0].getCause().getMessage());
     }
 
+    public void testReducedAggsAreReusedAcrossResponses() {
+        AsyncSearchTask task = createAsyncSearchTask();
+        MutableSearchResponse mutableResponse = new MutableSearchResponse(1, 0, SearchResponse.Clusters.EMPTY,
+            threadPool.getThreadContext(), writableRegistry());
+        InternalAggregations aggs = InternalAggregations.from(Collections.singletonList(new StringTerms("name", BucketOrder.key(true),
+            BucketOrder.key(true), 1, 1, Collections.emptyMap(), DocValueFormat.RAW, 1, false, 1, Collections.emptyList(), 0)));
+        AtomicInteger numReduces = new AtomicInteger();
+        mutableResponse.updatePartialResponse(1, new TotalHits(0, TotalHits.Relation.EQUAL_TO), () -> {
+            numReduces.incrementAndGet();
+            return aggs;
+        }, 1);
+
+        AsyncSearchResponse first = mutableResponse.toAsyncSearchResponse(task, Long.MAX_VALUE, false);
+        AsyncSearchResponse second = mutableResponse.toAsyncSearchResponse(task, Long.MAX_VALUE, false);
+        assertEquals(1, numReduces.get());
+        assertSame(aggs, first.getSearchResponse().getAggregations());
+        // the reduced aggs are kept in serialized form between two responses
+        assertNotSame(aggs, second.getSearchResponse().getAggregations());
+        assertEquals(aggs.asList(), second.getSearchResponse().getAggregations().asList());
+        // and are not serialized again when nothing changed
+        AsyncSearchResponse third = mutableResponse.toAsyncSearchResponse(task, Long.MAX_VALUE, false);
+        assertEquals(1, numReduces.get());
+        assertEquals(aggs.asList(), third.getSearchResponse().getAggregations().asList());
+
+        mutableResponse.updatePartialResponse(1, new TotalHits(0, TotalHits.Relation.EQUAL_TO), () -> {
+            numReduces.incrementAndGet();
+            return aggs;
+        }, 2);
+        mutableResponse.toAsyncSearchResponse(task, Long.MAX_VALUE, false);
+        assertEquals(2, numReduces.get());
+    }
+
     public void testWaitForCompletion() throws InterruptedException {
         AsyncSearchTask task = createAsyncSearchTask();
         int numShards = randomIntBetween(0, 10);
@@ -151,7 +151,15 @@ public class TransportBulkShardOperationsAction
 
         final List<Translog.Operation> appliedOperations = new ArrayList<>(sourceOperations.size());
         Translog.Location location = null;
+        // Operations at or below the global checkpoint were processed on every copy already, the engine would reject them and they
+        // would not be replicated. This is common when a read or write request is retried, so skip them before going to the engine.
+        final long globalCheckpoint = primary.getLastKnownGlobalCheckpoint();
         for (Translog.Operation sourceOp : sourceOperations) {
+            if (sourceOp.seqNo() <= globalCheckpoint) {
+                assert sourceOp.seqNo() <= primary.getLocalCheckpoint() :
+                    "operation [" + sourceOp + "] is below the global checkpoint [" + globalCheckpoint + "] but was not processed";
+                continue;
+            }
             final Translog.Operation targetOp = rewriteOperationWithPrimaryTerm(sourceOp, primary.getOperationPrimaryTerm());
             final Engine.Result result = primary.applyTranslogOperation(targetOp, Engine.Operation.Origin.PRIMARY);
             if (result.getResultType() == Engine.Result.Type.SUCCESS) {
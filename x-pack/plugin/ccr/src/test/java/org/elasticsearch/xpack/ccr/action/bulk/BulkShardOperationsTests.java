@@ -86,6 +86,34 @@ public class BulkShardOperationsTests extends IndexShardTestCase {
         closeShards(followerPrimary);
     }
 
+    public void testOperationsBelowGlobalCheckpointAreSkipped() throws IOException {
+        final Settings settings = Settings.builder().put(CcrSettings.CCR_FOLLOWING_INDEX_SETTING.getKey(), true).build();
+        final IndexShard followerPrimary = newStartedShard(true, settings, new FollowingEngineFactory());
+
+        final int numOps = randomIntBetween(1, 64);
+        final List<Translog.Operation> operations = new ArrayList<>(numOps);
+        for (int i = 0; i < numOps; i++) {
+            operations.add(new Translog.Index(Integer.toString(i), i, primaryTerm, 0, SOURCE, null, -1));
+        }
+        followerPrimary.advanceMaxSeqNoOfUpdatesOrDeletes(numOps - 1);
+        TransportBulkShardOperationsAction.shardOperationOnPrimary(followerPrimary.shardId(), followerPrimary.getHistoryUUID(),
+            operations, numOps - 1, followerPrimary, logger);
+        followerPrimary.updateLocalCheckpointForShard(followerPrimary.routingEntry().allocationId().getId(),
+            followerPrimary.getLocalCheckpoint());
+        final long globalCheckpoint = followerPrimary.getLastKnownGlobalCheckpoint();
+        assertThat(globalCheckpoint, equalTo((long) numOps - 1));
+        final long indexFailedCount = followerPrimary.indexingStats().getTotal().getIndexFailedCount();
+
+        // a retried request with operations that are all below the global checkpoint never reaches the engine
+        final TransportWriteAction.WritePrimaryResult<BulkShardOperationsRequest, BulkShardOperationsResponse> result =
+            TransportBulkShardOperationsAction.shardOperationOnPrimary(followerPrimary.shardId(), followerPrimary.getHistoryUUID(),
+                randomSubsetOf(operations), numOps - 1, followerPrimary, logger);
+        assertThat(result.replicaRequest().getOperations().size(), equalTo(0));
+        assertThat(followerPrimary.indexingStats().getTotal().getIndexFailedCount(), equalTo(indexFailedCount));
+
+        closeShards(followerPrimary);
+    }
+
     public void testPrimaryResultIncludeOnlyAppliedOperations() throws Exception {
         final Settings settings = Settings.builder().put(CcrSettings.CCR_FOLLOWING_INDEX_SETTING.getKey(), true).build();
         final IndexShard oldPrimary = newStartedShard(true, settings, new FollowingEngineFactory());
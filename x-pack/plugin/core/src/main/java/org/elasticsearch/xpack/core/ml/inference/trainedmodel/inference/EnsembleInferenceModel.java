@@ -141,6 +141,11 @@ public class EnsembleInferenceModel implements InferenceModel {
         int i = 0;
         NullInferenceConfig subModelInferenceConfig = new NullInferenceConfig(config.requestingImportance());
         for (InferenceModel model : models) {
+            if (config.requestingImportance() == false && model instanceof TreeInferenceModel) {
+                // skip building an intermediate result per tree, this is the hot path for large ensembles
+                inferenceResults[i++] = ((TreeInferenceModel) model).getLeaf(features);
+                continue;
+            }
             InferenceResults result = model.infer(features, subModelInferenceConfig);
             assert result instanceof RawInferenceResults;
             RawInferenceResults inferenceResult = (RawInferenceResults) result;
@@ -38,6 +38,7 @@ import java.util.Map;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
+import static org.apache.lucene.util.RamUsageEstimator.shallowSizeOf;
 import static org.apache.lucene.util.RamUsageEstimator.shallowSizeOfInstance;
 import static org.apache.lucene.util.RamUsageEstimator.sizeOf;
 import static org.apache.lucene.util.RamUsageEstimator.sizeOfCollection;
@@ -92,6 +93,14 @@ public class TreeInferenceModel implements InferenceModel {
     private final int maxDepth;
     private final int leafSize;
     private volatile boolean preparedForInference = false;
+    // Flattened copy of the nodes used when walking the tree for inference, built once the feature indices are rewritten
+    private int[] leftChildren;
+    private int[] rightChildren;
+    private int[] splitFeatures;
+    private double[] thresholds;
+    private Operator[] operators;
+    private boolean[] defaultLefts;
+    private double[][] leafValues;
 
     TreeInferenceModel(List<String> featureNames,
                        List<NodeBuilder> nodes,
@@ -213,12 +222,22 @@ public class TreeInferenceModel implements InferenceModel {
         return list;
     }
 
-    private double[] getLeaf(double[] features) {
-        Node node = nodes[0];
-        while(node.isLeaf() == false) {
-            node = nodes[node.compare(features)];
+    /**
+     * Returns the value of the leaf that the provided features lead to. The returned array is shared and must not be modified.
+     */
+    double[] getLeaf(double[] features) {
+        assert preparedForInference;
+        int node = 0;
+        int leftChild;
+        while ((leftChild = leftChildren[node]) >= 0) {
+            double feature = features[splitFeatures[node]];
+            if (InnerNode.isMissing(feature)) {
+                node = defaultLefts[node] ? leftChild : rightChildren[node];
+            } else {
+                node = operators[node].test(feature, thresholds[node]) ? leftChild : rightChildren[node];
+            }
         }
-        return ((LeafNode)node).leafValue;
+        return leafValues[node];
     }
 
     public double[][] featureImportance(double[] fieldValues) {
@@ -305,24 +324,63 @@ public class TreeInferenceModel implements InferenceModel {
         if (preparedForInference) {
             return;
         }
-        preparedForInference = true;
-        if (newFeatureIndexMapping == null || newFeatureIndexMapping.isEmpty()) {
-            return;
+        if (newFeatureIndexMapping != null && newFeatureIndexMapping.isEmpty() == false) {
+            // resolve all the new indices before changing any node, so that a failure leaves the model untouched
+            int[] newSplitFeatures = new int[nodes.length];
+            for (int i = 0; i < nodes.length; i++) {
+                if (nodes[i].isLeaf()) {
+                    continue;
+                }
+                Integer newSplitFeatureIndex = newFeatureIndexMapping.get(featureNames[((InnerNode)nodes[i]).splitFeature]);
+                if (newSplitFeatureIndex == null) {
+                    throw new IllegalArgumentException("[tree] failed to optimize for inference");
+                }
+                newSplitFeatures[i] = newSplitFeatureIndex;
+            }
+            for (int i = 0; i < nodes.length; i++) {
+                if (nodes[i].isLeaf() == false) {
+                    ((InnerNode)nodes[i]).splitFeature = newSplitFeatures[i];
+                }
+            }
+            this.featureNames = new String[0];
+            // Since we are not top level, we no longer need local classification labels
+            this.classificationLabels = null;
         }
-        for (Node node : nodes) {
+        flattenNodes();
+        // published last, so that a thread that sees the flag also sees the flattened nodes
+        preparedForInference = true;
+    }
+
+    /**
+     * Copies the nodes into parallel arrays indexed by node, so that walking the tree for inference reads a handful of primitive
+     * arrays rather than dereferencing and dispatching on a node object per level.
+     */
+    private void flattenNodes() {
+        int numNodes = nodes.length;
+        leftChildren = new int[numNodes];
+        rightChildren = new int[numNodes];
+        splitFeatures = new int[numNodes];
+        thresholds = new double[numNodes];
+        operators = new Operator[numNodes];
+        defaultLefts = new boolean[numNodes];
+        leafValues = new double[numNodes][];
+        for (int i = 0; i < numNodes; i++) {
+            Node node = nodes[i];
             if (node.isLeaf()) {
-                continue;
+                leftChildren[i] = -1;
+                rightChildren[i] = -1;
+                splitFeatures[i] = -1;
+                leafValues[i] = ((LeafNode) node).leafValue;
+            } else {
+                InnerNode innerNode = (InnerNode) node;
+                leftChildren[i] = innerNode.leftChild;
+                rightChildren[i] = innerNode.rightChild;
+                splitFeatures[i] = innerNode.splitFeature;
+                thresholds[i] = innerNode.threshold;
+                operators[i] = innerNode.operator;
+                defaultLefts[i] = innerNode.defaultLeft;
             }
-            InnerNode treeNode = (InnerNode)node;
-            Integer newSplitFeatureIndex = newFeatureIndexMapping.get(featureNames[treeNode.splitFeature]);
-            if (newSplitFeatureIndex == null) {
-                throw new IllegalArgumentException("[tree] failed to optimize for inference");
-            }
-            treeNode.splitFeature = newSplitFeatureIndex;
         }
-        this.featureNames = new String[0];
-        // Since we are not top level, we no longer need local classification labels
-        this.classificationLabels = null;
     }
 
     @Override
@@ -331,6 +389,11 @@ public class TreeInferenceModel implements InferenceModel {
         size += sizeOfCollection(classificationLabels);
         size += sizeOf(featureNames);
         size += sizeOf(nodes);
+        if (leftChildren != null) {
+            size += sizeOf(leftChildren) + sizeOf(rightChildren) + sizeOf(splitFeatures) + sizeOf(thresholds) + sizeOf(defaultLefts);
+            // the operators are shared constants and the leaf values are shared with the leaf nodes
+            size += shallowSizeOf(operators) + shallowSizeOf(leafValues);
+        }
         return size;
     }
 
@@ -12,6 +12,10 @@ import org.apache.lucene.index.IndexReader;
 import org.apache.lucene.index.IndexReaderContext;
 import org.apache.lucene.index.LeafReaderContext;
 import org.apache.lucene.index.ReaderUtil;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.ConstantScoreQuery;
 import org.apache.lucene.search.IndexSearcher;
 import org.apache.lucene.search.Query;
 import org.apache.lucene.search.ScoreMode;
@@ -35,6 +39,7 @@ import org.elasticsearch.common.util.set.Sets;
 import org.elasticsearch.threadpool.ThreadPool;
 
 import java.io.Closeable;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -44,6 +49,7 @@ import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 /**
@@ -71,6 +77,10 @@ import java.util.concurrent.locks.ReentrantReadWriteLock;
  * BitSets that are not longer needed, so we set the TTL on this cache to be 2 hours ({@link #CACHE_TTL_SETTING}). This time has been
  * chosen so that it will retain BitSets that are in active use during a user's session, but not be an ongoing drain on memory.
  *
+ * Role queries are normalized before they are used as a cache key (see {@link #canonicalQuery(Query)}), so that queries that only
+ * differ by wrappers which cannot change the set of matching documents (scoring wrappers, single clause boolean queries, repeated
+ * clauses) share a single BitSet.
+ *
  * @see org.elasticsearch.index.cache.bitset.BitsetFilterCache
  */
 public final class DocumentSubsetBitsetCache implements IndexReader.ClosedListener, Closeable, Accountable {
@@ -108,6 +118,9 @@ public final class DocumentSubsetBitsetCache implements IndexReader.ClosedListen
     private final Cache<BitsetCacheKey, BitSet> bitsetCache;
     private final Map<IndexReader.CacheKey, Set<BitsetCacheKey>> keysByIndex;
     private final AtomicLong cacheFullWarningTime;
+    private final LongAdder lookups = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder missTimeInNanos = new LongAdder();
 
     public DocumentSubsetBitsetCache(Settings settings, ThreadPool threadPool) {
         this(settings, threadPool.executor(ThreadPool.Names.GENERIC));
@@ -215,10 +228,14 @@ public final class DocumentSubsetBitsetCache implements IndexReader.ClosedListen
         }
         coreCacheHelper.addClosedListener(this);
         final IndexReader.CacheKey indexKey = coreCacheHelper.getKey();
-        final BitsetCacheKey cacheKey = new BitsetCacheKey(indexKey, query);
+        final Query canonicalQuery = canonicalQuery(query);
+        final BitsetCacheKey cacheKey = new BitsetCacheKey(indexKey, canonicalQuery);
 
+        lookups.increment();
         try (ReleasableLock ignored = cacheModificationLock.acquire()) {
             final BitSet bitSet = bitsetCache.computeIfAbsent(cacheKey, ignore1 -> {
+                final long startTimeInNanos = System.nanoTime();
+                misses.increment();
                 // This ensures all insertions into the set are guarded by ConcurrentHashMap's atomicity guarantees.
                 keysByIndex.compute(indexKey, (ignore2, set) -> {
                     if (set == null) {
@@ -230,13 +247,15 @@ public final class DocumentSubsetBitsetCache implements IndexReader.ClosedListen
                 final IndexReaderContext topLevelContext = ReaderUtil.getTopLevelContext(context);
                 final IndexSearcher searcher = new IndexSearcher(topLevelContext);
                 searcher.setQueryCache(null);
-                final Weight weight = searcher.createWeight(searcher.rewrite(query), ScoreMode.COMPLETE_NO_SCORES, 1f);
+                final Weight weight = searcher.createWeight(searcher.rewrite(canonicalQuery), ScoreMode.COMPLETE_NO_SCORES, 1f);
                 Scorer s = weight.scorer(context);
                 if (s == null) {
+                    missTimeInNanos.add(System.nanoTime() - startTimeInNanos);
                     // A cache loader is not allowed to return null, return a marker object instead.
                     return NULL_MARKER;
                 } else {
                     final BitSet bs = BitSet.of(s.iterator(), context.reader().maxDoc());
+                    missTimeInNanos.add(System.nanoTime() - startTimeInNanos);
                     final long bitSetBytes = bs.ramBytesUsed();
                     if (bitSetBytes > this.maxWeightBytes) {
                         logger.warn("built a DLS BitSet that uses [{}] bytes; the DLS BitSet cache has a maximum size of [{}] bytes;" +
@@ -257,6 +276,63 @@ public final class DocumentSubsetBitsetCache implements IndexReader.ClosedListen
         }
     }
 
+    /**
+     * Returns a query that matches the same documents as the provided query, stripped of the wrappers that only affect scoring or that
+     * are otherwise redundant. Role queries are built by combining the queries of several roles, so the same set of documents is often
+     * described by queries that are not {@link Object#equals equal}; normalizing them lets them share a single cache entry.
+     */
+    static Query canonicalQuery(Query query) {
+        if (query instanceof ConstantScoreQuery) {
+            return canonicalQuery(((ConstantScoreQuery) query).getQuery());
+        }
+        if (query instanceof BoostQuery) {
+            return canonicalQuery(((BoostQuery) query).getQuery());
+        }
+        if (query instanceof BooleanQuery) {
+            return canonicalBooleanQuery((BooleanQuery) query);
+        }
+        return query;
+    }
+
+    private static Query canonicalBooleanQuery(BooleanQuery query) {
+        final int minimumShouldMatch = query.getMinimumNumberShouldMatch();
+        final List<BooleanClause> clauses = query.clauses();
+        if (clauses.size() == 1) {
+            final BooleanClause clause = clauses.get(0);
+            final boolean required = clause.isRequired() && minimumShouldMatch == 0;
+            final boolean singleShould = clause.getOccur() == BooleanClause.Occur.SHOULD && minimumShouldMatch <= 1;
+            if (required || singleShould) {
+                return canonicalQuery(clause.getQuery());
+            }
+        }
+        // disjunctions (without a minimum greater than one) and conjunctions are idempotent, so repeated clauses can be dropped,
+        // scores are irrelevant so MUST clauses are equivalent to FILTER clauses
+        final boolean dedupShould = minimumShouldMatch <= 1;
+        final Set<Query> shouldClauses = new LinkedHashSet<>();
+        final Set<Query> filterClauses = new LinkedHashSet<>();
+        final BooleanQuery.Builder builder = new BooleanQuery.Builder().setMinimumNumberShouldMatch(minimumShouldMatch);
+        for (BooleanClause clause : clauses) {
+            final Query clauseQuery = canonicalQuery(clause.getQuery());
+            switch (clause.getOccur()) {
+                case SHOULD:
+                    if (dedupShould == false || shouldClauses.add(clauseQuery)) {
+                        builder.add(clauseQuery, BooleanClause.Occur.SHOULD);
+                    }
+                    break;
+                case MUST:
+                case FILTER:
+                    if (filterClauses.add(clauseQuery)) {
+                        builder.add(clauseQuery, BooleanClause.Occur.FILTER);
+                    }
+                    break;
+                default:
+                    builder.add(clauseQuery, clause.getOccur());
+                    break;
+            }
+        }
+        return builder.build();
+    }
+
     private void maybeLogCacheFullWarning() {
         final long nextLogTime = cacheFullWarningTime.get();
         final long now = System.currentTimeMillis();
@@ -277,10 +353,16 @@ public final class DocumentSubsetBitsetCache implements IndexReader.ClosedListen
 
     public Map<String, Object> usageStats() {
         final ByteSizeValue ram = new ByteSizeValue(ramBytesUsed(), ByteSizeUnit.BYTES);
+        final long totalLookups = lookups.sum();
+        final long totalMisses = misses.sum();
         return Map.of(
             "count", entryCount(),
             "memory", ram.toString(),
-            "memory_in_bytes", ram.getBytes()
+            "memory_in_bytes", ram.getBytes(),
+            "hits", Math.max(0L, totalLookups - totalMisses),
+            "misses", totalMisses,
+            "evictions", bitsetCache.stats().getEvictions(),
+            "misses_time_in_millis", TimeUnit.NANOSECONDS.toMillis(missTimeInNanos.sum())
         );
     }
 
@@ -35,6 +35,7 @@ import java.util.stream.IntStream;
 
 import static org.elasticsearch.xpack.core.ml.inference.trainedmodel.inference.InferenceModelTestUtils.deserializeFromTrainedModel;
 import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.not;
@@ -87,6 +88,25 @@ public class TreeInferenceModelTests extends ESTestCase {
         expectThrows(ElasticsearchException.class, () -> model.infer(Collections.emptyMap(), RegressionConfig.EMPTY_PARAMS, null));
     }
 
+    public void testFailedRewriteLeavesModelUnprepared() throws IOException {
+        Tree.Builder builder = Tree.builder().setTargetType(TargetType.REGRESSION);
+        TreeNode.Builder rootNode = builder.addJunction(0, 0, true, 0.5);
+        builder.addLeaf(rootNode.getRightChild(), 0.3);
+        TreeNode.Builder leftChildNode = builder.addJunction(rootNode.getLeftChild(), 1, true, 0.8);
+        builder.addLeaf(leftChildNode.getLeftChild(), 0.1);
+        builder.addLeaf(leftChildNode.getRightChild(), 0.2);
+        Tree treeObject = builder.setFeatureNames(Arrays.asList("foo", "bar")).build();
+        TreeInferenceModel tree = deserializeFromTrainedModel(treeObject,
+            xContentRegistry(),
+            TreeInferenceModel::fromXContent);
+
+        // the mapping misses the "bar" feature
+        expectThrows(IllegalArgumentException.class, () -> tree.rewriteFeatureIndices(Collections.singletonMap("foo", 0)));
+        ElasticsearchException e = expectThrows(ElasticsearchException.class,
+            () -> tree.infer(Collections.emptyMap(), RegressionConfig.EMPTY_PARAMS, null));
+        assertThat(e.getMessage(), containsString("not prepared for inference"));
+    }
+
     public void testInferWithStump() throws IOException {
         Tree.Builder builder = Tree.builder().setTargetType(TargetType.REGRESSION);
         builder.setRoot(TreeNode.builder(0).setLeafValue(Collections.singletonList(42.0)));
@@ -161,6 +181,24 @@ public class TreeInferenceModelTests extends ESTestCase {
                 0.00001));
     }
 
+    public void testFlattenedTreeMatchesNodes() throws IOException {
+        for (int i = 0; i < NUMBER_OF_TEST_RUNS; ++i) {
+            Tree tree = TreeTests.createRandom(randomFrom(TargetType.values()));
+            TreeInferenceModel model = serializeFromTrainedModel(tree);
+            double[] features = new double[model.getFeatureNames().length];
+            for (int run = 0; run < NUMBER_OF_TEST_RUNS; ++run) {
+                for (int j = 0; j < features.length; j++) {
+                    features[j] = rarely() ? Double.NaN : randomDoubleBetween(-10.0, 10.0, true);
+                }
+                TreeInferenceModel.Node node = model.getNodes()[0];
+                while (node.isLeaf() == false) {
+                    node = model.getNodes()[node.compare(features)];
+                }
+                assertSame(((TreeInferenceModel.LeafNode) node).getLeafValue(), model.getLeaf(features));
+            }
+        }
+    }
+
     public void testTreeClassificationProbability() throws IOException {
         // Build a tree with 2 nodes and 3 leaves using 2 features
         // The leaves have unique values 0.1, 0.2, 0.3
@@ -18,8 +18,14 @@ import org.apache.lucene.index.IndexWriter;
 import org.apache.lucene.index.IndexWriterConfig;
 import org.apache.lucene.index.LeafReaderContext;
 import org.apache.lucene.index.NoMergePolicy;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.ConstantScoreQuery;
 import org.apache.lucene.search.IndexSearcher;
 import org.apache.lucene.search.Query;
+import org.apache.lucene.search.TermQuery;
 import org.apache.lucene.store.Directory;
 import org.apache.lucene.util.BitSet;
 import org.elasticsearch.client.Client;
@@ -98,6 +104,55 @@ public class DocumentSubsetBitsetCacheTests extends ESTestCase {
         });
     }
 
+    public void testSameBitSetIsReturnedForEquivalentQueries() throws Exception {
+        final DocumentSubsetBitsetCache cache = newCache(Settings.EMPTY);
+        runTestOnIndex((shardContext, leafContext) -> {
+            final Query query = QueryBuilders.termQuery("field-1", "value-1").toQuery(shardContext);
+            final BitSet bitSet1 = cache.getBitSet(query, leafContext);
+            assertThat(bitSet1, notNullValue());
+
+            // the shape of a role query with a single DLS query
+            final Query roleQuery = new BooleanQuery.Builder()
+                .add(QueryBuilders.termQuery("field-1", "value-1").toQuery(shardContext), BooleanClause.Occur.SHOULD)
+                .setMinimumNumberShouldMatch(1)
+                .build();
+            assertThat(cache.getBitSet(roleQuery, leafContext), sameInstance(bitSet1));
+            assertThat(cache.getBitSet(new ConstantScoreQuery(new BoostQuery(query, 2f)), leafContext), sameInstance(bitSet1));
+            assertThat(cache.entryCount(), equalTo(1));
+
+            assertThat(cache.usageStats().get("misses"), equalTo(1L));
+            assertThat(cache.usageStats().get("hits"), equalTo(2L));
+        });
+    }
+
+    public void testCanonicalQuery() {
+        final Query q1 = new TermQuery(new Term("field-1", "value-1"));
+        final Query q2 = new TermQuery(new Term("field-2", "value-2"));
+
+        assertThat(DocumentSubsetBitsetCache.canonicalQuery(q1), sameInstance(q1));
+        assertThat(DocumentSubsetBitsetCache.canonicalQuery(new BoostQuery(new ConstantScoreQuery(q1), 3f)), sameInstance(q1));
+        assertThat(DocumentSubsetBitsetCache.canonicalQuery(new BooleanQuery.Builder().add(q1, BooleanClause.Occur.MUST).build()),
+            sameInstance(q1));
+
+        // duplicated disjunctions and conjunctions are collapsed, MUST is equivalent to FILTER
+        final Query disjunction = new BooleanQuery.Builder()
+            .add(q1, BooleanClause.Occur.SHOULD).add(q2, BooleanClause.Occur.SHOULD).add(q1, BooleanClause.Occur.SHOULD)
+            .setMinimumNumberShouldMatch(1).build();
+        assertThat(DocumentSubsetBitsetCache.canonicalQuery(disjunction), equalTo(new BooleanQuery.Builder()
+            .add(q1, BooleanClause.Occur.SHOULD).add(q2, BooleanClause.Occur.SHOULD).setMinimumNumberShouldMatch(1).build()));
+        final Query conjunction = new BooleanQuery.Builder()
+            .add(q1, BooleanClause.Occur.MUST).add(q2, BooleanClause.Occur.FILTER).add(q1, BooleanClause.Occur.FILTER).build();
+        assertThat(DocumentSubsetBitsetCache.canonicalQuery(conjunction), equalTo(new BooleanQuery.Builder()
+            .add(q1, BooleanClause.Occur.FILTER).add(q2, BooleanClause.Occur.FILTER).build()));
+
+        // a minimum should match greater than one is not idempotent
+        final Query minimumShouldMatch = new BooleanQuery.Builder()
+            .add(q1, BooleanClause.Occur.SHOULD).add(q1, BooleanClause.Occur.SHOULD).setMinimumNumberShouldMatch(2).build();
+        assertThat(DocumentSubsetBitsetCache.canonicalQuery(minimumShouldMatch), equalTo(minimumShouldMatch));
+        final Query mustNot = new BooleanQuery.Builder().add(q1, BooleanClause.Occur.MUST_NOT).build();
+        assertThat(DocumentSubsetBitsetCache.canonicalQuery(mustNot), equalTo(mustNot));
+    }
+
     public void testNullBitSetIsReturnedForNonMatchingQuery() throws Exception {
         final DocumentSubsetBitsetCache cache = newCache(Settings.EMPTY);
         runTestOnIndex((shardContext, leafContext) -> {
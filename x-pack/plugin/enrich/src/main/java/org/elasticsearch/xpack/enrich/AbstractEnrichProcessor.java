@@ -43,6 +43,7 @@ public abstract class AbstractEnrichProcessor extends AbstractProcessor {
         String tag,
         String description,
         Client client,
+        EnrichCache enrichCache,
         String policyName,
         TemplateScript.Factory field,
         TemplateScript.Factory targetField,
@@ -54,7 +55,7 @@ public abstract class AbstractEnrichProcessor extends AbstractProcessor {
         this(
             tag,
             description,
-            createSearchRunner(client),
+            createSearchRunner(client, enrichCache),
             policyName,
             field,
             targetField,
@@ -132,12 +133,13 @@ public abstract class AbstractEnrichProcessor extends AbstractProcessor {
                 String targetField = ingestDocument.renderTemplate(this.targetField);
                 if (overrideEnabled || ingestDocument.hasField(targetField) == false) {
                     if (maxMatches == 1) {
-                        Map<String, Object> firstDocument = searchHits[0].getSourceAsMap();
+                        // the response may be shared with other documents through the cache, so it must not be modified
+                        Map<String, Object> firstDocument = IngestDocument.deepCopyMap(searchHits[0].getSourceAsMap());
                         ingestDocument.setFieldValue(targetField, firstDocument);
                     } else {
                         List<Map<String, Object>> enrichDocuments = new ArrayList<>(searchHits.length);
                         for (SearchHit searchHit : searchHits) {
-                            Map<String, Object> enrichDocument = searchHit.getSourceAsMap();
+                            Map<String, Object> enrichDocument = IngestDocument.deepCopyMap(searchHit.getSourceAsMap());
                             enrichDocuments.add(enrichDocument);
                         }
                         ingestDocument.setFieldValue(targetField, enrichDocuments);
@@ -190,14 +192,26 @@ public abstract class AbstractEnrichProcessor extends AbstractProcessor {
         return maxMatches;
     }
 
-    private static BiConsumer<SearchRequest, BiConsumer<SearchResponse, Exception>> createSearchRunner(Client client) {
+    private static BiConsumer<SearchRequest, BiConsumer<SearchResponse, Exception>> createSearchRunner(
+        Client client,
+        EnrichCache enrichCache
+    ) {
         Client originClient = new OriginSettingClient(client, ENRICH_ORIGIN);
         return (req, handler) -> {
-            originClient.execute(
-                EnrichCoordinatorProxyAction.INSTANCE,
-                req,
-                ActionListener.wrap(resp -> { handler.accept(resp, null); }, e -> { handler.accept(null, e); })
-            );
+            EnrichCache.CacheKey key = enrichCache.toKey(req);
+            if (key != null) {
+                SearchResponse cached = enrichCache.get(key);
+                if (cached != null) {
+                    handler.accept(cached, null);
+                    return;
+                }
+            }
+            originClient.execute(EnrichCoordinatorProxyAction.INSTANCE, req, ActionListener.wrap(resp -> {
+                if (key != null) {
+                    enrichCache.put(key, resp);
+                }
+                handler.accept(resp, null);
+            }, e -> { handler.accept(null, e); }));
         };
     }
 }
@@ -0,0 +1,116 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License;
+ * you may not use this file except in compliance with the Elastic License.
+ */
+package org.elasticsearch.xpack.enrich;
+
+import org.elasticsearch.action.search.SearchRequest;
+import org.elasticsearch.action.search.SearchResponse;
+import org.elasticsearch.cluster.metadata.IndexAbstraction;
+import org.elasticsearch.cluster.metadata.Metadata;
+import org.elasticsearch.common.cache.Cache;
+import org.elasticsearch.common.cache.CacheBuilder;
+import org.elasticsearch.search.SearchHit;
+import org.elasticsearch.search.builder.SearchSourceBuilder;
+import org.elasticsearch.xpack.core.enrich.action.EnrichStatsAction;
+
+import java.util.Objects;
+
+/**
+ * A node local cache of the responses to the lookups executed by the enrich processors. Enrich keys tend to repeat
+ * heavily, so that serving them from memory saves a search per document in the common case. Lookups that didn't
+ * match anything are cached too.
+ * <p>
+ * Entries are keyed by the concrete enrich index the policy alias points to at the time of the lookup. When a policy
+ * gets executed again the alias is moved to a new enrich index, lookups no longer hit the entries of the previous
+ * enrich index and these entries are eventually evicted. Enrich indices are read-only, hence an entry is never stale.
+ */
+public final class EnrichCache {
+
+    // rough estimate of the memory used by an entry besides the source of the hits it holds
+    static final long ENTRY_OVERHEAD_IN_BYTES = 512;
+
+    private final Cache<CacheKey, SearchResponse> cache;
+    private volatile Metadata metadata;
+
+    EnrichCache(long maxSizeInBytes) {
+        this.cache = CacheBuilder.<CacheKey, SearchResponse>builder()
+            .setMaximumWeight(maxSizeInBytes)
+            .weigher((key, response) -> weigh(response))
+            .build();
+    }
+
+    /**
+     * Returns the cache key of the provided lookup, or {@code null} if the lookup can't be cached because the enrich index
+     * the policy alias points to can't be resolved.
+     */
+    CacheKey toKey(SearchRequest searchRequest) {
+        final Metadata metadata = this.metadata;
+        if (metadata == null || searchRequest.indices().length != 1) {
+            return null;
+        }
+        IndexAbstraction ia = metadata.getIndicesLookup().get(searchRequest.indices()[0]);
+        if (ia == null || ia.getIndices().size() != 1) {
+            return null;
+        }
+        return new CacheKey(ia.getIndices().get(0).getIndex().getName(), searchRequest.source());
+    }
+
+    SearchResponse get(CacheKey key) {
+        return cache.get(key);
+    }
+
+    void put(CacheKey key, SearchResponse searchResponse) {
+        cache.put(key, searchResponse);
+    }
+
+    void setMetadata(Metadata metadata) {
+        this.metadata = metadata;
+    }
+
+    public EnrichStatsAction.Response.CacheStats getStats(String localNodeId) {
+        Cache.CacheStats stats = cache.stats();
+        return new EnrichStatsAction.Response.CacheStats(
+            localNodeId,
+            cache.count(),
+            stats.getHits(),
+            stats.getMisses(),
+            stats.getEvictions()
+        );
+    }
+
+    static long weigh(SearchResponse response) {
+        long weight = ENTRY_OVERHEAD_IN_BYTES;
+        for (SearchHit hit : response.getHits().getHits()) {
+            if (hit.getSourceRef() != null) {
+                weight += hit.getSourceRef().length();
+            }
+        }
+        return weight;
+    }
+
+    static final class CacheKey {
+
+        final String enrichIndex;
+        final SearchSourceBuilder source;
+
+        CacheKey(String enrichIndex, SearchSourceBuilder source) {
+            this.enrichIndex = enrichIndex;
+            this.source = source;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            CacheKey cacheKey = (CacheKey) o;
+            return enrichIndex.equals(cacheKey.enrichIndex) && Objects.equals(source, cacheKey.source);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(enrichIndex, source);
+        }
+    }
+}
@@ -27,12 +27,14 @@ final class EnrichProcessorFactory implements Processor.Factory, Consumer<Cluste
     static final String TYPE = "enrich";
     private final Client client;
     private final ScriptService scriptService;
+    private final EnrichCache enrichCache;
 
     volatile Metadata metadata;
 
-    EnrichProcessorFactory(Client client, ScriptService scriptService) {
+    EnrichProcessorFactory(Client client, ScriptService scriptService, EnrichCache enrichCache) {
         this.client = client;
         this.scriptService = scriptService;
+        this.enrichCache = enrichCache;
     }
 
     @Override
@@ -73,6 +75,7 @@ final class EnrichProcessorFactory implements Processor.Factory, Consumer<Cluste
                     tag,
                     description,
                     client,
+                    enrichCache,
                     policyName,
                     field,
                     targetField,
@@ -90,6 +93,7 @@ final class EnrichProcessorFactory implements Processor.Factory, Consumer<Cluste
                     tag,
                     description,
                     client,
+                    enrichCache,
                     policyName,
                     field,
                     targetField,
@@ -108,6 +112,7 @@ final class EnrichProcessorFactory implements Processor.Factory, Consumer<Cluste
     @Override
     public void accept(ClusterState state) {
         metadata = state.getMetadata();
+        enrichCache.setMetadata(metadata);
     }
 
 }
@@ -0,0 +1,111 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License;
+ * you may not use this file except in compliance with the Elastic License.
+ */
+package org.elasticsearch.xpack.enrich;
+
+import org.elasticsearch.Version;
+import org.elasticsearch.action.search.SearchRequest;
+import org.elasticsearch.action.search.SearchResponse;
+import org.elasticsearch.action.search.SearchResponseSections;
+import org.elasticsearch.action.search.ShardSearchFailure;
+import org.elasticsearch.cluster.metadata.AliasMetadata;
+import org.elasticsearch.cluster.metadata.IndexMetadata;
+import org.elasticsearch.cluster.metadata.Metadata;
+import org.elasticsearch.index.query.MatchQueryBuilder;
+import org.elasticsearch.search.SearchHits;
+import org.elasticsearch.search.builder.SearchSourceBuilder;
+import org.elasticsearch.test.ESTestCase;
+import org.elasticsearch.xpack.core.enrich.EnrichPolicy;
+import org.elasticsearch.xpack.core.enrich.action.EnrichStatsAction;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+
+public class EnrichCacheTests extends ESTestCase {
+
+    public void testCaching() {
+        String policyAlias = EnrichPolicy.getBaseName("policy1");
+        EnrichCache enrichCache = new EnrichCache(1024 * 1024);
+
+        SearchRequest searchRequest = new SearchRequest(policyAlias).source(
+            new SearchSourceBuilder().query(new MatchQueryBuilder("match_field", "1"))
+        );
+        // the enrich index can't be resolved yet
+        assertThat(enrichCache.toKey(searchRequest), nullValue());
+
+        enrichCache.setMetadata(metadata(policyAlias, policyAlias + "-1"));
+        EnrichCache.CacheKey key = enrichCache.toKey(searchRequest);
+        assertThat(key, notNullValue());
+        assertThat(enrichCache.get(key), nullValue());
+
+        // empty responses are cached too
+        SearchResponse searchResponse = emptyResponse();
+        enrichCache.put(key, searchResponse);
+        SearchRequest sameRequest = new SearchRequest(policyAlias).source(
+            new SearchSourceBuilder().query(new MatchQueryBuilder("match_field", "1"))
+        );
+        assertThat(enrichCache.get(enrichCache.toKey(sameRequest)), sameInstance(searchResponse));
+
+        SearchRequest otherRequest = new SearchRequest(policyAlias).source(
+            new SearchSourceBuilder().query(new MatchQueryBuilder("match_field", "2"))
+        );
+        assertThat(enrichCache.get(enrichCache.toKey(otherRequest)), nullValue());
+
+        // the policy got executed again and its alias now points to a new enrich index
+        enrichCache.setMetadata(metadata(policyAlias, policyAlias + "-2"));
+        assertThat(enrichCache.get(enrichCache.toKey(searchRequest)), nullValue());
+
+        EnrichStatsAction.Response.CacheStats stats = enrichCache.getStats("_id");
+        assertThat(stats.getNodeId(), equalTo("_id"));
+        assertThat(stats.getCount(), equalTo(1L));
+        assertThat(stats.getHits(), equalTo(1L));
+        assertThat(stats.getMisses(), equalTo(3L));
+        assertThat(stats.getEvictions(), equalTo(0L));
+    }
+
+    public void testEviction() {
+        String policyAlias = EnrichPolicy.getBaseName("policy1");
+        EnrichCache enrichCache = new EnrichCache(2 * EnrichCache.ENTRY_OVERHEAD_IN_BYTES);
+        enrichCache.setMetadata(metadata(policyAlias, policyAlias + "-1"));
+
+        for (int i = 0; i < 3; i++) {
+            SearchRequest searchRequest = new SearchRequest(policyAlias).source(
+                new SearchSourceBuilder().query(new MatchQueryBuilder("match_field", Integer.toString(i)))
+            );
+            enrichCache.put(enrichCache.toKey(searchRequest), emptyResponse());
+        }
+
+        EnrichStatsAction.Response.CacheStats stats = enrichCache.getStats("_id");
+        assertThat(stats.getCount(), equalTo(2L));
+        assertThat(stats.getEvictions(), equalTo(1L));
+    }
+
+    private static Metadata metadata(String policyAlias, String enrichIndex) {
+        return Metadata.builder()
+            .put(
+                IndexMetadata.builder(enrichIndex)
+                    .settings(settings(Version.CURRENT))
+                    .numberOfShards(1)
+                    .numberOfReplicas(0)
+                    .putAlias(AliasMetadata.builder(policyAlias).build())
+            )
+            .build();
+    }
+
+    private static SearchResponse emptyResponse() {
+        return new SearchResponse(
+            new SearchResponseSections(SearchHits.empty(), null, null, false, false, null, 1),
+            null,
+            1,
+            1,
+            0,
+            1,
+            ShardSearchFailure.EMPTY_ARRAY,
+            SearchResponse.Clusters.EMPTY
+        );
+    }
+}
@@ -10,6 +10,7 @@ import org.elasticsearch.tasks.TaskId;
 import org.elasticsearch.tasks.TaskInfo;
 import org.elasticsearch.test.AbstractWireSerializingTestCase;
 import org.elasticsearch.xpack.core.enrich.action.EnrichStatsAction;
+import org.elasticsearch.xpack.core.enrich.action.EnrichStatsAction.Response.CacheStats;
 import org.elasticsearch.xpack.core.enrich.action.EnrichStatsAction.Response.CoordinatorStats;
 import org.elasticsearch.xpack.core.enrich.action.EnrichStatsAction.Response.ExecutingPolicy;
 
@@ -40,7 +41,19 @@ public class EnrichStatsResponseTests extends AbstractWireSerializingTestCase<En
             );
             coordinatorStats.add(stats);
         }
-        return new EnrichStatsAction.Response(executingPolicies, coordinatorStats);
+        int numCacheStats = randomIntBetween(0, 16);
+        List<CacheStats> cacheStats = new ArrayList<>(numCacheStats);
+        for (int i = 0; i < numCacheStats; i++) {
+            CacheStats stats = new CacheStats(
+                randomAlphaOfLength(4),
+                randomNonNegativeLong(),
+                randomNonNegativeLong(),
+                randomNonNegativeLong(),
+                randomNonNegativeLong()
+            );
+            cacheStats.add(stats);
+        }
+        return new EnrichStatsAction.Response(executingPolicies, coordinatorStats, cacheStats);
     }
 
     @Override
@@ -14,6 +14,7 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Objects;
 import java.util.function.Function;
+import java.util.function.Predicate;
 
 import static org.elasticsearch.common.logging.LoggerMessageFormat.format;
 
@@ -104,6 +105,36 @@ abstract class OrdinalGroup<E> implements Iterable<Ordinal> {
         return match != null ? match.v1() : null;
     }
 
+    /**
+     * Removes all the elements matching the given predicate.
+     * Returns the number of removed elements.
+     */
+    int removeIf(Predicate<E> predicate) {
+        int removed = 0;
+        int position = 0;
+        for (Iterator<E> it = elements.iterator(); it.hasNext(); position++) {
+            if (predicate.test(it.next())) {
+                it.remove();
+                // keep the insert position pointing to the same element
+                if (position < insertPosition) {
+                    insertPosition--;
+                }
+                removed++;
+                position--;
+            }
+        }
+
+        if (removed > 0) {
+            if (elements.isEmpty()) {
+                start = null;
+                stop = null;
+            } else {
+                start = extractor.apply(elements.get(0));
+            }
+        }
+        return removed;
+    }
+
     E before(Ordinal ordinal) {
         Tuple<E, Integer> match = findBefore(ordinal);
         return match != null ? match.v1() : null;
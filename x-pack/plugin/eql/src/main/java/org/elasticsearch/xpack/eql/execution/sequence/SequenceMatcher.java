@@ -15,6 +15,8 @@ import org.elasticsearch.xpack.eql.execution.search.HitReference;
 import org.elasticsearch.xpack.eql.execution.search.Limit;
 import org.elasticsearch.xpack.eql.execution.search.Ordinal;
 
+import java.util.Arrays;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 
@@ -65,6 +67,8 @@ public class SequenceMatcher {
     private int completedInsertPosition = 0;
 
     private final long maxSpanInMillis;
+    /** Timestamp of the latest hit matched on each stage, used to drop sequences that exceeded maxspan */
+    private final long[] stageTimestamps;
 
     private final boolean descending;
 
@@ -84,6 +88,8 @@ public class SequenceMatcher {
         this.completed = new LinkedList<>();
 
         this.maxSpanInMillis = maxSpan.millis();
+        this.stageTimestamps = new long[stages];
+        Arrays.fill(stageTimestamps, Long.MIN_VALUE);
 
         // limit
         this.limit = limit;
@@ -114,6 +120,7 @@ public class SequenceMatcher {
 
                 trackSequence(seq);
             } else {
+                stageTimestamps[stage] = Math.max(stageTimestamps[stage], ko.ordinal.timestamp());
                 match(stage, ko.key, ko.ordinal, hit);
 
                 // early skip in case of reaching the limit
@@ -245,6 +252,39 @@ public class SequenceMatcher {
     }
 
 
+    /**
+     * Drops the in-flight sequences that cannot be completed anymore because they exceed maxspan.
+     * Each stage is queried in ascending order, so the hits of a stage that are still to come
+     * occur at or after the latest hit seen on that stage. Sequences waiting for that stage that
+     * started more than maxspan earlier will be rejected by any of those hits and can be dropped
+     * right away instead of being held until the end of the query.
+     * Descending queries return data out of order between pages and are left untouched.
+     */
+    void trimMaxspan() {
+        if (maxSpanInMillis <= 0 || descending) {
+            return;
+        }
+        for (int stage = 1; stage < numberOfStages; stage++) {
+            if (stageTimestamps[stage] == Long.MIN_VALUE) {
+                continue;
+            }
+            int previousStage = stage - 1;
+            long threshold = stageTimestamps[stage] - maxSpanInMillis;
+            for (Iterator<SequenceKey> it = stageToKeys.keys(previousStage).iterator(); it.hasNext(); ) {
+                SequenceKey key = it.next();
+                SequenceGroup group = keyToSequences.groupIfPresent(previousStage, key);
+                if (group == null) {
+                    continue;
+                }
+                stats.rejectionMaxspan += group.removeIf(s -> s.startOrdinal().timestamp() < threshold);
+                if (group.isEmpty()) {
+                    keyToSequences.remove(previousStage, group);
+                    it.remove();
+                }
+            }
+        }
+    }
+
     List<Sequence> completed() {
         return limit != null ? limit.view(completed) : completed;
     }
@@ -279,6 +319,7 @@ public class SequenceMatcher {
         keyToSequences.clear();
         stageToKeys.clear();
         completed.clear();
+        Arrays.fill(stageTimestamps, Long.MIN_VALUE);
     }
 
     @Override
@@ -12,6 +12,8 @@ import java.util.List;
 import java.util.Set;
 import java.util.StringJoiner;
 
+import static java.util.Collections.emptySet;
+
 /** Dedicated collection for mapping a stage (represented by the index collection) to a set of keys */
 class StageToKeys {
 
@@ -40,6 +42,11 @@ class StageToKeys {
         }
     }
 
+    Set<SequenceKey> keys(int stage) {
+        Set<SequenceKey> set = stageToKey.get(stage);
+        return set == null ? emptySet() : set;
+    }
+
     boolean isEmpty(int stage) {
         Set<SequenceKey> set = stageToKey.get(stage);
         return set == null || set.isEmpty();
@@ -93,6 +93,8 @@ public class TumblingWindow implements Executable {
         // remove any potential upper limit (if a criteria has been promoted)
         base.queryRequest().to(null);
         matcher.resetInsertPosition();
+        // free the sequences that can no longer complete before moving to the next window
+        matcher.trimMaxspan();
 
         log.trace("{}", matcher);
         log.trace("Querying base stage [{}] {}", base.stage(), base.queryRequest());
@@ -0,0 +1,61 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License;
+ * you may not use this file except in compliance with the Elastic License.
+ */
+
+package org.elasticsearch.xpack.eql.execution.sequence;
+
+import org.elasticsearch.common.collect.Tuple;
+import org.elasticsearch.common.unit.TimeValue;
+import org.elasticsearch.search.SearchHit;
+import org.elasticsearch.test.ESTestCase;
+import org.elasticsearch.xpack.eql.execution.search.HitReference;
+import org.elasticsearch.xpack.eql.execution.search.Ordinal;
+
+import java.util.List;
+
+import static java.util.Collections.singletonList;
+
+public class SequenceMatcherTests extends ESTestCase {
+
+    private static List<Tuple<KeyAndOrdinal, HitReference>> hit(String key, long timestamp) {
+        KeyAndOrdinal ko = new KeyAndOrdinal(new SequenceKey(key), new Ordinal(timestamp, null));
+        return singletonList(new Tuple<>(ko, new HitReference(new SearchHit(randomInt()))));
+    }
+
+    public void testTrimMaxspan() {
+        SequenceMatcher matcher = new SequenceMatcher(3, false, TimeValue.timeValueMillis(10), null);
+
+        assertTrue(matcher.match(0, hit("a", 1)));
+        assertTrue(matcher.match(0, hit("b", 50)));
+        assertTrue(matcher.match(1, hit("b", 55)));
+
+        // "a" started more than maxspan before the latest hit of the second stage
+        matcher.trimMaxspan();
+        assertEquals(1, matcher.stats().rejectionMaxspan);
+
+        // "a" is not waiting for the second stage anymore so its hits are ignored
+        assertTrue(matcher.match(1, hit("a", 56)));
+        assertEquals(1, matcher.stats().ignored);
+        assertEquals(1, matcher.stats().rejectionMaxspan);
+
+        // "b" is still in-flight and can complete
+        assertTrue(matcher.hasCandidates(1));
+        assertTrue(matcher.match(2, hit("b", 58)));
+        assertEquals(1, matcher.completed().size());
+        assertEquals(new SequenceKey("b"), matcher.completed().get(0).key());
+        assertFalse(matcher.hasCandidates(0));
+    }
+
+    public void testTrimMaxspanIgnoresDescendingQueries() {
+        SequenceMatcher matcher = new SequenceMatcher(2, true, TimeValue.timeValueMillis(10), null);
+
+        assertTrue(matcher.match(0, hit("a", 1)));
+        assertTrue(matcher.match(1, hit("b", 55)));
+
+        matcher.trimMaxspan();
+        assertEquals(0, matcher.stats().rejectionMaxspan);
+        assertTrue(matcher.hasCandidates(0));
+    }
+}
@@ -21,6 +21,7 @@ import org.elasticsearch.cluster.metadata.IndexMetadata;
 import org.elasticsearch.cluster.metadata.IndexNameExpressionResolver;
 import org.elasticsearch.cluster.metadata.Metadata;
 import org.elasticsearch.cluster.service.ClusterService;
+import org.elasticsearch.common.Rounding;
 import org.elasticsearch.common.Strings;
 import org.elasticsearch.common.collect.ImmutableOpenMap;
 import org.elasticsearch.common.inject.Inject;
@@ -29,6 +30,8 @@ import org.elasticsearch.common.io.stream.NamedWriteableAwareStreamInput;
 import org.elasticsearch.common.io.stream.NamedWriteableRegistry;
 import org.elasticsearch.common.io.stream.StreamInput;
 import org.elasticsearch.common.io.stream.Writeable;
+import org.elasticsearch.common.settings.Setting;
+import org.elasticsearch.common.unit.TimeValue;
 import org.elasticsearch.common.util.BigArrays;
 import org.elasticsearch.index.query.BoolQueryBuilder;
 import org.elasticsearch.index.query.BoostingQueryBuilder;
@@ -46,7 +49,10 @@ import org.elasticsearch.search.aggregations.InternalAggregation;
 import org.elasticsearch.search.aggregations.bucket.filter.FilterAggregationBuilder;
 import org.elasticsearch.search.aggregations.bucket.histogram.DateHistogramAggregationBuilder;
 import org.elasticsearch.search.aggregations.bucket.histogram.HistogramAggregationBuilder;
+import org.elasticsearch.search.aggregations.bucket.terms.Terms;
 import org.elasticsearch.search.aggregations.bucket.terms.TermsAggregationBuilder;
+import org.elasticsearch.search.aggregations.metrics.Max;
+import org.elasticsearch.search.aggregations.metrics.MaxAggregationBuilder;
 import org.elasticsearch.search.aggregations.pipeline.PipelineAggregator;
 import org.elasticsearch.search.builder.SearchSourceBuilder;
 import org.elasticsearch.tasks.Task;
@@ -74,12 +80,23 @@ import java.util.stream.Collectors;
 
 public class TransportRollupSearchAction extends TransportAction<SearchRequest, SearchResponse> {
 
+    /**
+     * When enabled, the live part of a rollup search that aggregates with a single top-level date_histogram only scans the
+     * buckets that haven't been rolled up yet. Documents indexed into the live indices after the rollup job processed their
+     * time range are ignored, which is why this is opt-in.
+     */
+    public static final Setting<Boolean> RESTRICT_LIVE_RANGE_SETTING = Setting.boolSetting("xpack.rollup.search.restrict_live_range",
+        false, Setting.Property.NodeScope, Setting.Property.Dynamic);
+
+    private static final String LIVE_RANGE_AGG = "live_range";
+
     private final Client client;
     private final NamedWriteableRegistry registry;
     private final BigArrays bigArrays;
     private final ScriptService scriptService;
     private final ClusterService clusterService;
     private final IndexNameExpressionResolver resolver;
+    private volatile boolean restrictLiveRange;
     private static final Logger logger = LogManager.getLogger(RollupSearchAction.class);
 
     @Inject
@@ -93,6 +110,8 @@ public class TransportRollupSearchAction extends TransportAction<SearchRequest,
         this.scriptService = scriptService;
         this.clusterService = clusterService;
         this.resolver = resolver;
+        this.restrictLiveRange = RESTRICT_LIVE_RANGE_SETTING.get(clusterService.getSettings());
+        clusterService.getClusterSettings().addSettingsUpdateConsumer(RESTRICT_LIVE_RANGE_SETTING, value -> restrictLiveRange = value);
 
         transportService.registerRequestHandler(actionName, ThreadPool.Names.SAME, false, true, SearchRequest::new,
                 new TransportRollupSearchAction.TransportHandler());
@@ -105,6 +124,41 @@ public class TransportRollupSearchAction extends TransportAction<SearchRequest,
 
         MultiSearchRequest msearch = createMSearchRequest(request, registry, rollupSearchContext);
 
+        final DateHistogramAggregationBuilder histo = restrictLiveRange ? findRestrictableHistogram(request, rollupSearchContext) : null;
+        final Rounding rounding = histo != null ? liveRangeRounding(histo) : null;
+        if (rounding == null) {
+            executeMSearch(msearch, rollupSearchContext, listener);
+            return;
+        }
+
+        // Ask the rollup indices how far each job got, the live indices only need to cover the buckets after that
+        final Set<String> jobIds = findBestJobs(request.source().aggregations(), rollupSearchContext).stream()
+            .map(RollupJobCaps::getJobID)
+            .collect(Collectors.toSet());
+        final String idField = RollupField.formatMetaField(RollupField.ID.getPreferredName());
+        final String timestampField = RollupField.formatFieldName(histo, RollupField.TIMESTAMP);
+        SearchSourceBuilder rangeSource = new SearchSourceBuilder().size(0)
+            .query(new TermsQueryBuilder(idField, jobIds))
+            .aggregation(new TermsAggregationBuilder(LIVE_RANGE_AGG).field(idField).size(jobIds.size())
+                .subAggregation(new MaxAggregationBuilder(LIVE_RANGE_AGG).field(timestampField)));
+        client.search(new SearchRequest(rollupSearchContext.getRollupIndices(), rangeSource), ActionListener.wrap(rangeResponse -> {
+            try {
+                Long start = findLiveRangeStart(rangeResponse, jobIds, rounding);
+                if (start != null) {
+                    restrictLiveRequest(msearch, histo.field(), start, registry);
+                }
+            } catch (Exception e) {
+                logger.debug("failed to restrict the live part of the rollup search, searching the full live range", e);
+            }
+            executeMSearch(msearch, rollupSearchContext, listener);
+        }, e -> {
+            logger.debug("failed to find the range covered by rollup jobs " + jobIds + ", searching the full live range", e);
+            executeMSearch(msearch, rollupSearchContext, listener);
+        }));
+    }
+
+    private void executeMSearch(MultiSearchRequest msearch, RollupSearchContext rollupSearchContext,
+                                ActionListener<SearchResponse> listener) {
         client.multiSearch(msearch, ActionListener.wrap(msearchResponse -> {
             InternalAggregation.ReduceContext context = InternalAggregation.ReduceContext.forPartialReduction(
                     bigArrays, scriptService, () -> PipelineAggregator.PipelineTree.EMPTY);
@@ -112,6 +166,100 @@ public class TransportRollupSearchAction extends TransportAction<SearchRequest,
         }, listener::onFailure));
     }
 
+    /**
+     * Returns the date_histogram of the request if the live part of the request can be restricted to the buckets that haven't
+     * been rolled up yet, null otherwise. Live buckets replace rolled up buckets with the same key, but only at the top level
+     * of the aggregation tree, so this requires a single top-level date_histogram. Extended bounds are excluded since they
+     * would create empty live buckets that hide the rolled up ones.
+     */
+    static DateHistogramAggregationBuilder findRestrictableHistogram(SearchRequest request, RollupSearchContext context) {
+        if (context.hasLiveIndices() == false || context.hasRollupIndices() == false || request.source() == null) {
+            return null;
+        }
+        AggregatorFactories.Builder aggs = request.source().aggregations();
+        if (aggs == null || aggs.count() != 1 || aggs.getPipelineAggregatorFactories().isEmpty() == false) {
+            return null;
+        }
+        AggregationBuilder agg = aggs.getAggregatorFactories().iterator().next();
+        if (agg instanceof DateHistogramAggregationBuilder == false) {
+            return null;
+        }
+        DateHistogramAggregationBuilder histo = (DateHistogramAggregationBuilder) agg;
+        if (histo.field() == null || histo.script() != null || histo.extendedBounds() != null) {
+            return null;
+        }
+        return histo;
+    }
+
+    /**
+     * Returns the rounding of the provided date_histogram, or null if the interval was not explicitly configured as a
+     * calendar or fixed interval, in which case we can't tell which rounding the aggregation will use.
+     */
+    static Rounding liveRangeRounding(DateHistogramAggregationBuilder histo) {
+        final Rounding.Builder builder;
+        if (histo.getCalendarInterval() != null) {
+            Rounding.DateTimeUnit unit = DateHistogramAggregationBuilder.DATE_FIELD_UNITS.get(histo.getCalendarInterval().toString());
+            if (unit == null) {
+                return null;
+            }
+            builder = Rounding.builder(unit);
+        } else if (histo.getFixedInterval() != null) {
+            builder = Rounding.builder(TimeValue.parseTimeValue(histo.getFixedInterval().toString(), "fixed_interval"));
+        } else {
+            return null;
+        }
+        if (histo.timeZone() != null) {
+            builder.timeZone(histo.timeZone());
+        }
+        return builder.offset(histo.offset()).build();
+    }
+
+    /**
+     * Returns the start of the first bucket that must be computed from the live indices given the response of the search
+     * that collects the most recent rolled up bucket of each job, or null if any of the jobs hasn't rolled up anything yet.
+     * The most recent rolled up bucket may only partially fill the bucket of the request so the whole request bucket is
+     * computed from the live indices.
+     */
+    static Long findLiveRangeStart(SearchResponse response, Set<String> jobIds, Rounding rounding) {
+        if (response.getAggregations() == null) {
+            return null;
+        }
+        Terms terms = response.getAggregations().get(LIVE_RANGE_AGG);
+        if (terms == null) {
+            return null;
+        }
+        double covered = Double.POSITIVE_INFINITY;
+        for (String jobId : jobIds) {
+            Terms.Bucket bucket = terms.getBucketByKey(jobId);
+            if (bucket == null) {
+                return null;
+            }
+            Max max = bucket.getAggregations().get(LIVE_RANGE_AGG);
+            if (max == null || Double.isFinite(max.getValue()) == false) {
+                return null;
+            }
+            covered = Math.min(covered, max.getValue());
+        }
+        if (Double.isFinite(covered) == false) {
+            return null;
+        }
+        return rounding.prepareForUnknown().round((long) covered);
+    }
+
+    /**
+     * Replaces the live request of the msearch with a copy that only matches documents at or after {@code start}.
+     */
+    static void restrictLiveRequest(MultiSearchRequest msearch, String field, long start,
+                                    NamedWriteableRegistry registry) throws IOException {
+        SearchRequest liveRequest = msearch.requests().get(0);
+        SearchSourceBuilder restricted = copyWriteable(liveRequest.source(), registry, SearchSourceBuilder::new);
+        QueryBuilder query = restricted.query() != null ? restricted.query() : new MatchAllQueryBuilder();
+        restricted.query(new BoolQueryBuilder()
+            .must(query)
+            .filter(new RangeQueryBuilder(field).gte(start).format("epoch_millis")));
+        liveRequest.source(restricted);
+    }
+
     static SearchResponse processResponses(RollupSearchContext rollupContext, MultiSearchResponse msearchResponse,
                                            InternalAggregation.ReduceContext reduceContext) throws Exception {
         if (rollupContext.hasLiveIndices() && rollupContext.hasRollupIndices()) {
@@ -168,9 +316,7 @@ public class TransportRollupSearchAction extends TransportAction<SearchRequest,
         }
 
         // Find our list of "best" job caps
-        Set<RollupJobCaps> validatedCaps = new HashSet<>();
-        sourceAgg.getAggregatorFactories()
-                .forEach(agg -> validatedCaps.addAll(RollupJobIdentifierUtils.findBestJobs(agg, context.getJobCaps())));
+        Set<RollupJobCaps> validatedCaps = findBestJobs(sourceAgg, context);
         List<String> jobIds = validatedCaps.stream().map(RollupJobCaps::getJobID).collect(Collectors.toList());
 
         for (AggregationBuilder agg : sourceAgg.getAggregatorFactories()) {
@@ -216,6 +362,13 @@ public class TransportRollupSearchAction extends TransportAction<SearchRequest,
         return msearch;
     }
 
+    static Set<RollupJobCaps> findBestJobs(AggregatorFactories.Builder sourceAgg, RollupSearchContext context) {
+        Set<RollupJobCaps> validatedCaps = new HashSet<>();
+        sourceAgg.getAggregatorFactories()
+                .forEach(agg -> validatedCaps.addAll(RollupJobIdentifierUtils.findBestJobs(agg, context.getJobCaps())));
+        return validatedCaps;
+    }
+
     /**
      * Lifted from ESTestCase :s  Don't reuse this anywhere!
      *
@@ -36,6 +36,7 @@ import org.elasticsearch.search.aggregations.bucket.filter.FilterAggregationBuil
 import org.elasticsearch.search.aggregations.bucket.filter.InternalFilter;
 import org.elasticsearch.search.aggregations.bucket.histogram.DateHistogramAggregationBuilder;
 import org.elasticsearch.search.aggregations.bucket.histogram.DateHistogramInterval;
+import org.elasticsearch.search.aggregations.bucket.histogram.LongBounds;
 import org.elasticsearch.search.aggregations.metrics.Avg;
 import org.elasticsearch.search.aggregations.metrics.InternalAvg;
 import org.elasticsearch.search.aggregations.metrics.InternalSum;
@@ -429,6 +430,90 @@ public class SearchActionTests extends ESTestCase {
         assert(rollup.source().aggregations().getAggregatorFactories().iterator().next() instanceof FilterAggregationBuilder);
     }
 
+    public void testFindRestrictableHistogram() {
+        String[] normalIndices = new String[]{randomAlphaOfLength(10)};
+        String[] rollupIndices = new String[]{randomAlphaOfLength(10)};
+        String[] combinedIndices = new String[]{normalIndices[0], rollupIndices[0]};
+        TransportRollupSearchAction.RollupSearchContext ctx
+                = new TransportRollupSearchAction.RollupSearchContext(normalIndices, rollupIndices, Collections.emptySet());
+
+        DateHistogramAggregationBuilder histo = new DateHistogramAggregationBuilder("foo").field("foo")
+            .calendarInterval(new DateHistogramInterval("1d"));
+        SearchRequest request = new SearchRequest(combinedIndices, new SearchSourceBuilder().size(0).aggregation(histo));
+        assertThat(TransportRollupSearchAction.findRestrictableHistogram(request, ctx), equalTo(histo));
+
+        // live buckets only take precedence at the top level, so other top-level aggs can't be restricted
+        SearchRequest twoAggs = new SearchRequest(combinedIndices, new SearchSourceBuilder().size(0).aggregation(histo)
+            .aggregation(new SumAggregationBuilder("bar").field("bar")));
+        assertNull(TransportRollupSearchAction.findRestrictableHistogram(twoAggs, ctx));
+        SearchRequest sum = new SearchRequest(combinedIndices, new SearchSourceBuilder().size(0)
+            .aggregation(new SumAggregationBuilder("bar").field("bar")));
+        assertNull(TransportRollupSearchAction.findRestrictableHistogram(sum, ctx));
+
+        // empty buckets created from extended bounds would hide the rolled up buckets
+        DateHistogramAggregationBuilder extended = new DateHistogramAggregationBuilder("foo").field("foo")
+            .calendarInterval(new DateHistogramInterval("1d")).extendedBounds(new LongBounds(0L, 1000L));
+        SearchRequest withBounds = new SearchRequest(combinedIndices, new SearchSourceBuilder().size(0).aggregation(extended));
+        assertNull(TransportRollupSearchAction.findRestrictableHistogram(withBounds, ctx));
+
+        // nothing to restrict without live indices
+        TransportRollupSearchAction.RollupSearchContext rollupOnly
+                = new TransportRollupSearchAction.RollupSearchContext(new String[0], rollupIndices, Collections.emptySet());
+        assertNull(TransportRollupSearchAction.findRestrictableHistogram(request, rollupOnly));
+    }
+
+    public void testLiveRangeRounding() {
+        DateHistogramAggregationBuilder calendar = new DateHistogramAggregationBuilder("foo").field("foo")
+            .calendarInterval(new DateHistogramInterval("1d"));
+        long time = randomLongBetween(0, 4102444800000L);
+        long dayStart = time - time % TimeValue.timeValueDays(1).millis();
+        assertThat(TransportRollupSearchAction.liveRangeRounding(calendar).prepareForUnknown().round(time), equalTo(dayStart));
+
+        DateHistogramAggregationBuilder fixed = new DateHistogramAggregationBuilder("foo").field("foo")
+            .fixedInterval(new DateHistogramInterval("1h"));
+        long hourStart = time - time % TimeValue.timeValueHours(1).millis();
+        assertThat(TransportRollupSearchAction.liveRangeRounding(fixed).prepareForUnknown().round(time), equalTo(hourStart));
+    }
+
+    public void testRestrictLiveRequest() throws IOException {
+        final GroupConfig groupConfig = new GroupConfig(
+            new DateHistogramGroupConfig.CalendarInterval("foo", new DateHistogramInterval("1h")));
+        final RollupJobConfig config = new RollupJobConfig("foo", "index", "rollup", "*/5 * * * * ?", 10,  groupConfig, emptyList(), null);
+        Set<RollupJobCaps> caps = singleton(new RollupJobCaps(config));
+
+        String[] normalIndices = new String[]{randomAlphaOfLength(10)};
+        String[] rollupIndices = new String[]{randomAlphaOfLength(10)};
+        String[] combinedIndices = new String[]{normalIndices[0], rollupIndices[0]};
+        TransportRollupSearchAction.RollupSearchContext ctx
+                = new TransportRollupSearchAction.RollupSearchContext(normalIndices, rollupIndices, caps);
+
+        SearchSourceBuilder source = new SearchSourceBuilder();
+        source.query(new TermQueryBuilder("bar", "baz"));
+        source.size(0);
+        source.aggregation(new DateHistogramAggregationBuilder("foo").field("foo").calendarInterval(new DateHistogramInterval("1d")));
+        SearchRequest request = new SearchRequest(combinedIndices, source);
+
+        MultiSearchRequest msearch = TransportRollupSearchAction.createMSearchRequest(request, namedWriteableRegistry, ctx);
+        SearchRequest rollup = msearch.requests().get(1);
+        SearchSourceBuilder rollupSource = rollup.source();
+
+        long start = randomNonNegativeLong();
+        TransportRollupSearchAction.restrictLiveRequest(msearch, "foo", start, namedWriteableRegistry);
+        assertThat(msearch.requests().size(), equalTo(2));
+
+        SearchRequest live = msearch.requests().get(0);
+        assertThat(live.indices(), equalTo(normalIndices));
+        assertThat(live.source().aggregations(), equalTo(source.aggregations()));
+        assertThat(live.source().query(), equalTo(new BoolQueryBuilder()
+            .must(new TermQueryBuilder("bar", "baz"))
+            .filter(new RangeQueryBuilder("foo").gte(start).format("epoch_millis"))));
+
+        // the original request and the rollup requests are left untouched
+        assertThat(source.query(), equalTo(new TermQueryBuilder("bar", "baz")));
+        assertSame(rollup, msearch.requests().get(1));
+        assertSame(rollupSource, rollup.source());
+    }
+
     public void testTwoMatchingJobs() {
         final GroupConfig groupConfig = new GroupConfig(
             new DateHistogramGroupConfig.CalendarInterval("foo", new DateHistogramInterval("1h")), null, null);
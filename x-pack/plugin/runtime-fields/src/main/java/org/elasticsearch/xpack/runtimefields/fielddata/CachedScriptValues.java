@@ -0,0 +1,166 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License;
+ * you may not use this file except in compliance with the Elastic License.
+ */
+
+package org.elasticsearch.xpack.runtimefields.fielddata;
+
+import org.apache.lucene.index.FilterLeafReader;
+import org.apache.lucene.index.LeafReader;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.SortedNumericDocValues;
+import org.apache.lucene.util.Accountable;
+import org.apache.lucene.util.ArrayUtil;
+import org.apache.lucene.util.RamUsageEstimator;
+import org.elasticsearch.common.CheckedFunction;
+import org.elasticsearch.common.breaker.CircuitBreaker;
+import org.elasticsearch.index.fielddata.AbstractSortedNumericDocValues;
+import org.elasticsearch.index.fielddata.FieldData;
+import org.elasticsearch.index.fielddata.IndexFieldDataCache;
+import org.elasticsearch.index.fielddata.IndexNumericFieldData;
+import org.elasticsearch.index.fielddata.IndexNumericFieldData.NumericType;
+import org.elasticsearch.index.fielddata.LeafNumericFieldData;
+import org.elasticsearch.index.fielddata.SortedNumericDoubleValues;
+import org.elasticsearch.index.fielddata.plain.LeafDoubleFieldData;
+import org.elasticsearch.index.fielddata.plain.LeafLongFieldData;
+import org.elasticsearch.indices.breaker.CircuitBreakerService;
+
+import java.io.IOException;
+
+/**
+ * The values that the script of a runtime field produces for all the documents of a segment. Segments are immutable
+ * and runtime field scripts only see the content of the document they run on, so these values can be kept in the
+ * fielddata cache and shared by all the searches that sort or aggregate on the field, instead of running the script
+ * again for every document of every search. The fielddata cache of the field is keyed by the script too, so values
+ * computed with another version of the script are never served.
+ */
+final class CachedScriptValues implements Accountable {
+
+    private final int[] offsets;
+    private final long[] values;
+
+    private CachedScriptValues(int[] offsets, long[] values) {
+        this.offsets = offsets;
+        this.values = values;
+    }
+
+    /**
+     * Runs the script for every document of the segment and collects the values it produces. The memory used by the
+     * values is accounted in the fielddata circuit breaker, it is released by the fielddata cache on eviction.
+     */
+    static CachedScriptValues compute(
+        String fieldName,
+        int maxDoc,
+        SortedNumericDocValues docValues,
+        CircuitBreakerService breakerService
+    ) throws IOException {
+        int[] offsets = new int[maxDoc + 1];
+        long[] values = new long[16];
+        int count = 0;
+        for (int doc = 0; doc < maxDoc; doc++) {
+            offsets[doc] = count;
+            if (docValues.advanceExact(doc)) {
+                int docValueCount = docValues.docValueCount();
+                values = ArrayUtil.grow(values, count + docValueCount);
+                for (int i = 0; i < docValueCount; i++) {
+                    values[count++] = docValues.nextValue();
+                }
+            }
+        }
+        offsets[maxDoc] = count;
+        CachedScriptValues cached = new CachedScriptValues(offsets, ArrayUtil.copyOfSubArray(values, 0, count));
+        breakerService.getBreaker(CircuitBreaker.FIELDDATA).addEstimateBytesAndMaybeBreak(cached.ramBytesUsed(), fieldName);
+        return cached;
+    }
+
+    /**
+     * Loads the values of the provided segment from the fielddata cache, computing them if needed. The cache must be
+     * keyed by the script of the field, see {@link IndexFieldDataCache#keyedBy}.
+     */
+    static LeafNumericFieldData load(
+        LeafReaderContext context,
+        IndexNumericFieldData indexFieldData,
+        IndexFieldDataCache cache,
+        CheckedFunction<LeafReaderContext, LeafNumericFieldData, IOException> loadUncached
+    ) throws Exception {
+        if (cache instanceof IndexFieldDataCache.None || canCache(context.reader()) == false) {
+            return loadUncached.apply(context);
+        }
+        return cache.load(context, indexFieldData);
+    }
+
+    /**
+     * Some leaf readers may be wrapped and hide fields of the segment while sharing its cache key, for instance with
+     * field level security. The script could read these hidden fields, so we must neither serve values that were
+     * computed with all the fields to such a reader nor cache values computed with a subset of the fields.
+     */
+    private static boolean canCache(LeafReader reader) {
+        LeafReader unwrapped = FilterLeafReader.unwrap(reader);
+        return reader == unwrapped || reader.getFieldInfos().size() == unwrapped.getFieldInfos().size();
+    }
+
+    SortedNumericDocValues docValues() {
+        return new AbstractSortedNumericDocValues() {
+            private int cursor;
+            private int count;
+
+            @Override
+            public boolean advanceExact(int doc) {
+                cursor = offsets[doc];
+                count = offsets[doc + 1] - cursor;
+                return count > 0;
+            }
+
+            @Override
+            public long nextValue() {
+                return values[cursor++];
+            }
+
+            @Override
+            public int docValueCount() {
+                return count;
+            }
+        };
+    }
+
+    @Override
+    public long ramBytesUsed() {
+        return RamUsageEstimator.sizeOf(offsets) + RamUsageEstimator.sizeOf(values);
+    }
+
+    /**
+     * Leaf fielddata of a runtime field of type {@code long} or {@code date} backed by cached values.
+     */
+    static final class LongLeafFieldData extends LeafLongFieldData {
+        private final CachedScriptValues cachedValues;
+
+        LongLeafFieldData(CachedScriptValues cachedValues, NumericType numericType) {
+            super(cachedValues.ramBytesUsed(), numericType);
+            this.cachedValues = cachedValues;
+        }
+
+        @Override
+        public SortedNumericDocValues getLongValues() {
+            return cachedValues.docValues();
+        }
+    }
+
+    /**
+     * Leaf fielddata of a runtime field of type {@code double} backed by cached values, that are the sortable long bits
+     * of the doubles produced by the script.
+     */
+    static final class DoubleLeafFieldData extends LeafDoubleFieldData {
+        private final CachedScriptValues cachedValues;
+
+        DoubleLeafFieldData(CachedScriptValues cachedValues) {
+            super(cachedValues.ramBytesUsed());
+            this.cachedValues = cachedValues;
+        }
+
+        @Override
+        public SortedNumericDoubleValues getDoubleValues() {
+            return FieldData.sortableLongBitsToDoubles(cachedValues.docValues());
+        }
+    }
+}
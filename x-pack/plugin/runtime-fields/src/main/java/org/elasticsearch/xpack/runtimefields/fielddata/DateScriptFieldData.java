@@ -12,35 +12,63 @@ import org.elasticsearch.ExceptionsHelper;
 import org.elasticsearch.index.fielddata.IndexFieldData;
 import org.elasticsearch.index.fielddata.IndexFieldDataCache;
 import org.elasticsearch.index.fielddata.IndexNumericFieldData;
+import org.elasticsearch.index.fielddata.LeafNumericFieldData;
 import org.elasticsearch.index.fielddata.plain.LeafLongFieldData;
 import org.elasticsearch.indices.breaker.CircuitBreakerService;
+import org.elasticsearch.script.Script;
 import org.elasticsearch.search.aggregations.support.CoreValuesSourceType;
 import org.elasticsearch.search.aggregations.support.ValuesSourceType;
 import org.elasticsearch.xpack.runtimefields.mapper.DateFieldScript;
 
+import java.io.IOException;
+
 public final class DateScriptFieldData extends IndexNumericFieldData {
 
     public static class Builder implements IndexFieldData.Builder {
         private final String name;
         private final DateFieldScript.LeafFactory leafFactory;
+        private final Script script;
+        private final boolean cacheValues;
 
         public Builder(String name, DateFieldScript.LeafFactory leafFactory) {
+            this(name, leafFactory, null, false);
+        }
+
+        /**
+         * @param script the script of the field, the cached values are keyed by it
+         * @param cacheValues whether the values should be kept in the fielddata cache rather than computed for every search
+         */
+        public Builder(String name, DateFieldScript.LeafFactory leafFactory, Script script, boolean cacheValues) {
             this.name = name;
             this.leafFactory = leafFactory;
+            this.script = script;
+            this.cacheValues = cacheValues;
         }
 
         @Override
         public DateScriptFieldData build(IndexFieldDataCache cache, CircuitBreakerService breakerService) {
-            return new DateScriptFieldData(name, leafFactory);
+            if (cacheValues && cache != null) {
+                return new DateScriptFieldData(name, leafFactory, cache.keyedBy(script), breakerService);
+            }
+            return new DateScriptFieldData(name, leafFactory, null, null);
         }
     }
 
     private final String fieldName;
     private final DateFieldScript.LeafFactory leafFactory;
-
-    private DateScriptFieldData(String fieldName, DateFieldScript.LeafFactory leafFactory) {
+    private final IndexFieldDataCache cache;
+    private final CircuitBreakerService breakerService;
+
+    private DateScriptFieldData(
+        String fieldName,
+        DateFieldScript.LeafFactory leafFactory,
+        IndexFieldDataCache cache,
+        CircuitBreakerService breakerService
+    ) {
         this.fieldName = fieldName;
         this.leafFactory = leafFactory;
+        this.cache = cache;
+        this.breakerService = breakerService;
     }
 
     @Override
@@ -54,16 +82,32 @@ public final class DateScriptFieldData extends IndexNumericFieldData {
     }
 
     @Override
-    public DateScriptLeafFieldData load(LeafReaderContext context) {
+    public LeafNumericFieldData load(LeafReaderContext context) {
         try {
-            return loadDirect(context);
+            if (cache == null) {
+                return loadFromScript(context);
+            }
+            return CachedScriptValues.load(context, this, cache, this::loadFromScript);
         } catch (Exception e) {
             throw ExceptionsHelper.convertToElastic(e);
         }
     }
 
     @Override
-    public DateScriptLeafFieldData loadDirect(LeafReaderContext context) {
+    public LeafNumericFieldData loadDirect(LeafReaderContext context) throws IOException {
+        if (cache == null) {
+            return loadFromScript(context);
+        }
+        CachedScriptValues values = CachedScriptValues.compute(
+            fieldName,
+            context.reader().maxDoc(),
+            loadFromScript(context).getLongValues(),
+            breakerService
+        );
+        return new CachedScriptValues.LongLeafFieldData(values, NumericType.DATE);
+    }
+
+    private DateScriptLeafFieldData loadFromScript(LeafReaderContext context) {
         return new DateScriptLeafFieldData(new LongScriptDocValues(leafFactory.newInstance(context)));
     }
 
@@ -8,39 +8,68 @@ package org.elasticsearch.xpack.runtimefields.fielddata;
 
 import org.apache.lucene.index.LeafReaderContext;
 import org.elasticsearch.ExceptionsHelper;
+import org.elasticsearch.index.fielddata.FieldData;
 import org.elasticsearch.index.fielddata.IndexFieldData;
 import org.elasticsearch.index.fielddata.IndexFieldDataCache;
 import org.elasticsearch.index.fielddata.IndexNumericFieldData;
+import org.elasticsearch.index.fielddata.LeafNumericFieldData;
 import org.elasticsearch.index.fielddata.SortedNumericDoubleValues;
 import org.elasticsearch.index.fielddata.plain.LeafDoubleFieldData;
 import org.elasticsearch.indices.breaker.CircuitBreakerService;
+import org.elasticsearch.script.Script;
 import org.elasticsearch.search.aggregations.support.CoreValuesSourceType;
 import org.elasticsearch.search.aggregations.support.ValuesSourceType;
 import org.elasticsearch.xpack.runtimefields.mapper.DoubleFieldScript;
 
+import java.io.IOException;
+
 public final class DoubleScriptFieldData extends IndexNumericFieldData {
 
     public static class Builder implements IndexFieldData.Builder {
         private final String name;
         private final DoubleFieldScript.LeafFactory leafFactory;
+        private final Script script;
+        private final boolean cacheValues;
 
         public Builder(String name, DoubleFieldScript.LeafFactory leafFactory) {
+            this(name, leafFactory, null, false);
+        }
+
+        /**
+         * @param script the script of the field, the cached values are keyed by it
+         * @param cacheValues whether the values should be kept in the fielddata cache rather than computed for every search
+         */
+        public Builder(String name, DoubleFieldScript.LeafFactory leafFactory, Script script, boolean cacheValues) {
             this.name = name;
             this.leafFactory = leafFactory;
+            this.script = script;
+            this.cacheValues = cacheValues;
         }
 
         @Override
         public DoubleScriptFieldData build(IndexFieldDataCache cache, CircuitBreakerService breakerService) {
-            return new DoubleScriptFieldData(name, leafFactory);
+            if (cacheValues && cache != null) {
+                return new DoubleScriptFieldData(name, leafFactory, cache.keyedBy(script), breakerService);
+            }
+            return new DoubleScriptFieldData(name, leafFactory, null, null);
         }
     }
 
     private final String fieldName;
-    DoubleFieldScript.LeafFactory leafFactory;
-
-    private DoubleScriptFieldData(String fieldName, DoubleFieldScript.LeafFactory leafFactory) {
+    private final DoubleFieldScript.LeafFactory leafFactory;
+    private final IndexFieldDataCache cache;
+    private final CircuitBreakerService breakerService;
+
+    private DoubleScriptFieldData(
+        String fieldName,
+        DoubleFieldScript.LeafFactory leafFactory,
+        IndexFieldDataCache cache,
+        CircuitBreakerService breakerService
+    ) {
         this.fieldName = fieldName;
         this.leafFactory = leafFactory;
+        this.cache = cache;
+        this.breakerService = breakerService;
     }
 
     @Override
@@ -54,16 +83,32 @@ public final class DoubleScriptFieldData extends IndexNumericFieldData {
     }
 
     @Override
-    public DoubleScriptLeafFieldData load(LeafReaderContext context) {
+    public LeafNumericFieldData load(LeafReaderContext context) {
         try {
-            return loadDirect(context);
+            if (cache == null) {
+                return loadFromScript(context);
+            }
+            return CachedScriptValues.load(context, this, cache, this::loadFromScript);
         } catch (Exception e) {
             throw ExceptionsHelper.convertToElastic(e);
         }
     }
 
     @Override
-    public DoubleScriptLeafFieldData loadDirect(LeafReaderContext context) {
+    public LeafNumericFieldData loadDirect(LeafReaderContext context) throws IOException {
+        if (cache == null) {
+            return loadFromScript(context);
+        }
+        CachedScriptValues values = CachedScriptValues.compute(
+            fieldName,
+            context.reader().maxDoc(),
+            FieldData.toSortableLongBits(loadFromScript(context).getDoubleValues()),
+            breakerService
+        );
+        return new CachedScriptValues.DoubleLeafFieldData(values);
+    }
+
+    private DoubleScriptLeafFieldData loadFromScript(LeafReaderContext context) {
         return new DoubleScriptLeafFieldData(new DoubleScriptDocValues(leafFactory.newInstance(context)));
     }
 
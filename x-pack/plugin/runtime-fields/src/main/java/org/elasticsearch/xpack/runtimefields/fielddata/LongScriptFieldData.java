@@ -12,8 +12,10 @@ import org.elasticsearch.ExceptionsHelper;
 import org.elasticsearch.index.fielddata.IndexFieldData;
 import org.elasticsearch.index.fielddata.IndexFieldDataCache;
 import org.elasticsearch.index.fielddata.IndexNumericFieldData;
+import org.elasticsearch.index.fielddata.LeafNumericFieldData;
 import org.elasticsearch.index.fielddata.plain.LeafLongFieldData;
 import org.elasticsearch.indices.breaker.CircuitBreakerService;
+import org.elasticsearch.script.Script;
 import org.elasticsearch.search.aggregations.support.CoreValuesSourceType;
 import org.elasticsearch.search.aggregations.support.ValuesSourceType;
 import org.elasticsearch.xpack.runtimefields.mapper.LongFieldScript;
@@ -25,24 +27,48 @@ public final class LongScriptFieldData extends IndexNumericFieldData {
     public static class Builder implements IndexFieldData.Builder {
         private final String name;
         private final LongFieldScript.LeafFactory leafFactory;
+        private final Script script;
+        private final boolean cacheValues;
 
         public Builder(String name, LongFieldScript.LeafFactory leafFactory) {
+            this(name, leafFactory, null, false);
+        }
+
+        /**
+         * @param script the script of the field, the cached values are keyed by it
+         * @param cacheValues whether the values should be kept in the fielddata cache rather than computed for every search
+         */
+        public Builder(String name, LongFieldScript.LeafFactory leafFactory, Script script, boolean cacheValues) {
             this.name = name;
             this.leafFactory = leafFactory;
+            this.script = script;
+            this.cacheValues = cacheValues;
         }
 
         @Override
         public LongScriptFieldData build(IndexFieldDataCache cache, CircuitBreakerService breakerService) {
-            return new LongScriptFieldData(name, leafFactory);
+            if (cacheValues && cache != null) {
+                return new LongScriptFieldData(name, leafFactory, cache.keyedBy(script), breakerService);
+            }
+            return new LongScriptFieldData(name, leafFactory, null, null);
         }
     }
 
     private final String fieldName;
     private final LongFieldScript.LeafFactory leafFactory;
-
-    private LongScriptFieldData(String fieldName, LongFieldScript.LeafFactory leafFactory) {
+    private final IndexFieldDataCache cache;
+    private final CircuitBreakerService breakerService;
+
+    private LongScriptFieldData(
+        String fieldName,
+        LongFieldScript.LeafFactory leafFactory,
+        IndexFieldDataCache cache,
+        CircuitBreakerService breakerService
+    ) {
         this.fieldName = fieldName;
         this.leafFactory = leafFactory;
+        this.cache = cache;
+        this.breakerService = breakerService;
     }
 
     @Override
@@ -56,16 +82,32 @@ public final class LongScriptFieldData extends IndexNumericFieldData {
     }
 
     @Override
-    public LongScriptLeafFieldData load(LeafReaderContext context) {
+    public LeafNumericFieldData load(LeafReaderContext context) {
         try {
-            return loadDirect(context);
+            if (cache == null) {
+                return loadFromScript(context);
+            }
+            return CachedScriptValues.load(context, this, cache, this::loadFromScript);
         } catch (Exception e) {
             throw ExceptionsHelper.convertToElastic(e);
         }
     }
 
     @Override
-    public LongScriptLeafFieldData loadDirect(LeafReaderContext context) throws IOException {
+    public LeafNumericFieldData loadDirect(LeafReaderContext context) throws IOException {
+        if (cache == null) {
+            return loadFromScript(context);
+        }
+        CachedScriptValues values = CachedScriptValues.compute(
+            fieldName,
+            context.reader().maxDoc(),
+            loadFromScript(context).getLongValues(),
+            breakerService
+        );
+        return new CachedScriptValues.LongLeafFieldData(values, NumericType.LONG);
+    }
+
+    private LongScriptLeafFieldData loadFromScript(LeafReaderContext context) {
         return new LongScriptLeafFieldData(new LongScriptDocValues(leafFactory.newInstance(context)));
     }
 
@@ -18,6 +18,7 @@ import org.elasticsearch.common.geo.ShapeRelation;
 import org.elasticsearch.common.time.DateMathParser;
 import org.elasticsearch.common.unit.Fuzziness;
 import org.elasticsearch.common.xcontent.XContentBuilder;
+import org.elasticsearch.common.xcontent.support.XContentMapValues;
 import org.elasticsearch.index.mapper.ContentPath;
 import org.elasticsearch.index.mapper.DocValueFetcher;
 import org.elasticsearch.index.mapper.FieldMapper;
@@ -270,6 +271,21 @@ abstract class AbstractScriptFieldType<LeafFactory> extends RuntimeFieldType {
         }
     }
 
+    /**
+     * Builds the {@code cache} parameter of the runtime field types that support keeping the values computed by their
+     * script in the fielddata cache, so that searches that sort or aggregate on them don't run the script again on
+     * segments that were already seen. Runtime fields defined in a search request only live for that request, so they
+     * can't cache their values.
+     */
+    static FieldMapper.Parameter<Boolean> cacheParam() {
+        return new FieldMapper.Parameter<>("cache", true, () -> false, (n, c, o) -> {
+            if (c.isFromSearchRequest()) {
+                throw new MapperParsingException("runtime field [" + n + "] defined in the search request does not support [cache]");
+            }
+            return XContentMapValues.nodeBooleanValue(o);
+        }, initializerNotSupported());
+    }
+
     static <T> Function<FieldMapper, T> initializerNotSupported() {
         return mapper -> { throw new UnsupportedOperationException(); };
     }
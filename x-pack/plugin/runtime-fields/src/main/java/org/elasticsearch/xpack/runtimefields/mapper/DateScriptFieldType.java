@@ -69,11 +69,14 @@ public class DateScriptFieldType extends AbstractScriptFieldType<DateFieldScript
             }
         }, Object::toString).acceptsNull();
 
+        private final FieldMapper.Parameter<Boolean> cache = cacheParam();
+
         @Override
         protected List<FieldMapper.Parameter<?>> getParameters() {
             List<FieldMapper.Parameter<?>> parameters = new ArrayList<>(super.getParameters());
             parameters.add(format);
             parameters.add(locale);
+            parameters.add(cache);
             return Collections.unmodifiableList(parameters);
         }
 
@@ -83,15 +86,23 @@ public class DateScriptFieldType extends AbstractScriptFieldType<DateFieldScript
             String pattern = format.getValue() == null ? DateFieldMapper.DEFAULT_DATE_TIME_FORMATTER.pattern() : format.getValue();
             Locale locale = this.locale.getValue() == null ? Locale.ROOT : this.locale.getValue();
             DateFormatter dateTimeFormatter = DateFormatter.forPattern(pattern).withLocale(locale);
-            return new DateScriptFieldType(name, factory, dateTimeFormatter, this);
+            return new DateScriptFieldType(name, factory, dateTimeFormatter, cache.getValue(), this);
         }
     });
 
     private final DateFormatter dateTimeFormatter;
+    private final boolean cache;
 
-    private DateScriptFieldType(String name, DateFieldScript.Factory scriptFactory, DateFormatter dateTimeFormatter, Builder builder) {
+    private DateScriptFieldType(
+        String name,
+        DateFieldScript.Factory scriptFactory,
+        DateFormatter dateTimeFormatter,
+        boolean cache,
+        Builder builder
+    ) {
         super(name, (n, params, ctx) -> scriptFactory.newFactory(n, params, ctx, dateTimeFormatter), builder);
         this.dateTimeFormatter = dateTimeFormatter;
+        this.cache = cache;
     }
 
     DateScriptFieldType(
@@ -104,6 +115,7 @@ public class DateScriptFieldType extends AbstractScriptFieldType<DateFieldScript
     ) {
         super(name, (n, params, ctx) -> scriptFactory.newFactory(n, params, ctx, dateTimeFormatter), script, meta, toXContent);
         this.dateTimeFormatter = dateTimeFormatter;
+        this.cache = false;
     }
 
     @Override
@@ -134,7 +146,7 @@ public class DateScriptFieldType extends AbstractScriptFieldType<DateFieldScript
 
     @Override
     public DateScriptFieldData.Builder fielddataBuilder(String fullyQualifiedIndexName, Supplier<SearchLookup> lookup) {
-        return new DateScriptFieldData.Builder(name(), leafFactory(lookup.get()));
+        return new DateScriptFieldData.Builder(name(), leafFactory(lookup.get()), script, cache);
     }
 
     @Override
@@ -13,6 +13,7 @@ import org.elasticsearch.common.CheckedBiConsumer;
 import org.elasticsearch.common.lucene.search.Queries;
 import org.elasticsearch.common.time.DateMathParser;
 import org.elasticsearch.common.xcontent.XContentBuilder;
+import org.elasticsearch.index.mapper.FieldMapper;
 import org.elasticsearch.index.mapper.NumberFieldMapper.NumberType;
 import org.elasticsearch.index.mapper.RuntimeFieldType;
 import org.elasticsearch.index.query.QueryShardContext;
@@ -27,6 +28,8 @@ import org.elasticsearch.xpack.runtimefields.query.DoubleScriptFieldTermsQuery;
 
 import java.io.IOException;
 import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Supplier;
@@ -34,15 +37,27 @@ import java.util.function.Supplier;
 public final class DoubleScriptFieldType extends AbstractScriptFieldType<DoubleFieldScript.LeafFactory> {
 
     public static final RuntimeFieldType.Parser PARSER = new RuntimeFieldTypeParser((name, parserContext) -> new Builder(name) {
+        private final FieldMapper.Parameter<Boolean> cache = cacheParam();
+
+        @Override
+        protected List<FieldMapper.Parameter<?>> getParameters() {
+            List<FieldMapper.Parameter<?>> parameters = new ArrayList<>(super.getParameters());
+            parameters.add(cache);
+            return Collections.unmodifiableList(parameters);
+        }
+
         @Override
         protected AbstractScriptFieldType<?> buildFieldType() {
             DoubleFieldScript.Factory factory = parserContext.scriptService().compile(script.getValue(), DoubleFieldScript.CONTEXT);
-            return new DoubleScriptFieldType(name, factory, this);
+            return new DoubleScriptFieldType(name, factory, cache.getValue(), this);
         }
     });
 
-    private DoubleScriptFieldType(String name, DoubleFieldScript.Factory scriptFactory, Builder builder) {
+    private final boolean cache;
+
+    private DoubleScriptFieldType(String name, DoubleFieldScript.Factory scriptFactory, boolean cache, Builder builder) {
         super(name, scriptFactory::newFactory, builder);
+        this.cache = cache;
     }
 
     DoubleScriptFieldType(
@@ -53,6 +68,7 @@ public final class DoubleScriptFieldType extends AbstractScriptFieldType<DoubleF
         CheckedBiConsumer<XContentBuilder, Boolean, IOException> toXContent
     ) {
         super(name, scriptFactory::newFactory, script, meta, toXContent);
+        this.cache = false;
     }
 
     @Override
@@ -78,7 +94,7 @@ public final class DoubleScriptFieldType extends AbstractScriptFieldType<DoubleF
 
     @Override
     public DoubleScriptFieldData.Builder fielddataBuilder(String fullyQualifiedIndexName, Supplier<SearchLookup> searchLookup) {
-        return new DoubleScriptFieldData.Builder(name(), leafFactory(searchLookup.get()));
+        return new DoubleScriptFieldData.Builder(name(), leafFactory(searchLookup.get()), script, cache);
     }
 
     @Override
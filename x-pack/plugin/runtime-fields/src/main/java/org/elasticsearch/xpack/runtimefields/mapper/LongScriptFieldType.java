@@ -13,6 +13,7 @@ import org.elasticsearch.common.CheckedBiConsumer;
 import org.elasticsearch.common.lucene.search.Queries;
 import org.elasticsearch.common.time.DateMathParser;
 import org.elasticsearch.common.xcontent.XContentBuilder;
+import org.elasticsearch.index.mapper.FieldMapper;
 import org.elasticsearch.index.mapper.NumberFieldMapper.NumberType;
 import org.elasticsearch.index.mapper.RuntimeFieldType;
 import org.elasticsearch.index.query.QueryShardContext;
@@ -27,6 +28,8 @@ import org.elasticsearch.xpack.runtimefields.query.LongScriptFieldTermsQuery;
 
 import java.io.IOException;
 import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Supplier;
@@ -34,15 +37,27 @@ import java.util.function.Supplier;
 public final class LongScriptFieldType extends AbstractScriptFieldType<LongFieldScript.LeafFactory> {
 
     public static final RuntimeFieldType.Parser PARSER = new RuntimeFieldTypeParser((name, parserContext) -> new Builder(name) {
+        private final FieldMapper.Parameter<Boolean> cache = cacheParam();
+
+        @Override
+        protected List<FieldMapper.Parameter<?>> getParameters() {
+            List<FieldMapper.Parameter<?>> parameters = new ArrayList<>(super.getParameters());
+            parameters.add(cache);
+            return Collections.unmodifiableList(parameters);
+        }
+
         @Override
         protected AbstractScriptFieldType<?> buildFieldType() {
             LongFieldScript.Factory factory = parserContext.scriptService().compile(script.getValue(), LongFieldScript.CONTEXT);
-            return new LongScriptFieldType(name, factory, this);
+            return new LongScriptFieldType(name, factory, cache.getValue(), this);
         }
     });
 
-    private LongScriptFieldType(String name, LongFieldScript.Factory scriptFactory, Builder builder) {
+    private final boolean cache;
+
+    private LongScriptFieldType(String name, LongFieldScript.Factory scriptFactory, boolean cache, Builder builder) {
         super(name, scriptFactory::newFactory, builder);
+        this.cache = cache;
     }
 
     LongScriptFieldType(
@@ -53,6 +68,7 @@ public final class LongScriptFieldType extends AbstractScriptFieldType<LongField
         CheckedBiConsumer<XContentBuilder, Boolean, IOException> toXContent
     ) {
         super(name, scriptFactory::newFactory, script, meta, toXContent);
+        this.cache = false;
     }
 
     @Override
@@ -78,7 +94,7 @@ public final class LongScriptFieldType extends AbstractScriptFieldType<LongField
 
     @Override
     public LongScriptFieldData.Builder fielddataBuilder(String fullyQualifiedIndexName, Supplier<SearchLookup> searchLookup) {
-        return new LongScriptFieldData.Builder(name(), leafFactory(searchLookup.get()));
+        return new LongScriptFieldData.Builder(name(), leafFactory(searchLookup.get()), script, cache);
     }
 
     @Override
@@ -6,8 +6,21 @@
 
 package org.elasticsearch.xpack.runtimefields.mapper;
 
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.index.DirectoryReader;
 import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.RandomIndexWriter;
+import org.apache.lucene.index.SortedNumericDocValues;
 import org.apache.lucene.search.Query;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.util.Accountable;
+import org.apache.lucene.util.BytesRef;
+import org.apache.lucene.util.automaton.Automata;
+import org.apache.lucene.util.automaton.CharacterRunAutomaton;
+import org.apache.lucene.util.automaton.Operations;
 import org.elasticsearch.ElasticsearchException;
 import org.elasticsearch.common.Strings;
 import org.elasticsearch.common.bytes.BytesReference;
@@ -18,25 +31,37 @@ import org.elasticsearch.common.xcontent.XContentBuilder;
 import org.elasticsearch.common.xcontent.XContentFactory;
 import org.elasticsearch.common.xcontent.XContentHelper;
 import org.elasticsearch.common.xcontent.json.JsonXContent;
+import org.elasticsearch.index.Index;
+import org.elasticsearch.index.fielddata.IndexFieldDataCache;
+import org.elasticsearch.index.fielddata.IndexNumericFieldData;
+import org.elasticsearch.index.fielddata.SortedNumericDoubleValues;
 import org.elasticsearch.index.mapper.MappedFieldType;
 import org.elasticsearch.index.mapper.MapperParsingException;
 import org.elasticsearch.index.mapper.MapperService;
 import org.elasticsearch.index.mapper.MapperServiceTestCase;
+import org.elasticsearch.index.mapper.RuntimeFieldType;
 import org.elasticsearch.index.query.QueryShardContext;
+import org.elasticsearch.index.shard.ShardId;
+import org.elasticsearch.indices.fielddata.cache.IndicesFieldDataCache;
 import org.elasticsearch.plugins.Plugin;
 import org.elasticsearch.plugins.ScriptPlugin;
 import org.elasticsearch.script.ScriptContext;
 import org.elasticsearch.script.ScriptEngine;
 import org.elasticsearch.search.lookup.SearchLookup;
+import org.elasticsearch.xpack.core.security.authz.accesscontrol.FieldSubsetReader;
 import org.elasticsearch.xpack.runtimefields.RuntimeFields;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.BiConsumer;
+import java.util.function.Function;
 
 import static org.hamcrest.Matchers.equalTo;
 import static org.mockito.Matchers.anyString;
@@ -317,6 +342,119 @@ public abstract class AbstractScriptFieldTypeTestCase extends MapperServiceTestC
         b.startObject("script").field("source", "dummy_source").field("lang", "test").endObject();
     }
 
+    /**
+     * Checks that the runtime fields defined in the mappings can cache their values but that those defined in a search request can't.
+     */
+    protected final void checkCacheIsOnlySupportedInMappings() throws IOException {
+        MapperService mapperService = createMapperService(runtimeFieldMapping(b -> {
+            minimalMapping(b);
+            b.field("cache", true);
+        }));
+        Map<String, Object> runtimeMappings = new HashMap<>();
+        runtimeMappings.put("field", Map.of("type", typeName(), "script", Map.of("source", "dummy_source", "lang", "test"), "cache", true));
+        MapperParsingException e = expectThrows(
+            MapperParsingException.class,
+            () -> RuntimeFieldType.parseRuntimeFields(runtimeMappings, mapperService.parserContext().createSearchRequestContext(), f -> {})
+        );
+        assertThat(e.getMessage(), equalTo("runtime field [field] defined in the search request does not support [cache]"));
+    }
+
+    /**
+     * Checks that the values of a runtime field that caches them are computed once per segment and per version of its
+     * script, and that leaves hiding fields of the segment neither read nor populate the cache.
+     *
+     * @param sources the {@code _source} of the documents to index
+     * @param fieldData builds the fielddata of the field with the provided cache
+     * @param expected the sorted values of the field
+     * @param updatedFieldData builds the fielddata of the same field with another script
+     * @param expectedUpdated the sorted values of the field with the other script
+     */
+    protected final void checkCachedDocValues(
+        List<String> sources,
+        Function<IndexFieldDataCache, IndexNumericFieldData> fieldData,
+        List<Object> expected,
+        Function<IndexFieldDataCache, IndexNumericFieldData> updatedFieldData,
+        List<Object> expectedUpdated
+    ) throws IOException {
+        try (Directory directory = newDirectory(); RandomIndexWriter iw = new RandomIndexWriter(random(), directory)) {
+            for (String source : sources) {
+                iw.addDocument(
+                    List.of(new StoredField("_source", new BytesRef(source)), new StringField("secret", "value", Field.Store.NO))
+                );
+            }
+            try (DirectoryReader reader = iw.getReader()) {
+                AtomicInteger loads = new AtomicInteger();
+                IndexFieldDataCache cache = fieldDataCache(loads);
+                for (int i = 0; i < 2; i++) {
+                    assertThat(collectValues(reader, fieldData.apply(cache)), equalTo(expected));
+                    assertThat(loads.get(), equalTo(reader.leaves().size()));
+                }
+
+                // the values are computed again once the script of the field changes, both versions are cached side by side
+                assertThat(collectValues(reader, updatedFieldData.apply(cache)), equalTo(expectedUpdated));
+                assertThat(loads.get(), equalTo(2 * reader.leaves().size()));
+                assertThat(collectValues(reader, fieldData.apply(cache)), equalTo(expected));
+                assertThat(loads.get(), equalTo(2 * reader.leaves().size()));
+
+                // leaves hiding fields (field level security) share the cache key of the segment but not its content
+                DirectoryReader hidingReader = FieldSubsetReader.wrap(
+                    reader,
+                    new CharacterRunAutomaton(Operations.minus(Automata.makeAnyString(), Automata.makeString("secret"),
+                        Operations.DEFAULT_MAX_DETERMINIZED_STATES))
+                );
+                IndexFieldDataCache otherCache = fieldDataCache(loads);
+                assertThat(collectValues(hidingReader, updatedFieldData.apply(otherCache)), equalTo(expectedUpdated));
+                assertThat(loads.get(), equalTo(2 * reader.leaves().size()));
+                for (LeafReaderContext context : hidingReader.leaves()) {
+                    // values computed by the script don't use memory, unlike the cached ones
+                    assertThat(fieldData.apply(cache).load(context).ramBytesUsed(), equalTo(0L));
+                }
+                assertThat(loads.get(), equalTo(2 * reader.leaves().size()));
+            }
+        }
+    }
+
+    private static List<Object> collectValues(DirectoryReader reader, IndexNumericFieldData ifd) throws IOException {
+        List<Object> values = new ArrayList<>();
+        for (LeafReaderContext context : reader.leaves()) {
+            if (ifd.getNumericType().isFloatingPoint()) {
+                SortedNumericDoubleValues dv = ifd.load(context).getDoubleValues();
+                for (int doc = 0; doc < context.reader().maxDoc(); doc++) {
+                    if (dv.advanceExact(doc)) {
+                        for (int i = 0; i < dv.docValueCount(); i++) {
+                            values.add(dv.nextValue());
+                        }
+                    }
+                }
+            } else {
+                SortedNumericDocValues dv = ifd.load(context).getLongValues();
+                for (int doc = 0; doc < context.reader().maxDoc(); doc++) {
+                    if (dv.advanceExact(doc)) {
+                        for (int i = 0; i < dv.docValueCount(); i++) {
+                            values.add(dv.nextValue());
+                        }
+                    }
+                }
+            }
+        }
+        values.sort(null);
+        return values;
+    }
+
+    /**
+     * Builds a fielddata cache that works like the one of an index and counts the segments that it loads.
+     */
+    protected static IndexFieldDataCache fieldDataCache(AtomicInteger loads) {
+        IndexFieldDataCache.Listener listener = new IndexFieldDataCache.Listener() {
+            @Override
+            public void onCache(ShardId shardId, String fieldName, Accountable ramUsage) {
+                loads.incrementAndGet();
+            }
+        };
+        return new IndicesFieldDataCache(Settings.EMPTY, new IndexFieldDataCache.Listener() {
+        }).buildIndexFieldDataCache(listener, new Index("test", "_na_"), "test");
+    }
+
     @Override
     protected Collection<? extends Plugin> getPlugins() {
         return List.of(new RuntimeFields(), new TestScriptPlugin());
@@ -34,11 +34,13 @@ import org.elasticsearch.common.lucene.search.function.ScriptScoreQuery;
 import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.common.time.DateFormatter;
 import org.elasticsearch.common.xcontent.XContentBuilder;
+import org.elasticsearch.index.fielddata.IndexFieldDataCache;
 import org.elasticsearch.index.fielddata.ScriptDocValues;
 import org.elasticsearch.index.mapper.DateFieldMapper;
 import org.elasticsearch.index.mapper.MappedFieldType;
 import org.elasticsearch.index.mapper.MapperService;
 import org.elasticsearch.index.query.QueryShardContext;
+import org.elasticsearch.indices.breaker.NoneCircuitBreakerService;
 import org.elasticsearch.plugins.ScriptPlugin;
 import org.elasticsearch.script.ScoreScript;
 import org.elasticsearch.script.Script;
@@ -175,6 +177,29 @@ public class DateScriptFieldTypeTests extends AbstractNonTextScriptFieldTypeTest
         }
     }
 
+    public void testCachedDocValues() throws IOException {
+        DateScriptFieldType ft = build("add_days", Map.of("days", 1));
+        DateScriptFieldType updated = build("add_days", Map.of("days", 2));
+        checkCachedDocValues(
+            List.of("{\"timestamp\": [1595432181354]}", "{\"timestamp\": []}", "{\"timestamp\": [1595432181356, 1595432181351]}"),
+            cache -> cachedFieldData(ft, cache),
+            List.of(1595518581351L, 1595518581354L, 1595518581356L),
+            cache -> cachedFieldData(updated, cache),
+            List.of(1595604981351L, 1595604981354L, 1595604981356L)
+        );
+    }
+
+    public void testCacheIsOnlySupportedInMappings() throws IOException {
+        checkCacheIsOnlySupportedInMappings();
+    }
+
+    private static DateScriptFieldData cachedFieldData(DateScriptFieldType ft, IndexFieldDataCache cache) {
+        return new DateScriptFieldData.Builder(ft.name(), ft.leafFactory(mockContext().lookup()), ft.script, true).build(
+            cache,
+            new NoneCircuitBreakerService()
+        );
+    }
+
     @Override
     public void testSort() throws IOException {
         try (Directory directory = newDirectory(); RandomIndexWriter iw = new RandomIndexWriter(random(), directory)) {
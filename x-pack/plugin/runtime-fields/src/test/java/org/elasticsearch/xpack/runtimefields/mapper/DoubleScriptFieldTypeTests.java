@@ -25,10 +25,12 @@ import org.apache.lucene.util.BytesRef;
 import org.elasticsearch.Version;
 import org.elasticsearch.common.lucene.search.function.ScriptScoreQuery;
 import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.index.fielddata.IndexFieldDataCache;
 import org.elasticsearch.index.fielddata.ScriptDocValues;
 import org.elasticsearch.index.fielddata.SortedNumericDoubleValues;
 import org.elasticsearch.index.mapper.MappedFieldType;
 import org.elasticsearch.index.query.QueryShardContext;
+import org.elasticsearch.indices.breaker.NoneCircuitBreakerService;
 import org.elasticsearch.plugins.ScriptPlugin;
 import org.elasticsearch.script.ScoreScript;
 import org.elasticsearch.script.Script;
@@ -101,6 +103,30 @@ public class DoubleScriptFieldTypeTests extends AbstractNonTextScriptFieldTypeTe
         }
     }
 
+    public void testCachedDocValues() throws IOException {
+        // the values are cached as sortable long bits and must read back as the same doubles, negative ones included
+        DoubleScriptFieldType ft = build("add_param", Map.of("param", 1));
+        DoubleScriptFieldType updated = build("add_param", Map.of("param", 2));
+        checkCachedDocValues(
+            List.of("{\"foo\": [1.0]}", "{\"foo\": []}", "{\"foo\": [-3.5, 1.25]}"),
+            cache -> cachedFieldData(ft, cache),
+            List.of(-2.5, 2.0, 2.25),
+            cache -> cachedFieldData(updated, cache),
+            List.of(-1.5, 3.0, 3.25)
+        );
+    }
+
+    public void testCacheIsOnlySupportedInMappings() throws IOException {
+        checkCacheIsOnlySupportedInMappings();
+    }
+
+    private static DoubleScriptFieldData cachedFieldData(DoubleScriptFieldType ft, IndexFieldDataCache cache) {
+        return new DoubleScriptFieldData.Builder(ft.name(), ft.leafFactory(mockContext().lookup()), ft.script, true).build(
+            cache,
+            new NoneCircuitBreakerService()
+        );
+    }
+
     @Override
     public void testSort() throws IOException {
         try (Directory directory = newDirectory(); RandomIndexWriter iw = new RandomIndexWriter(random(), directory)) {
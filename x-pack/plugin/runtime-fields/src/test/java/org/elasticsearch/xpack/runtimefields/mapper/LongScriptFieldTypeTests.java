@@ -27,9 +27,11 @@ import org.apache.lucene.util.BytesRef;
 import org.elasticsearch.Version;
 import org.elasticsearch.common.lucene.search.function.ScriptScoreQuery;
 import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.index.fielddata.IndexFieldDataCache;
 import org.elasticsearch.index.fielddata.ScriptDocValues;
 import org.elasticsearch.index.mapper.MappedFieldType;
 import org.elasticsearch.index.query.QueryShardContext;
+import org.elasticsearch.indices.breaker.NoneCircuitBreakerService;
 import org.elasticsearch.plugins.ScriptPlugin;
 import org.elasticsearch.script.ScoreScript;
 import org.elasticsearch.script.Script;
@@ -100,6 +102,29 @@ public class LongScriptFieldTypeTests extends AbstractNonTextScriptFieldTypeTest
         }
     }
 
+    public void testCachedDocValues() throws IOException {
+        LongScriptFieldType ft = build("add_param", Map.of("param", 1));
+        LongScriptFieldType updated = build("add_param", Map.of("param", 2));
+        checkCachedDocValues(
+            List.of("{\"foo\": [1]}", "{\"foo\": []}", "{\"foo\": [2, 1]}"),
+            cache -> cachedFieldData(ft, cache),
+            List.of(2L, 2L, 3L),
+            cache -> cachedFieldData(updated, cache),
+            List.of(3L, 3L, 4L)
+        );
+    }
+
+    public void testCacheIsOnlySupportedInMappings() throws IOException {
+        checkCacheIsOnlySupportedInMappings();
+    }
+
+    private static LongScriptFieldData cachedFieldData(LongScriptFieldType ft, IndexFieldDataCache cache) {
+        return new LongScriptFieldData.Builder(ft.name(), ft.leafFactory(mockContext().lookup()), ft.script, true).build(
+            cache,
+            new NoneCircuitBreakerService()
+        );
+    }
+
     @Override
     public void testSort() throws IOException {
         try (Directory directory = newDirectory(); RandomIndexWriter iw = new RandomIndexWriter(random(), directory)) {
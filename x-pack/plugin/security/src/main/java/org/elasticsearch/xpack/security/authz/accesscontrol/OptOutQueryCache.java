@@ -6,7 +6,12 @@
 
 package org.elasticsearch.xpack.security.authz.accesscontrol;
 
+import org.apache.lucene.search.FilterWeight;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
 import org.apache.lucene.search.QueryCachingPolicy;
+import org.apache.lucene.search.QueryVisitor;
+import org.apache.lucene.search.ScoreMode;
 import org.apache.lucene.search.Weight;
 import org.elasticsearch.ElasticsearchException;
 import org.elasticsearch.common.util.concurrent.ThreadContext;
@@ -18,13 +23,18 @@ import org.elasticsearch.license.LicenseStateListener;
 import org.elasticsearch.license.XPackLicenseState;
 import org.elasticsearch.xpack.core.security.authz.AuthorizationServiceField;
 import org.elasticsearch.xpack.core.security.authz.accesscontrol.IndicesAccessControl;
+import org.elasticsearch.xpack.core.security.authz.permission.FieldPermissions;
+import org.elasticsearch.xpack.core.security.authz.permission.FieldPermissionsDefinition;
 
+import java.io.IOException;
 import java.util.HashSet;
 import java.util.Objects;
 import java.util.Set;
 
 /**
- * Opts out of the query cache if field level security is active for the current request, and it is unsafe to cache. Note that the method
+ * Opts out of the shared query cache if field level security is active for the current request, and it is unsafe to cache. Such queries
+ * are cached under a key that is scoped to the field permissions of the request instead, see {@link FieldPermissionsScopedQuery}. Note
+ * that the method
  * {@link #listenForLicenseStateChanges()} must be invoked after construction of the query cache and before any other public methods are
  * invoked on this query cache.
  */
@@ -103,6 +113,12 @@ public final class OptOutQueryCache extends AbstractIndexComponent implements Li
             if (cachingIsSafe(weight, indexAccessControl)) {
                 logger.trace("not opting out of the query cache. request for index [{}] is safe to cache", indexName);
                 return indicesQueryCache.doCache(weight, policy);
+            }
+            final FieldPermissionsScopedQuery scopedQuery =
+                FieldPermissionsScopedQuery.of(weight.getQuery(), indexAccessControl.getFieldPermissions());
+            if (scopedQuery != null) {
+                logger.trace("caching query for index [{}] under its field permissions. request is unsafe to share", indexName);
+                return indicesQueryCache.doCache(new FilterWeight(scopedQuery, weight) {}, policy);
             } else {
                 logger.trace("opting out of the query cache. request for index [{}] is unsafe to cache", indexName);
                 return weight;
@@ -138,4 +154,65 @@ public final class OptOutQueryCache extends AbstractIndexComponent implements Li
         return true;
     }
 
+    /**
+     * Query used as the query cache key of a weight that is executed against a reader whose visible fields are restricted by field level
+     * security. The {@link org.elasticsearch.xpack.core.security.authz.accesscontrol.FieldSubsetReader} shares its core cache key with
+     * the unrestricted reader, so the results of such a query must never be shared with requests that see a different set of fields.
+     * Scoping the key to the definition of the field permissions lets requests of users with the same roles share cache entries.
+     */
+    static final class FieldPermissionsScopedQuery extends Query {
+
+        private final Query query;
+        private final FieldPermissionsDefinition definition;
+
+        private FieldPermissionsScopedQuery(Query query, FieldPermissionsDefinition definition) {
+            this.query = Objects.requireNonNull(query);
+            this.definition = Objects.requireNonNull(definition);
+        }
+
+        /**
+         * Returns the query scoped to the provided field permissions, or {@code null} if the permissions have no definition that
+         * identifies them, which is the case when they are the result of limiting permissions by another set of permissions.
+         */
+        static FieldPermissionsScopedQuery of(Query query, FieldPermissions fieldPermissions) {
+            final FieldPermissionsDefinition definition = fieldPermissions.getFieldPermissionsDefinition();
+            if (definition == null) {
+                return null;
+            }
+            return new FieldPermissionsScopedQuery(query, definition);
+        }
+
+        Query getQuery() {
+            return query;
+        }
+
+        @Override
+        public Weight createWeight(IndexSearcher searcher, ScoreMode scoreMode, float boost) throws IOException {
+            return query.createWeight(searcher, scoreMode, boost);
+        }
+
+        @Override
+        public void visit(QueryVisitor visitor) {
+            query.visit(visitor);
+        }
+
+        @Override
+        public String toString(String field) {
+            return "FieldPermissionsScopedQuery(" + query.toString(field) + ")";
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (sameClassAs(obj) == false) {
+                return false;
+            }
+            FieldPermissionsScopedQuery other = (FieldPermissionsScopedQuery) obj;
+            return query.equals(other.query) && definition.equals(other.definition);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * (31 * classHash() + query.hashCode()) + definition.hashCode();
+        }
+    }
 }
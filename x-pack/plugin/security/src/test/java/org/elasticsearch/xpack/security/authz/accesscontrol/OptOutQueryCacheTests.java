@@ -11,6 +11,7 @@ import org.apache.lucene.index.Term;
 import org.apache.lucene.search.BooleanClause;
 import org.apache.lucene.search.BooleanQuery;
 import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
 import org.apache.lucene.search.QueryCachingPolicy;
 import org.apache.lucene.search.ScoreMode;
 import org.apache.lucene.search.TermQuery;
@@ -31,9 +32,11 @@ import org.elasticsearch.xpack.core.security.authz.permission.FieldPermissions;
 import org.elasticsearch.xpack.core.security.authz.permission.FieldPermissionsDefinition;
 import org.junit.After;
 import org.junit.Before;
+import org.mockito.ArgumentCaptor;
 
 import java.io.IOException;
 
+import static org.hamcrest.Matchers.instanceOf;
 import static org.mockito.Matchers.same;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
@@ -187,6 +190,64 @@ public class OptOutQueryCacheTests extends ESTestCase {
         verify(indicesQueryCache).doCache(same(weight), same(policy));
     }
 
+    public void testUnsafeQueriesAreCachedUnderFieldPermissions() throws IOException {
+        final Settings.Builder settings = Settings.builder()
+                .put("index.version.created", Version.CURRENT)
+                .put("index.number_of_shards", 1)
+                .put("index.number_of_replicas", 0);
+        final IndexMetadata indexMetadata = IndexMetadata.builder("index").settings(settings).build();
+        final IndexSettings indexSettings = new IndexSettings(indexMetadata, Settings.EMPTY);
+        final IndicesQueryCache indicesQueryCache = mock(IndicesQueryCache.class);
+        final ThreadContext threadContext = new ThreadContext(Settings.EMPTY);
+        final FieldPermissions fieldPermissions = new FieldPermissions(fieldPermissionDef(new String[]{"foo"}, null));
+        final IndicesAccessControl.IndexAccessControl indexAccessControl =
+                new IndicesAccessControl.IndexAccessControl(true, fieldPermissions, DocumentPermissions.allowAll());
+        final IndicesAccessControl indicesAccessControl = mock(IndicesAccessControl.class);
+        when(indicesAccessControl.getIndexPermissions("index")).thenReturn(indexAccessControl);
+        threadContext.putTransient(AuthorizationServiceField.INDICES_PERMISSIONS_KEY, indicesAccessControl);
+        final XPackLicenseState licenseState = mock(XPackLicenseState.class);
+        when(licenseState.isSecurityEnabled()).thenReturn(true);
+        final OptOutQueryCache cache = new OptOutQueryCache(indexSettings, indicesQueryCache, threadContext, licenseState);
+        cache.listenForLicenseStateChanges();
+
+        // the query touches a field that is not granted, it must not share cache entries with other requests
+        final TermQuery query = new TermQuery(new Term("no", "baz"));
+        final Weight weight = query.createWeight(searcher, ScoreMode.COMPLETE_NO_SCORES, 1f);
+        final QueryCachingPolicy policy = mock(QueryCachingPolicy.class);
+        cache.doCache(weight, policy);
+        final ArgumentCaptor<Weight> captor = ArgumentCaptor.forClass(Weight.class);
+        verify(indicesQueryCache).doCache(captor.capture(), same(policy));
+        final Weight cachedWeight = captor.getValue();
+        assertNotSame(weight, cachedWeight);
+        assertThat(cachedWeight.getQuery(), instanceOf(OptOutQueryCache.FieldPermissionsScopedQuery.class));
+        assertSame(query, ((OptOutQueryCache.FieldPermissionsScopedQuery) cachedWeight.getQuery()).getQuery());
+    }
+
+    public void testFieldPermissionsScopedQueryEquality() {
+        final TermQuery query = new TermQuery(new Term("no", "baz"));
+        final FieldPermissions fieldPermissions = new FieldPermissions(fieldPermissionDef(new String[]{"foo"}, null));
+        final Query scoped = OptOutQueryCache.FieldPermissionsScopedQuery.of(query, fieldPermissions);
+
+        // same query and same permissions, e.g. another user with the same roles
+        final Query sameScope = OptOutQueryCache.FieldPermissionsScopedQuery.of(new TermQuery(new Term("no", "baz")),
+                new FieldPermissions(fieldPermissionDef(new String[]{"foo"}, null)));
+        assertEquals(scoped, sameScope);
+        assertEquals(scoped.hashCode(), sameScope.hashCode());
+
+        assertNotEquals(scoped, query);
+        assertNotEquals(scoped, OptOutQueryCache.FieldPermissionsScopedQuery.of(query,
+                new FieldPermissions(fieldPermissionDef(new String[]{"foo", "bar"}, null))));
+        assertNotEquals(scoped, OptOutQueryCache.FieldPermissionsScopedQuery.of(query,
+                new FieldPermissions(fieldPermissionDef(new String[]{"*"}, new String[]{"no"}))));
+        assertNotEquals(scoped, OptOutQueryCache.FieldPermissionsScopedQuery.of(new TermQuery(new Term("no", "qux")), fieldPermissions));
+
+        // limited permissions have no definition to identify them, they are never cached
+        final FieldPermissions limited = fieldPermissions.limitFieldPermissions(
+                new FieldPermissions(fieldPermissionDef(new String[]{"f*"}, null)));
+        assertNull(limited.getFieldPermissionsDefinition());
+        assertNull(OptOutQueryCache.FieldPermissionsScopedQuery.of(query, limited));
+    }
+
     public void testOptOutQueryCacheRemovesLicenseStateListenerOnClose() {
         final Settings.Builder settings = Settings.builder()
                 .put("index.version.created", Version.CURRENT)
@@ -5,7 +5,6 @@
  */
 package org.elasticsearch.xpack.sql.client;
 
-import org.elasticsearch.common.collect.Tuple;
 import org.elasticsearch.common.unit.TimeValue;
 import org.elasticsearch.common.xcontent.DeprecationHandler;
 import org.elasticsearch.common.xcontent.NamedXContentRegistry;
@@ -13,7 +12,6 @@ import org.elasticsearch.common.xcontent.ToXContent;
 import org.elasticsearch.common.xcontent.XContentBuilder;
 import org.elasticsearch.common.xcontent.XContentParser;
 import org.elasticsearch.common.xcontent.XContentType;
-import org.elasticsearch.core.internal.io.Streams;
 import org.elasticsearch.xpack.sql.client.JreHttpUrlConnection.ResponseOrException;
 import org.elasticsearch.xpack.sql.proto.AbstractSqlRequest;
 import org.elasticsearch.xpack.sql.proto.MainResponse;
@@ -25,7 +23,6 @@ import org.elasticsearch.xpack.sql.proto.SqlClearCursorResponse;
 import org.elasticsearch.xpack.sql.proto.SqlQueryRequest;
 import org.elasticsearch.xpack.sql.proto.SqlQueryResponse;
 
-import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
@@ -100,17 +97,15 @@ public class HttpClient {
             throws SQLException {
         byte[] requestBytes = toXContent(request);
         String query = "error_trace";
-        Tuple<XContentType, byte[]> response =
-            AccessController.doPrivileged((PrivilegedAction<ResponseOrException<Tuple<XContentType, byte[]>>>) () ->
+        return AccessController.doPrivileged((PrivilegedAction<ResponseOrException<Response>>) () ->
                 JreHttpUrlConnection.http(path, query, cfg, con ->
                     con.request(
                         (out) -> out.write(requestBytes),
-                        this::readFrom,
+                        (in, headers) -> fromXContent(in, headers, responseParser),
                         "POST",
                         requestBodyContentType.mediaTypeWithoutParameters() // "application/cbor" or "application/json"
                     )
                 )).getResponseOrThrowException();
-        return fromXContent(response.v1(), response.v2(), responseParser);
     }
 
     private boolean head(String path, long timeoutInMs) throws SQLException {
@@ -127,16 +122,14 @@ public class HttpClient {
 
     private <Response> Response get(String path, CheckedFunction<XContentParser, Response, IOException> responseParser)
         throws SQLException {
-        Tuple<XContentType, byte[]> response =
-            AccessController.doPrivileged((PrivilegedAction<ResponseOrException<Tuple<XContentType, byte[]>>>) () ->
+        return AccessController.doPrivileged((PrivilegedAction<ResponseOrException<Response>>) () ->
                 JreHttpUrlConnection.http(path, "error_trace", cfg, con ->
                     con.request(
                         null,
-                        this::readFrom,
+                        (in, headers) -> fromXContent(in, headers, responseParser),
                         "GET"
                     )
                 )).getResponseOrThrowException();
-        return fromXContent(response.v1(), response.v2(), responseParser);
     }
 
     private <Request extends ToXContent> byte[] toXContent(Request xContent) {
@@ -156,27 +149,19 @@ public class HttpClient {
         }
     }
 
-    private Tuple<XContentType, byte[]> readFrom(InputStream inputStream, Function<String, String> headers) {
+    /**
+     * Parses the response straight from the (buffered) stream of the connection, instead of copying the whole body
+     * into memory first, as large pages would otherwise be held twice in memory while being parsed.
+     */
+    private <Response> Response fromXContent(InputStream inputStream, Function<String, String> headers,
+                                             CheckedFunction<XContentParser, Response, IOException> responseParser) {
         String contentType = headers.apply("Content-Type");
         XContentType xContentType = XContentType.fromMediaType(contentType);
         if (xContentType == null) {
             throw new IllegalStateException("Unsupported Content-Type: " + contentType);
         }
-        ByteArrayOutputStream out = new ByteArrayOutputStream();
-        try {
-            Streams.copy(inputStream, out);
-        } catch (IOException ex) {
-            throw new ClientException("Cannot deserialize response", ex);
-        }
-        return new Tuple<>(xContentType, out.toByteArray());
-
-    }
-
-    private <Response> Response fromXContent(XContentType xContentType, byte[] bytesReference,
-                                             CheckedFunction<XContentParser, Response, IOException> responseParser) {
-        try (InputStream stream = new ByteArrayInputStream(bytesReference);
-             XContentParser parser = xContentType.xContent().createParser(registry,
-                 DeprecationHandler.THROW_UNSUPPORTED_OPERATION, stream)) {
+        try (XContentParser parser = xContentType.xContent().createParser(registry,
+                 DeprecationHandler.THROW_UNSUPPORTED_OPERATION, inputStream)) {
             return responseParser.apply(parser);
         } catch (IOException ex) {
             throw new ClientException("Cannot parse response", ex);
@@ -27,6 +27,7 @@ import org.elasticsearch.test.ESTestCase;
 import org.elasticsearch.xpack.sql.proto.Mode;
 import org.elasticsearch.xpack.sql.proto.RequestInfo;
 import org.elasticsearch.xpack.sql.proto.SqlQueryRequest;
+import org.elasticsearch.xpack.sql.proto.SqlQueryResponse;
 import org.junit.AfterClass;
 import org.junit.BeforeClass;
 
@@ -38,6 +39,7 @@ import java.net.InetSocketAddress;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.nio.charset.StandardCharsets;
+import java.sql.SQLDataException;
 import java.sql.SQLException;
 import java.time.ZoneId;
 import java.util.ArrayList;
@@ -91,6 +93,47 @@ public class HttpClientRequestTests extends ESTestCase {
         assertBinaryRequestForDrivers(false, XContentType.JSON);
     }
     
+    public void testParseResponse() throws URISyntaxException, SQLException {
+        HttpClient httpClient = newHttpClient();
+        webServer.enqueue(new Response().setResponseCode(200).addHeader("Content-Type", "application/json")
+            .setBody("{\"columns\":[{\"name\":\"a\",\"type\":\"integer\"}],\"rows\":[[1],[2]],\"cursor\":\"c\"}"));
+
+        SqlQueryResponse response = httpClient.basicQuery(randomAlphaOfLength(16), randomIntBetween(1, 100));
+        webServer.takeRequest();
+        assertEquals("c", response.cursor());
+        assertEquals(1, response.columns().size());
+        assertEquals("a", response.columns().get(0).name());
+        assertEquals("integer", response.columns().get(0).esType());
+        assertEquals(List.of(List.of(1), List.of(2)), response.rows());
+    }
+
+    public void testMalformedResponse() throws URISyntaxException {
+        HttpClient httpClient = newHttpClient();
+        webServer.enqueue(new Response().setResponseCode(200).addHeader("Content-Type", "application/json").setBody("not json"));
+
+        ClientException e = expectThrows(ClientException.class,
+            () -> httpClient.basicQuery(randomAlphaOfLength(16), randomIntBetween(1, 100)));
+        webServer.takeRequest();
+        assertEquals("Cannot parse response", e.getMessage());
+    }
+
+    public void testErrorResponse() throws URISyntaxException {
+        HttpClient httpClient = newHttpClient();
+        webServer.enqueue(new Response().setResponseCode(400).addHeader("Content-Type", "application/json")
+            .setBody("{\"error\":{\"type\":\"verification_exception\",\"reason\":\"Found 1 problem\",\"stack_trace\":\"trace\"},"
+                + "\"status\":400}"));
+
+        SQLDataException e = expectThrows(SQLDataException.class,
+            () -> httpClient.basicQuery(randomAlphaOfLength(16), randomIntBetween(1, 100)));
+        webServer.takeRequest();
+        assertEquals("Found 1 problem", e.getMessage());
+    }
+
+    private HttpClient newHttpClient() throws URISyntaxException {
+        String url = "http://" + webServer.getHostName() + ":" + webServer.getPort();
+        return new HttpClient(new ConnectionConfiguration(new URI(url), url, new Properties()));
+    }
+
     private void assertBinaryRequestForCLI(boolean isBinary, XContentType xContentType) throws URISyntaxException {
         String url = "http://" + webServer.getHostName() + ":" + webServer.getPort();
         String query = randomAlphaOfLength(256);
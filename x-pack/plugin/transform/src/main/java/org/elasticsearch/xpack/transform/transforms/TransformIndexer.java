@@ -80,6 +80,11 @@ public abstract class TransformIndexer extends AsyncTwoPhaseIndexer<TransformInd
     private static final long RETENTION_OF_CHECKPOINTS_MS = 864000000L; // 10 days
     private static final long CHECKPOINT_CLEANUP_INTERVAL = 100L; // every 100 checkpoints
 
+    // every page of change detection scans all changes since the last checkpoint, but only returns the keys of the changed
+    // buckets, it therefore uses bigger pages than the search that applies the results for those buckets
+    static final int CHANGES_PAGE_SIZE_FACTOR = 10;
+    static final int MAX_CHANGES_PAGE_SIZE = 10_000;
+
     protected final TransformConfigManager transformsConfigManager;
     private final CheckpointProvider checkpointProvider;
     private volatile float docsPerSecond = -1;
@@ -855,7 +860,11 @@ public abstract class TransformIndexer extends AsyncTwoPhaseIndexer<TransformInd
 
         TransformIndexerPosition position = getPosition();
 
-        changeCollector.buildChangesQuery(sourceBuilder, position != null ? position.getBucketsPosition() : null, pageSize);
+        changeCollector.buildChangesQuery(
+            sourceBuilder,
+            position != null ? position.getBucketsPosition() : null,
+            getChangesPageSize(pageSize)
+        );
 
         QueryBuilder queryBuilder = getConfig().getSource().getQueryConfig().getQuery();
 
@@ -1004,6 +1013,14 @@ public abstract class TransformIndexer extends AsyncTwoPhaseIndexer<TransformInd
         return RunState.IDENTIFY_CHANGES;
     }
 
+    /**
+     * Get the page size for change detection given the page size of the indexer. It is never lower than the page size
+     * of the indexer and shrinks with it if a circuit breaker trips.
+     */
+    static int getChangesPageSize(int pageSize) {
+        return Math.max(pageSize, Math.min(pageSize * CHANGES_PAGE_SIZE_FACTOR, MAX_CHANGES_PAGE_SIZE));
+    }
+
     private void configurePageSize(Integer newPageSize) {
         initialConfiguredPageSize = newPageSize;
 
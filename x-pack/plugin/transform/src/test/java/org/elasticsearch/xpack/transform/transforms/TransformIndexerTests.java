@@ -320,6 +320,17 @@ public class TransformIndexerTests extends ESTestCase {
         assertThat(pageSizeAfterFirstReduction, greaterThan((long) TransformIndexer.MINIMUM_PAGE_SIZE));
     }
 
+    public void testChangesPageSize() {
+        assertEquals(5_000, TransformIndexer.getChangesPageSize(500));
+        assertEquals(TransformIndexer.MAX_CHANGES_PAGE_SIZE, TransformIndexer.getChangesPageSize(5_000));
+        assertEquals(TransformIndexer.MINIMUM_PAGE_SIZE * TransformIndexer.CHANGES_PAGE_SIZE_FACTOR,
+            TransformIndexer.getChangesPageSize(TransformIndexer.MINIMUM_PAGE_SIZE));
+
+        // never lower than the page size of the indexer
+        int pageSize = randomIntBetween(TransformIndexer.MAX_CHANGES_PAGE_SIZE, 65_536);
+        assertEquals(pageSize, TransformIndexer.getChangesPageSize(pageSize));
+    }
+
     public void testDoProcessAggNullCheck() {
         Integer pageSize = randomBoolean() ? null : randomIntBetween(500, 10_000);
         TransformConfig config = new TransformConfig(